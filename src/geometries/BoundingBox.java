@@ -0,0 +1,207 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+/**
+ * Axis-aligned bounding box (AABB) of an intersectable object.
+ * The box is used by acceleration structures to reject a whole group of geometries with a single
+ * ray-box (slab) test. Unbounded geometries (e.g. planes and tubes) have an infinite box.
+ * @author Ayala Houri and Shani Zegal
+ */
+public final class BoundingBox {
+    /** Box of unbounded geometries, which can never be culled */
+    public static final BoundingBox INFINITE = new BoundingBox(
+            Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+    /** Empty box - the neutral element of {@link #union(BoundingBox)} */
+    public static final BoundingBox EMPTY = new BoundingBox(
+            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+
+    /** Entry distance returned by the slab test when the box is missed */
+    static final double MISS = Double.POSITIVE_INFINITY;
+
+    /** Relative slack of the slab test against floating point rounding */
+    static final double SLAB_TOLERANCE = 1 + 1e-12;
+
+    /** Minimal corner of the box */
+    final double minX, minY, minZ;
+    /** Maximal corner of the box */
+    final double maxX, maxY, maxZ;
+
+    /**
+     * Constructs a box by its minimal and maximal corners coordinates.
+     *
+     * @param minX minimal x coordinate
+     * @param minY minimal y coordinate
+     * @param minZ minimal z coordinate
+     * @param maxX maximal x coordinate
+     * @param maxY maximal y coordinate
+     * @param maxZ maximal z coordinate
+     */
+    public BoundingBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Constructs the smallest box containing all the given points.
+     *
+     * @param points the points to bound
+     * @return the bounding box of the points
+     */
+    public static BoundingBox of(List<Point> points) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            minX = Math.min(minX, p.getX());
+            minY = Math.min(minY, p.getY());
+            minZ = Math.min(minZ, p.getZ());
+            maxX = Math.max(maxX, p.getX());
+            maxY = Math.max(maxY, p.getY());
+            maxZ = Math.max(maxZ, p.getZ());
+        }
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Constructs the smallest box containing both this box and another one.
+     *
+     * @param other the other box
+     * @return the union box
+     */
+    public BoundingBox union(BoundingBox other) {
+        return new BoundingBox(
+                Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * Checks whether the box is unbounded in any direction.
+     *
+     * @return true if the box is infinite
+     */
+    public boolean isInfinite() {
+        return Double.isInfinite(minX) || Double.isInfinite(minY) || Double.isInfinite(minZ)
+                || Double.isInfinite(maxX) || Double.isInfinite(maxY) || Double.isInfinite(maxZ);
+    }
+
+    /**
+     * Checks whether the box contains no point at all (e.g. the box of an empty collection).
+     *
+     * @return true if the box is empty
+     */
+    public boolean isEmpty() {
+        return minX > maxX || minY > maxY || minZ > maxZ;
+    }
+
+    /**
+     * Calculates the surface area of the box (used by the surface area heuristic).
+     *
+     * @return the surface area, 0 for an empty box
+     */
+    public double surfaceArea() {
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        if (dx < 0 || dy < 0 || dz < 0) return 0;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Returns the minimal coordinate of the box along an axis.
+     *
+     * @param axis 0 for x, 1 for y, 2 for z
+     * @return the minimal coordinate
+     */
+    double min(int axis) {
+        return axis == 0 ? minX : axis == 1 ? minY : minZ;
+    }
+
+    /**
+     * Returns the maximal coordinate of the box along an axis.
+     *
+     * @param axis 0 for x, 1 for y, 2 for z
+     * @return the maximal coordinate
+     */
+    double max(int axis) {
+        return axis == 0 ? maxX : axis == 1 ? maxY : maxZ;
+    }
+
+    /**
+     * Returns the center of the box along an axis.
+     *
+     * @param axis 0 for x, 1 for y, 2 for z
+     * @return the center coordinate
+     */
+    double center(int axis) {
+        return (min(axis) + max(axis)) / 2;
+    }
+
+    /**
+     * Checks whether a ray crosses the box before a given distance (slab test).
+     *
+     * @param ray         the ray to test
+     * @param maxDistance the maximal distance along the ray
+     * @return true if the ray crosses the box in the range (0, maxDistance], false for an empty box
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        // the slabs of an empty box are inverted, which the test below would take for an unbounded box
+        if (isEmpty()) return false;
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        return intersects(p0.getX(), p0.getY(), p0.getZ(),
+                1 / dir.getX(), 1 / dir.getY(), 1 / dir.getZ(), maxDistance) != MISS;
+    }
+
+    /**
+     * Slab test with a precomputed inverse ray direction.
+     * A zero direction component gives an infinite inverse; the resulting NaN values (for rays lying on a slab
+     * plane) are ignored by the comparisons.
+     *
+     * @param ox          ray origin x
+     * @param oy          ray origin y
+     * @param oz          ray origin z
+     * @param invX        inverse of the ray direction x
+     * @param invY        inverse of the ray direction y
+     * @param invZ        inverse of the ray direction z
+     * @param maxDistance the maximal distance along the ray
+     * @return the entry distance into the box (0 if the ray starts inside it), or {@link #MISS} if the box is
+     * missed in the range [0, maxDistance]
+     */
+    double intersects(double ox, double oy, double oz, double invX, double invY, double invZ, double maxDistance) {
+        double tNear = 0;
+        double tFar = maxDistance;
+
+        double t1 = (minX - ox) * invX, t2 = (maxX - ox) * invX;
+        if (t1 > t2) { double tmp = t1; t1 = t2; t2 = tmp; }
+        if (t1 > tNear) tNear = t1;
+        if (t2 * SLAB_TOLERANCE < tFar) tFar = t2 * SLAB_TOLERANCE;
+
+        t1 = (minY - oy) * invY;
+        t2 = (maxY - oy) * invY;
+        if (t1 > t2) { double tmp = t1; t1 = t2; t2 = tmp; }
+        if (t1 > tNear) tNear = t1;
+        if (t2 * SLAB_TOLERANCE < tFar) tFar = t2 * SLAB_TOLERANCE;
+
+        t1 = (minZ - oz) * invZ;
+        t2 = (maxZ - oz) * invZ;
+        if (t1 > t2) { double tmp = t1; t1 = t2; t2 = tmp; }
+        if (t1 > tNear) tNear = t1;
+        if (t2 * SLAB_TOLERANCE < tFar) tFar = t2 * SLAB_TOLERANCE;
+
+        return tNear <= tFar ? tNear : MISS;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{(" + minX + "," + minY + "," + minZ + ")-(" + maxX + "," + maxY + "," + maxZ + ")}";
+    }
+}
@@ -0,0 +1,466 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Bounding volume hierarchy (BVH) over a collection of intersectable objects.
+ * The objects are organized in a binary tree of bounding boxes built by the surface area heuristic (SAH),
+ * so a ray visits only the branches whose boxes it crosses - logarithmic instead of linear in the
+ * number of objects. Unbounded objects (planes, tubes) cannot be put in a box and are tested for every ray.
+ * <p>
+ * The hierarchy is an {@link Intersectable} itself, so it may be added to the scene geometries instead of
+ * the flat collection it was built of. It is built once - later changes of the source collection are not seen.
+ * @author Ayala Houri and Shani Zegal
+ */
+public class BoundingVolumeHierarchy extends Intersectable {
+    /** Number of centroid bins per axis evaluated by the SAH */
+    private static final int BINS = 16;
+    /** Maximal number of objects in a leaf */
+    private static final int MAX_LEAF_SIZE = 4;
+    /** Cost of visiting a node relative to intersecting an object */
+    private static final double TRAVERSAL_COST = 0.125;
+
+    /** Node of the hierarchy - an inner node has two children, a leaf has a range of objects */
+    private static final class Node {
+        final BoundingBox box;
+        final Node left, right;
+        final int first, count;
+
+        Node(BoundingBox box, Node left, Node right) {
+            this.box = box;
+            this.left = left;
+            this.right = right;
+            this.first = 0;
+            this.count = 0;
+        }
+
+        Node(BoundingBox box, int first, int count) {
+            this.box = box;
+            this.left = null;
+            this.right = null;
+            this.first = first;
+            this.count = count;
+        }
+    }
+
+    /** Bounded objects, ordered so that each leaf refers to a contiguous range */
+    private final Intersectable[] items;
+    /** Bounding boxes of the objects (parallel to {@link #items}) */
+    private final BoundingBox[] boxes;
+    /** Unbounded objects, tested for every ray */
+    private final Intersectable[] unbounded;
+    /** Root of the tree, null if there are no bounded objects */
+    private final Node root;
+    /** Box of the whole hierarchy */
+    private final BoundingBox box;
+
+    /**
+     * Builds a hierarchy over the objects of a collection. Nested collections are flattened,
+     * so the tree is built over the individual geometries.
+     *
+     * @param geometries the collection of objects
+     */
+    public BoundingVolumeHierarchy(Geometries geometries) {
+        List<Intersectable> bounded = new ArrayList<>();
+        List<Intersectable> infinite = new ArrayList<>();
+        flatten(geometries, bounded, infinite);
+
+        items = bounded.toArray(new Intersectable[0]);
+        boxes = new BoundingBox[items.length];
+        for (int i = 0; i < items.length; ++i)
+            boxes[i] = items[i].getBoundingBox();
+        unbounded = infinite.toArray(new Intersectable[0]);
+
+        root = items.length == 0 ? null : build(0, items.length);
+        box = unbounded.length > 0 ? BoundingBox.INFINITE : root == null ? BoundingBox.EMPTY : root.box;
+    }
+
+    /**
+     * Collects the objects of a collection (recursively) by their boundedness.
+     *
+     * @param geometries the collection
+     * @param bounded    the list to collect the bounded objects into
+     * @param infinite   the list to collect the unbounded objects into
+     */
+    private static void flatten(Geometries geometries, List<Intersectable> bounded, List<Intersectable> infinite) {
+        for (Intersectable item : geometries.getIntersectables()) {
+            if (item instanceof Geometries nested)
+                flatten(nested, bounded, infinite);
+            else if (item.getBoundingBox().isInfinite())
+                infinite.add(item);
+            else
+                bounded.add(item);
+        }
+    }
+
+    /**
+     * Builds the sub-tree over the objects in the range [from, to), reordering them in place.
+     * The split is chosen among {@link #BINS} candidate planes on each axis by the surface area heuristic;
+     * a leaf is created when no split is cheaper than intersecting all the objects.
+     *
+     * @param from the first object (included)
+     * @param to   the last object (excluded)
+     * @return the sub-tree root
+     */
+    private Node build(int from, int to) {
+        int count = to - from;
+        BoundingBox nodeBox = BoundingBox.EMPTY;
+        BoundingBox centroids = BoundingBox.EMPTY;
+        for (int i = from; i < to; ++i) {
+            nodeBox = nodeBox.union(boxes[i]);
+            BoundingBox b = boxes[i];
+            centroids = centroids.union(new BoundingBox(
+                    b.center(0), b.center(1), b.center(2), b.center(0), b.center(1), b.center(2)));
+        }
+        if (count <= 1) return new Node(nodeBox, from, count);
+
+        double nodeArea = nodeBox.surfaceArea();
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1, bestBin = -1;
+
+        int[] binCounts = new int[BINS];
+        BoundingBox[] binBoxes = new BoundingBox[BINS];
+        double[] rightAreas = new double[BINS];
+        int[] rightCounts = new int[BINS];
+        for (int axis = 0; axis < 3; ++axis) {
+            double cMin = centroids.min(axis), cMax = centroids.max(axis);
+            if (cMax - cMin <= 0) continue; // all centroids on a plane - no split on this axis
+
+            Arrays.fill(binCounts, 0);
+            Arrays.fill(binBoxes, BoundingBox.EMPTY);
+            double scale = BINS / (cMax - cMin);
+            for (int i = from; i < to; ++i) {
+                int bin = binIndex(boxes[i].center(axis), cMin, scale);
+                binCounts[bin]++;
+                binBoxes[bin] = binBoxes[bin].union(boxes[i]);
+            }
+
+            // sweep from the right to get the area and count right of each split
+            BoundingBox rightBox = BoundingBox.EMPTY;
+            int rightCount = 0;
+            for (int bin = BINS - 1; bin > 0; --bin) {
+                rightBox = rightBox.union(binBoxes[bin]);
+                rightCount += binCounts[bin];
+                rightAreas[bin] = rightBox.surfaceArea();
+                rightCounts[bin] = rightCount;
+            }
+            // sweep from the left and evaluate the split before each bin
+            BoundingBox leftBox = BoundingBox.EMPTY;
+            int leftCount = 0;
+            for (int bin = 1; bin < BINS; ++bin) {
+                leftBox = leftBox.union(binBoxes[bin - 1]);
+                leftCount += binCounts[bin - 1];
+                if (leftCount == 0 || rightCounts[bin] == 0) continue;
+                double cost = leftBox.surfaceArea() * leftCount + rightAreas[bin] * rightCounts[bin];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBin = bin;
+                }
+            }
+        }
+
+        if (bestAxis < 0) // identical centroids - the objects can't be separated
+            return count <= MAX_LEAF_SIZE ? new Node(nodeBox, from, count) : splitMiddle(nodeBox, from, to);
+
+        double splitCost = TRAVERSAL_COST + (nodeArea > 0 ? bestCost / nodeArea : count);
+        if (count <= MAX_LEAF_SIZE && splitCost >= count)
+            return new Node(nodeBox, from, count);
+
+        // partition the range by the chosen bin
+        double cMin = centroids.min(bestAxis);
+        double scale = BINS / (centroids.max(bestAxis) - cMin);
+        int mid = from;
+        for (int i = from; i < to; ++i) {
+            if (binIndex(boxes[i].center(bestAxis), cMin, scale) < bestBin) {
+                swap(i, mid);
+                ++mid;
+            }
+        }
+        return new Node(nodeBox, build(from, mid), build(mid, to));
+    }
+
+    /**
+     * Splits a range of objects in two halves (used when their centroids coincide).
+     *
+     * @param nodeBox the box of the objects
+     * @param from    the first object (included)
+     * @param to      the last object (excluded)
+     * @return the sub-tree root
+     */
+    private Node splitMiddle(BoundingBox nodeBox, int from, int to) {
+        int mid = (from + to) >>> 1;
+        return new Node(nodeBox, build(from, mid), build(mid, to));
+    }
+
+    /**
+     * Calculates the SAH bin of a centroid coordinate.
+     *
+     * @param c     the centroid coordinate
+     * @param cMin  the minimal centroid coordinate
+     * @param scale the number of bins per length unit
+     * @return the bin index in [0, BINS)
+     */
+    private static int binIndex(double c, double cMin, double scale) {
+        int bin = (int) ((c - cMin) * scale);
+        return bin < 0 ? 0 : Math.min(bin, BINS - 1);
+    }
+
+    /**
+     * Swaps two objects (and their boxes).
+     *
+     * @param i the first index
+     * @param j the second index
+     */
+    private void swap(int i, int j) {
+        Intersectable item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+        BoundingBox b = boxes[i];
+        boxes[i] = boxes[j];
+        boxes[j] = b;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    /**
+     * Finds the intersections between a ray and the objects of the hierarchy.
+     *
+     * @param ray         The ray to intersect with the objects.
+     * @param maxDistance The maximum allowed distance between the ray origin and the intersection point.
+     * @return A list of GeoPoint objects representing the intersections, or null if no intersection is found.
+     */
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> result = null;
+        for (Intersectable item : unbounded)
+            result = addAll(result, item.findGeoIntersectionsHelper(ray, maxDistance));
+        if (root == null) return result;
+
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+
+        // iterative traversal with an explicit stack of nodes
+        Node[] stack = new Node[64];
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            Node node = stack[--top];
+            if (node.box.intersects(ox, oy, oz, invX, invY, invZ, maxDistance) == BoundingBox.MISS)
+                continue;
+            if (node.left == null) {
+                for (int i = node.first; i < node.first + node.count; ++i)
+                    result = addAll(result, items[i].findGeoIntersectionsHelper(ray, maxDistance));
+            } else {
+                if (top + 2 > stack.length)
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[top++] = node.right;
+                stack[top++] = node.left;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the closest intersection with the objects of the hierarchy.
+     * The children of a node are visited nearest first, and every found intersection shrinks the allowed
+     * distance, so the boxes behind it are skipped.
+     *
+     * @param ray         The ray to intersect with the objects.
+     * @param maxDistance The maximum allowed distance between the ray origin and the intersection point.
+     * @return The closest intersection, or null if no intersection is found.
+     */
+    @Override
+    protected GeoPoint findClosestIntersectionHelper(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        GeoPoint closest = null;
+        for (Intersectable item : unbounded) {
+            GeoPoint geoPoint = item.findClosestIntersectionHelper(ray, maxDistance);
+            if (geoPoint != null) {
+                if (closest == null ? geoPoint.t <= maxDistance : geoPoint.t < maxDistance) {
+                    closest = geoPoint;
+                    maxDistance = geoPoint.t;
+                }
+            }
+        }
+        if (root == null) return closest;
+
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+
+        double rootDistance = root.box.intersects(ox, oy, oz, invX, invY, invZ, maxDistance);
+        if (rootDistance == BoundingBox.MISS) return closest;
+
+        // stack of nodes to visit with their entry distances
+        Node[] stack = new Node[64];
+        double[] entries = new double[64];
+        int top = 0;
+        stack[top] = root;
+        entries[top++] = rootDistance;
+        while (top > 0) {
+            Node node = stack[--top];
+            if (entries[top] > maxDistance) continue; // an intersection closer than the box was found meanwhile
+
+            if (node.left == null) {
+                for (int i = node.first; i < node.first + node.count; ++i) {
+                    GeoPoint geoPoint = items[i].findClosestIntersectionHelper(ray, maxDistance);
+                    if (geoPoint != null) {
+                        if (closest == null ? geoPoint.t <= maxDistance : geoPoint.t < maxDistance) {
+                            closest = geoPoint;
+                            maxDistance = geoPoint.t;
+                        }
+                    }
+                }
+                continue;
+            }
+
+            double leftDistance = node.left.box.intersects(ox, oy, oz, invX, invY, invZ, maxDistance);
+            double rightDistance = node.right.box.intersects(ox, oy, oz, invX, invY, invZ, maxDistance);
+            if (top + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+                entries = Arrays.copyOf(entries, entries.length * 2);
+            }
+            // push the farther child first so the nearer one is visited first
+            Node near = node.left, far = node.right;
+            double nearDistance = leftDistance, farDistance = rightDistance;
+            if (rightDistance < leftDistance) {
+                near = node.right;
+                far = node.left;
+                nearDistance = rightDistance;
+                farDistance = leftDistance;
+            }
+            if (farDistance != BoundingBox.MISS) {
+                stack[top] = far;
+                entries[top++] = farDistance;
+            }
+            if (nearDistance != BoundingBox.MISS) {
+                stack[top] = near;
+                entries[top++] = nearDistance;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Finds the closest intersections of a packet of rays with the objects of the hierarchy.
+     * Each node is fetched once for the packet: a node out of the packet's frustum is skipped with a single
+     * test, otherwise the subset of the rays which cross its box goes on to its children.
+     *
+     * @param packet The rays to intersect with the objects.
+     * @param mask   The subset of the rays.
+     */
+    @Override
+    protected void findClosestIntersectionsHelper(RayPacket packet, long mask) {
+        for (Intersectable item : unbounded)
+            item.findClosestIntersectionsHelper(packet, mask);
+        if (root == null) return;
+
+        // stack of nodes to visit with the subsets of rays which crossed their parents
+        Node[] stack = new Node[64];
+        long[] masks = new long[64];
+        int top = 0;
+        stack[top] = root;
+        masks[top++] = mask;
+        while (top > 0) {
+            Node node = stack[--top];
+            // tested when visited, so the intersections found meanwhile shrink the rays
+            long nodeMask = packet.hits(node.box, masks[top]);
+            if (nodeMask == 0) continue;
+
+            if (node.left == null) {
+                for (int i = node.first; i < node.first + node.count; ++i)
+                    items[i].findClosestIntersectionsHelper(packet, nodeMask);
+                continue;
+            }
+
+            if (top + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+                masks = Arrays.copyOf(masks, masks.length * 2);
+            }
+            // push the farther child first (along the direction of a ray of the subset)
+            Vector dir = packet.getRay(Long.numberOfTrailingZeros(nodeMask)).getDir();
+            double order = dir.getX() * (node.left.box.center(0) - node.right.box.center(0))
+                    + dir.getY() * (node.left.box.center(1) - node.right.box.center(1))
+                    + dir.getZ() * (node.left.box.center(2) - node.right.box.center(2));
+            Node near = order <= 0 ? node.left : node.right;
+            stack[top] = near == node.left ? node.right : node.left;
+            masks[top++] = nodeMask;
+            stack[top] = near;
+            masks[top++] = nodeMask;
+        }
+    }
+
+    /**
+     * Accumulates the transparency of the objects of the hierarchy along a ray segment.
+     * The order of the visit doesn't matter, so the traversal stops on the first object which makes
+     * the product drop below the threshold (e.g. the first opaque one).
+     *
+     * @param ray         The ray to intersect with the objects.
+     * @param maxDistance The maximum allowed distance between the ray origin and the intersection point.
+     * @param ktr         The transparency factor accumulated so far.
+     * @param minK        The threshold below which the objects are considered opaque.
+     * @return The accumulated transparency factor, {@link Double3#ZERO} if it is below the threshold.
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        for (Intersectable item : unbounded) {
+            ktr = item.findTransparencyHelper(ray, maxDistance, ktr, minK);
+            if (ktr == Double3.ZERO) return ktr;
+        }
+        if (root == null) return ktr;
+
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double invX = 1 / dir.getX(), invY = 1 / dir.getY(), invZ = 1 / dir.getZ();
+
+        Node[] stack = new Node[64];
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            Node node = stack[--top];
+            if (node.box.intersects(ox, oy, oz, invX, invY, invZ, maxDistance) == BoundingBox.MISS)
+                continue;
+            if (node.left == null) {
+                for (int i = node.first; i < node.first + node.count; ++i) {
+                    ktr = items[i].findTransparencyHelper(ray, maxDistance, ktr, minK);
+                    if (ktr == Double3.ZERO) return ktr;
+                }
+            } else {
+                if (top + 2 > stack.length)
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[top++] = node.right;
+                stack[top++] = node.left;
+            }
+        }
+        return ktr;
+    }
+
+    /**
+     * Adds a list of intersections to the result list, creating it on demand.
+     *
+     * @param result the result list (may be null)
+     * @param list   the intersections to add (may be null)
+     * @return the result list
+     */
+    private static List<GeoPoint> addAll(List<GeoPoint> result, List<GeoPoint> list) {
+        if (list == null) return result;
+        if (result == null) result = new LinkedList<>();
+        result.addAll(list);
+        return result;
+    }
+}
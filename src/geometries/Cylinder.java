@@ -8,9 +8,12 @@ import java.util.List;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
+import static primitives.VectorMath.dot;
 
 /**
  * Represents a cylinder in 3D space, defined by a ray (the axis of the cylinder), a radius, and a height.
+ * The cylinder is closed: it consists of the tube's side between the axis ray head and the height, and of the
+ * two bases (caps).
  * @author Ayala Houri and Shani Zegal
  */
 public class Cylinder extends Tube {
@@ -18,6 +21,8 @@ public class Cylinder extends Tube {
      * The height of the cylinder.
      */
     final private double height;
+    /** Bounding box of the cylinder */
+    private final BoundingBox box;
 
     /**
      * Constructs a new cylinder with the specified ray, radius, and height.
@@ -28,6 +33,22 @@ public class Cylinder extends Tube {
     public Cylinder(Ray ray, double radius, double height) {
         super(radius, ray);
         this.height = height;
+        // the bases are discs perpendicular to the axis: the extent of such a disc along a coordinate axis is
+        // the radius times the sine of the angle between this axis and the cylinder's one
+        double ex = radius * Math.sqrt(Math.max(0, 1 - ax * ax));
+        double ey = radius * Math.sqrt(Math.max(0, 1 - ay * ay));
+        double ez = radius * Math.sqrt(Math.max(0, 1 - az * az));
+        double tx = ox + ax * height, ty = oy + ay * height, tz = oz + az * height;
+        box = new BoundingBox(Math.min(ox, tx) - ex, Math.min(oy, ty) - ey, Math.min(oz, tz) - ez,
+                Math.max(ox, tx) + ex, Math.max(oy, ty) + ey, Math.max(oz, tz) + ez);
+    }
+
+    /**
+     * Returns the height of the cylinder.
+     * @return The height of the cylinder.
+     */
+    public double getHeight() {
+        return height;
     }
 
     /**
@@ -57,7 +78,76 @@ public class Cylinder extends Tube {
     }
 
     @Override
-    public List<Point> findIntersections(Ray ray){
-        return null;
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    /**
+     * Helper method to find the intersections between a ray and the cylinder.
+     * The tube's intersections are clipped to the height, and the intersections with the bases' planes are
+     * kept inside the radius. A ray which crosses the rim is counted once (on the base).
+     *
+     * @param ray          The ray for intersection tests
+     * @param maxDistance  The maximum distance of valid intersections
+     * @return A list of GeoPoint objects representing the intersections between the ray and the cylinder,
+     *         or null if there are no valid intersections
+     */
+    @Override
+    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        double dx = v.getX(), dy = v.getY(), dz = v.getZ();
+        double px = p0.getX() - ox, py = p0.getY() - oy, pz = p0.getZ() - oz;
+
+        // the ray's head and direction split to the components along the axis and perpendicular to it
+        double vVa = dot(dx, dy, dz, ax, ay, az);
+        double dpVa = dot(px, py, pz, ax, ay, az);
+        double wx = dx - vVa * ax, wy = dy - vVa * ay, wz = dz - vVa * az;
+        double ux = px - dpVa * ax, uy = py - dpVa * ay, uz = pz - dpVa * az;
+        double r2 = radius * radius;
+
+        // a convex body is crossed at most twice, so only the nearest and the farthest candidates are kept
+        double tNear = Double.POSITIVE_INFINITY;
+        double tFar = Double.NEGATIVE_INFINITY;
+        double[] candidates = { Double.NaN, Double.NaN, Double.NaN, Double.NaN };
+
+        // the side: the tube's intersections between the bases
+        double a = alignZero(dot(wx, wy, wz, wx, wy, wz));
+        if (a != 0) {
+            double b = 2 * dot(wx, wy, wz, ux, uy, uz);
+            double c = dot(ux, uy, uz, ux, uy, uz) - r2;
+            double discr = alignZero(b * b - 4 * a * c);
+            if (discr > 0) {
+                double th = Math.sqrt(discr);
+                candidates[0] = (-b - th) / (2 * a);
+                candidates[1] = (-b + th) / (2 * a);
+                for (int i = 0; i < 2; ++i) {
+                    double h = dpVa + candidates[i] * vVa;
+                    if (alignZero(h) <= 0 || alignZero(h - height) >= 0) candidates[i] = Double.NaN;
+                }
+            }
+        }
+
+        // the bases: the planes' intersections inside the radius
+        if (!isZero(vVa)) {
+            candidates[2] = -dpVa / vVa;
+            candidates[3] = (height - dpVa) / vVa;
+            for (int i = 2; i < 4; ++i) {
+                double t = candidates[i];
+                double qx = ux + t * wx, qy = uy + t * wy, qz = uz + t * wz;
+                if (alignZero(dot(qx, qy, qz, qx, qy, qz) - r2) > 0) candidates[i] = Double.NaN;
+            }
+        }
+
+        for (double t : candidates) {
+            t = alignZero(t);
+            if (t > 0 && alignZero(t - maxDistance) <= 0) {
+                if (t < tNear) tNear = t;
+                if (t > tFar) tFar = t;
+            }
+        }
+        if (tNear > tFar) return null;
+        if (isZero(tFar - tNear)) return List.of(new GeoPoint(this, ray, tNear));
+        return List.of(new GeoPoint(this, ray, tNear), new GeoPoint(this, ray, tFar));
     }
 }
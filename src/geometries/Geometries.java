@@ -1,9 +1,12 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -14,6 +17,34 @@ import java.util.List;
 public class Geometries extends Intersectable {
     // a list of intersectable objects
     private List<Intersectable> intersectables;
+    // the collections among the objects, whose additions also change the box of this collection
+    private final List<Geometries> groups = new ArrayList<>();
+    // the number of additions to this collection
+    private volatile long additions;
+    // the union of the objects' boxes with the version it was calculated for, calculated on demand
+    private volatile CachedBox cached;
+
+    /**
+     * A bounding box together with the version of the collection it was calculated for.
+     * Both are kept in one immutable object, so a thread never sees a box with the version of another one.
+     */
+    private static final class CachedBox {
+        /** The union of the objects' boxes */
+        final BoundingBox box;
+        /** The version of the collection when the box was calculated */
+        final long version;
+
+        /**
+         * Constructs a cached box.
+         *
+         * @param box     the union of the objects' boxes
+         * @param version the version of the collection
+         */
+        CachedBox(BoundingBox box, long version) {
+            this.box = box;
+            this.version = version;
+        }
+    }
 
     /**
      * Constructs a new, empty Geometries object.
@@ -29,6 +60,7 @@ public class Geometries extends Intersectable {
      */
     public Geometries(Intersectable... geometries) {
         intersectables = List.of(geometries);
+        addGroups(geometries);
     }
 
     /**
@@ -38,6 +70,74 @@ public class Geometries extends Intersectable {
      */
     public void add(Intersectable... geometries) {
         intersectables.addAll(Arrays.asList(geometries));
+        addGroups(geometries);
+        ++additions;
+    }
+
+    /**
+     * Keeps the collections among the given objects, for following the changes of their boxes.
+     *
+     * @param geometries the objects added to this collection
+     */
+    private void addGroups(Intersectable... geometries) {
+        for (Intersectable geometry : geometries)
+            if (geometry instanceof Geometries group) groups.add(group);
+    }
+
+    /**
+     * The version of the collection is the number of additions to it and to all the collections nested in it.
+     * Additions only increase the counts, so the version changes whenever an object is added anywhere inside.
+     *
+     * @return the version of the collection
+     */
+    private long version() {
+        long version = additions;
+        for (Geometries group : groups)
+            version += group.version();
+        return version;
+    }
+
+    /**
+     * Returns the objects of the collection.
+     *
+     * @return an unmodifiable view of the intersectable objects, objects are added by {@link #add}
+     */
+    public List<Intersectable> getIntersectables() {
+        return Collections.unmodifiableList(intersectables);
+    }
+
+    /**
+     * The bounding box of a collection is the union of its objects' boxes.
+     * The union is calculated once and cached until objects are added to this collection or to any collection
+     * nested in it. The box and its version are published together, so even if several rendering threads
+     * calculate it at the same time, each of them gets a box which matches the objects it has seen.
+     *
+     * @return the union box, {@link BoundingBox#EMPTY} for an empty collection
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        long current = version();
+        CachedBox known = cached;
+        if (known != null && known.version == current) return known.box;
+
+        BoundingBox union = BoundingBox.EMPTY;
+        for (Intersectable item : intersectables)
+            union = union.union(item.getBoundingBox());
+        cached = new CachedBox(union, current);
+        return union;
+    }
+
+    /**
+     * Checks by the bounding box whether the ray may hit any of the objects, so a whole group which the ray
+     * misses is rejected with a single ray-box test.
+     *
+     * @param ray         The ray to test.
+     * @param maxDistance The maximum allowed distance between the ray origin and the intersection point.
+     * @return false if the ray surely misses all the objects
+     */
+    private boolean mayIntersect(Ray ray, double maxDistance) {
+        BoundingBox union = getBoundingBox();
+        return union.isInfinite() || union.intersects(ray, maxDistance);
     }
 
     /**
@@ -49,6 +149,7 @@ public class Geometries extends Intersectable {
      */
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        if (!mayIntersect(ray, maxDistance)) return null;
         List<GeoPoint> result = null;
         for (Intersectable item : intersectables) {
             List<GeoPoint> itemList = item.findGeoIntersectionsHelper(ray, maxDistance);
@@ -62,4 +163,66 @@ public class Geometries extends Intersectable {
         return result;
     }
 
+    /**
+     * Finds the closest intersection with the objects of the collection.
+     * Each found intersection shrinks the distance allowed for the following objects,
+     * so no list of intersections is built.
+     *
+     * @param ray         The ray to intersect with the objects.
+     * @param maxDistance The maximum allowed distance between the ray origin and the intersection point.
+     * @return The closest intersection, or null if no intersection is found.
+     */
+    @Override
+    protected GeoPoint findClosestIntersectionHelper(Ray ray, double maxDistance) {
+        if (!mayIntersect(ray, maxDistance)) return null;
+        GeoPoint closest = null;
+        for (Intersectable item : intersectables) {
+            GeoPoint geoPoint = item.findClosestIntersectionHelper(ray, maxDistance);
+            if (geoPoint != null) {
+                // on equal distance the first found object wins
+                if (closest == null ? geoPoint.t <= maxDistance : geoPoint.t < maxDistance) {
+                    closest = geoPoint;
+                    maxDistance = geoPoint.t;
+                }
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Finds the closest intersections of a packet of rays with the objects of the collection. The rays which
+     * miss the collection's box are dropped together, then the packet goes on to each object.
+     *
+     * @param packet The rays to intersect with the objects.
+     * @param mask   The subset of the rays.
+     */
+    @Override
+    protected void findClosestIntersectionsHelper(RayPacket packet, long mask) {
+        BoundingBox union = getBoundingBox();
+        if (!union.isInfinite()) mask = packet.hits(union, mask);
+        if (mask == 0) return;
+        for (Intersectable item : intersectables)
+            item.findClosestIntersectionsHelper(packet, mask);
+    }
+
+    /**
+     * Accumulates the transparency of the objects of the collection, stopping on the first object
+     * which makes the product drop below the threshold.
+     *
+     * @param ray         The ray to intersect with the objects.
+     * @param maxDistance The maximum allowed distance between the ray origin and the intersection point.
+     * @param ktr         The transparency factor accumulated so far.
+     * @param minK        The threshold below which the objects are considered opaque.
+     * @return The accumulated transparency factor, {@link Double3#ZERO} if it is below the threshold.
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        if (!mayIntersect(ray, maxDistance)) return ktr;
+        for (Intersectable item : intersectables) {
+            ktr = item.findTransparencyHelper(ray, maxDistance, ktr, minK);
+            if (ktr == Double3.ZERO) return ktr;
+        }
+        return ktr;
+    }
+
 }
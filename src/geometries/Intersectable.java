@@ -1,7 +1,9 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
+import primitives.Vector;
 
 import java.util.List;
 import java.util.Objects;
@@ -32,7 +34,7 @@ public abstract class Intersectable {
      */
     public List<Point> findIntersections(Ray ray) {
         var geoList = findGeoIntersections(ray);
-        return geoList == null ? null : geoList.stream().map(gp -> gp.point).collect(toList());
+        return geoList == null ? null : geoList.stream().map(GeoPoint::getPoint).collect(toList());
     }
 
     public final List<GeoPoint> findGeoIntersections(Ray ray) {
@@ -43,12 +45,141 @@ public abstract class Intersectable {
     }
 
     protected abstract List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance);
+
+    /**
+     * find the closest intersection point of a ray with the object
+     * @param ray the ray crossing the geometric object
+     * @return the closest intersection point with its geometry, or null if there is no intersection
+     */
+    public final GeoPoint findClosestIntersection(Ray ray) {
+        return findClosestIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * find the closest intersection point of a ray with the object, not farther than a given distance
+     * @param ray the ray crossing the geometric object
+     * @param maxDistance the maximum allowed distance between the ray origin and the intersection point
+     * @return the closest intersection point with its geometry, or null if there is no intersection
+     */
+    public final GeoPoint findClosestIntersection(Ray ray, double maxDistance) {
+        return findClosestIntersectionHelper(ray, maxDistance);
+    }
+
+    /**
+     * Finds the closest intersection point not farther than a given distance.
+     * The default implementation picks the closest of all the intersections; objects with more efficient
+     * ways (collections, which can shrink the distance while searching) override it
+     * @param ray the ray crossing the geometric object
+     * @param maxDistance the maximum allowed distance between the ray origin and the intersection point
+     * @return the closest intersection point with its geometry, or null if there is no intersection
+     */
+    protected GeoPoint findClosestIntersectionHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null) return null;
+        return intersections.size() == 1 ? intersections.get(0) : ray.findClosestGeoPoint(intersections);
+    }
+
+    /**
+     * find the closest intersection of each ray of a packet with the object. The results are kept in the packet
+     * ({@link RayPacket#getClosest(int)}), so a packet may be intersected with several objects in turn
+     * @param packet the rays crossing the geometric object
+     */
+    public final void findClosestIntersections(RayPacket packet) {
+        findClosestIntersectionsHelper(packet, packet.all());
+    }
+
+    /**
+     * Finds the closest intersection of each ray of a subset of a packet, not farther than the closest
+     * intersection of the ray found so far.
+     * The default implementation intersects the rays one by one; collections override it to test their
+     * boxes once for the whole packet
+     * @param packet the rays crossing the geometric object
+     * @param mask the subset of the rays (bit k for the k-th ray)
+     */
+    protected void findClosestIntersectionsHelper(RayPacket packet, long mask) {
+        for (long m = mask; m != 0; m &= m - 1) {
+            int k = Long.numberOfTrailingZeros(m);
+            packet.offer(k, findClosestIntersectionHelper(packet.getRay(k), packet.maxDistance(k)));
+        }
+    }
+
+    /**
+     * find the transparency of the object along a ray segment (e.g. a shadow ray towards a light source).
+     * The transparency factors kT of all the intersections are multiplied, and the search stops as soon as the
+     * product drops below a threshold - in particular on the first opaque intersection
+     * @param ray the ray crossing the geometric object
+     * @param maxDistance the length of the ray segment
+     * @param minK the threshold below which the object is considered opaque
+     * @return the accumulated transparency factor, {@link Double3#ZERO} if it is below the threshold
+     */
+    public final Double3 findTransparency(Ray ray, double maxDistance, double minK) {
+        return findTransparencyHelper(ray, maxDistance, Double3.ONE, minK);
+    }
+
+    /**
+     * Multiplies a transparency factor by the kT of each intersection with the object.
+     * The default implementation goes over the intersection list; collections override it to stop early
+     * @param ray the ray crossing the geometric object
+     * @param maxDistance the maximum allowed distance between the ray origin and the intersection point
+     * @param ktr the transparency factor accumulated so far
+     * @param minK the threshold below which the object is considered opaque
+     * @return the accumulated transparency factor, {@link Double3#ZERO} if it is below the threshold
+     */
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null) return ktr;
+        for (GeoPoint geoPoint : intersections) {
+            ktr = ktr.product(geoPoint.geometry.getMaterial().getKt());
+            if (ktr.lowerThan(minK)) return Double3.ZERO;
+        }
+        return ktr;
+    }
+
+    /**
+     * Returns the axis-aligned bounding box of the object
+     * @return the bounding box, {@link BoundingBox#INFINITE} for unbounded objects
+     */
+    public abstract BoundingBox getBoundingBox();
+
+    /**
+     * An intersection of a ray with a geometry, kept as the ray parameter (distance from the ray head).
+     * The intersection point itself is calculated only when it is asked for, so the candidates which lose
+     * the closest intersection search never pay for it
+     */
     public static class GeoPoint {
         public Geometry geometry;
-        public Point point;
-        public GeoPoint(Geometry geometry, Point point){
+        /** the distance of the intersection from the ray head */
+        public final double t;
+        private final Ray ray;
+        private Point point;
+
+        /**
+         * Constructs an intersection by the ray parameter
+         * @param geometry the intersected geometry
+         * @param ray the intersecting ray
+         * @param t the distance of the intersection from the ray head
+         */
+        public GeoPoint(Geometry geometry, Ray ray, double t){
             this.geometry = geometry;
-            this.point=point;
+            this.ray = ray;
+            this.t = t;
+        }
+
+        /**
+         * Returns the intersection point, calculating it on the first call
+         * @return the intersection point
+         */
+        public Point getPoint() {
+            if (point == null) point = ray.getPoint(t);
+            return point;
+        }
+
+        /**
+         * Returns the normal of the geometry at the intersection point
+         * @return the unit normal
+         */
+        public Vector getNormal() {
+            return geometry.getNormal(getPoint());
         }
 
         @Override
@@ -56,19 +187,19 @@ public abstract class Intersectable {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             GeoPoint geoPoint = (GeoPoint) o;
-            return Objects.equals(geometry, geoPoint.geometry) && Objects.equals(point, geoPoint.point);
+            return Objects.equals(geometry, geoPoint.geometry) && Objects.equals(getPoint(), geoPoint.getPoint());
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(geometry, point);
+            return Objects.hash(geometry, getPoint());
         }
 
         @Override
         public String toString() {
             return "GeoPoint{" +
                     "geometry=" + geometry +
-                    ", point=" + point +
+                    ", point=" + getPoint() +
                     '}';
         }
         
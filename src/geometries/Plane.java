@@ -2,6 +2,7 @@ package geometries;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
+import static primitives.VectorMath.dotDifference;
 
 import java.util.List;
 
@@ -57,6 +58,15 @@ public class Plane extends Geometry {
             this.normal = vector;
     }
 
+    /**
+     * Returns the reference point of the plane.
+     *
+     * @return The point the plane was constructed by.
+     */
+    public Point getP0() {
+        return p0;
+    }
+
     /**
      * Returns the normal vector of the plane.
      *
@@ -78,6 +88,16 @@ public class Plane extends Geometry {
     }
 
 
+    /**
+     * A plane is unbounded
+     *
+     * @return {@link BoundingBox#INFINITE}
+     */
+    @Override
+    public BoundingBox getBoundingBox() {
+        return BoundingBox.INFINITE;
+    }
+
     /**
      * Finds the intersections between a ray and the plane represented by this object.
      *
@@ -104,10 +124,8 @@ public class Plane extends Geometry {
             return null;
         }
 
-        Vector P0_Q0 = p0.subtract(P0);
-
-        //numerator
-        double nP0Q0 = alignZero(n.dotProduct(P0_Q0));
+        //numerator: n * (p0 - P0), without creating the vector
+        double nP0Q0 = alignZero(dotDifference(n, p0, P0));
 
         // ray parallel to the plane
         if (isZero(nP0Q0)) {
@@ -120,9 +138,7 @@ public class Plane extends Geometry {
             return null;
         }
 
-        Point point = ray.getPoint(t);
-
-        return List.of(new GeoPoint(this, point));
+        return List.of(new GeoPoint(this, ray, t));
     }
 
 
@@ -2,6 +2,7 @@ package geometries;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
+import static primitives.VectorMath.dot;
 
 import java.util.List;
 
@@ -23,6 +24,19 @@ public class Polygon extends Geometry {
    /** Associated plane in which the polygon lays */
    protected final Plane plane;
    private final int size;
+   /** Bounding box of the polygon's vertices */
+   private final BoundingBox box;
+
+   /** The ray parameter returned by the intersection calculation when the polygon is missed */
+   static final double NO_HIT = Double.POSITIVE_INFINITY;
+
+   /** The plane's unit normal and its offset (n * p = d for the points of the plane) */
+   private final double nx, ny, nz, d;
+   /**
+    * The inward facing planes of the edges, 4 numbers per edge: the unit normal and the offset. A point of the
+    * polygon's plane is inside the polygon when it is strictly in front of all of them
+    */
+   private final double[] edgePlanes;
 
    /**
     * Polygon constructor based on vertices list. The list must be ordered by edge
@@ -47,11 +61,18 @@ public class Polygon extends Geometry {
       // Store the vertices in an immutable List
       this.vertices = List.of(vertices);
       size = vertices.length;
+      box = BoundingBox.of(this.vertices);
 
       // Generate the plane according to the first three vertices and associate the
       // polygon with this plane.
       // The plane holds the invariant normal (orthogonal unit) vector to the polygon
       plane = new Plane(vertices[0], vertices[1], vertices[2]);
+      Vector normal = plane.getNormal();
+      nx = normal.getX();
+      ny = normal.getY();
+      nz = normal.getZ();
+      d = dot(nx, ny, nz, vertices[0].getX(), vertices[0].getY(), vertices[0].getZ());
+      edgePlanes = edgePlanes(vertices, normal);
 
       // If the polygon has only three vertices, it must be a Triangle and no further
       // checks are necessary
@@ -85,6 +106,81 @@ public class Polygon extends Geometry {
             throw new IllegalArgumentException("All vertices must be ordered and the polygon must be convex");
       }
    }
+
+   /**
+    * Calculates the inward facing planes of the polygon's edges. A vertex which is not on an edge is
+    * used to orient each plane, so the order direction of the vertices does not matter.
+    *
+    * @param vertices the polygon's vertices according to their order by edge path
+    * @param normal   the polygon's plane normal
+    * @return the edge planes, 4 numbers per edge (see {@link #edgePlanes})
+    */
+   private static double[] edgePlanes(Point[] vertices, Vector normal) {
+      double[] planes = new double[vertices.length * 4];
+      for (int i = 0, k = 0; i < vertices.length; ++i, k += 4) {
+         Point head = vertices[i];
+         Point tail = vertices[(i + 1) % vertices.length];
+         Point other = vertices[(i + 2) % vertices.length];
+         Vector m = normal.crossProduct(tail.subtract(head)).normalize();
+         double offset = dot(m.getX(), m.getY(), m.getZ(), head.getX(), head.getY(), head.getZ());
+         double side = dot(m.getX(), m.getY(), m.getZ(), other.getX(), other.getY(), other.getZ()) - offset;
+         double sign = side > 0 ? 1 : -1;
+         planes[k] = sign * m.getX();
+         planes[k + 1] = sign * m.getY();
+         planes[k + 2] = sign * m.getZ();
+         planes[k + 3] = sign * offset;
+      }
+      return planes;
+   }
+
+   /**
+    * Returns the vertices of the polygon.
+    *
+    * @return the (immutable) list of the vertices according to their order by edge path
+    */
+   public List<Point> getVertices() {
+      return vertices;
+   }
+
+   @Override
+   public BoundingBox getBoundingBox() {
+      return box;
+   }
+
+   /**
+    * Intersects a ray with the polygon: the plane is intersected first (rejecting by the maximal distance), and
+    * then the intersection point is tested against the precomputed edge planes.
+    * A ray lying in the polygon's plane, starting on it, or hitting an edge or a vertex does not intersect.
+    *
+    * @param ray         The ray to intersect with the polygon.
+    * @param maxDistance The maximum allowed distance between the ray origin and the intersection point.
+    * @return the distance of the intersection from the ray head, or {@link #NO_HIT}
+    */
+   double intersect(Ray ray, double maxDistance) {
+      Point p0 = ray.getP0();
+      Vector v = ray.getDir();
+      double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+      double dx = v.getX(), dy = v.getY(), dz = v.getZ();
+
+      double nv = alignZero(dot(nx, ny, nz, dx, dy, dz));
+      // ray is lying in the plane axis
+      if (isZero(nv))
+         return NO_HIT;
+      double numerator = alignZero(d - dot(nx, ny, nz, ox, oy, oz));
+      // ray starts on the plane
+      if (isZero(numerator))
+         return NO_HIT;
+      double t = alignZero(numerator / nv);
+      if (t <= 0 || alignZero(t - maxDistance) > 0)
+         return NO_HIT;
+
+      double px = ox + dx * t, py = oy + dy * t, pz = oz + dz * t;
+      for (int k = 0; k < edgePlanes.length; k += 4)
+         if (alignZero(dot(edgePlanes[k], edgePlanes[k + 1], edgePlanes[k + 2], px, py, pz) - edgePlanes[k + 3]) <= 0)
+            return NO_HIT;
+      return t;
+   }
+
    /**
     * Finds the intersections between a ray and a polygon.
     *
@@ -94,46 +190,21 @@ public class Polygon extends Geometry {
     */
    @Override
    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-      List<GeoPoint> planeIntersections = plane.findGeoIntersections(ray);
-
-      if (planeIntersections == null) {
-         return null;
-      }
-
-      Point P0 = ray.getP0();
-      Vector v = ray.getDir();
-
-      Point P1 = vertices.get(1);
-      Point P2 = vertices.get(0);
-
-      Vector v1 = P0.subtract(P1);
-      Vector v2 = P0.subtract(P2);
-
-      double sign = alignZero(v.dotProduct(v1.crossProduct(v2)));
-
-      if (isZero(sign)) {
-         return null;
-      }
-
-      boolean positive = sign > 0;
-
-      // Iterate through all vertices of the polygon
-      for (int i = vertices.size() - 1; i > 0; --i) {
-         v1 = v2;
-         v2 = P0.subtract(vertices.get(i));
-
-         sign = alignZero(v.dotProduct(v1.crossProduct(v2)));
-         if (isZero(sign)) {
-            return null;
-         }
-
-         if (positive != (sign > 0)) {
-            return null;
-         }
-      }
+      double t = intersect(ray, maxDistance);
+      return t == NO_HIT ? null : List.of(new GeoPoint(this, ray, t));
+   }
 
-      Point point = planeIntersections.get(0).point;
-      return List.of(new GeoPoint(this, point));
+   /**
+    * Finds the intersection between a ray and the polygon without building a list.
+    *
+    * @param ray         The ray to intersect with the polygon.
+    * @param maxDistance The maximum allowed distance between the ray origin and the intersection point.
+    * @return The intersection, or null if no intersection is found.
+    */
+   @Override
+   protected GeoPoint findClosestIntersectionHelper(Ray ray, double maxDistance) {
+      double t = intersect(ray, maxDistance);
+      return t == NO_HIT ? null : new GeoPoint(this, ray, t);
    }
 
    /**
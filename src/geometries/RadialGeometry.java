@@ -18,4 +18,13 @@ public abstract class RadialGeometry extends Geometry {
     public RadialGeometry(double tempRadius) {
         radius = tempRadius;
     }
+
+    /**
+     * Returns the radius of the geometry.
+     *
+     * @return the radius
+     */
+    public double getRadius() {
+        return radius;
+    }
 }
@@ -0,0 +1,222 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * A packet of up to 64 rays which are intersected with the objects together, for the closest intersection of
+ * each ray (see {@link Intersectable#findClosestIntersections(RayPacket)}).
+ * <p>
+ * Acceleration structures test a box once for the whole packet: when the rays are coherent - they share their
+ * head and the signs of their directions' components, like the primary rays of neighbouring pixels - the packet
+ * is bounded by a frustum, given by the interval of its inverse directions, and a box outside the frustum is
+ * rejected by a single test. Otherwise, or when the frustum test is inconclusive, the box is tested per ray
+ * and only the rays which cross it go on. The rays in a subset of the packet are given by a bit mask.
+ * @author Ayala Houri and Shani Zegal
+ */
+public final class RayPacket {
+    /** Maximal number of rays in a packet */
+    public static final int MAX_SIZE = Long.SIZE;
+
+    private final Ray[] rays;
+    private final int size;
+    private final double[] ox, oy, oz; // the heads of the rays
+    private final double[] invX, invY, invZ; // the inverse directions of the rays
+    private final double[] maxDistances; // the distance of the closest intersection of each ray found so far
+    private final GeoPoint[] closest; // the closest intersection of each ray found so far
+    private final boolean coherent; // whether the packet has a frustum
+    private double loX, hiX, loY, hiY, loZ, hiZ; // the intervals of the inverse directions
+
+    /**
+     * Constructs a packet of rays with no intersections found.
+     *
+     * @param rays the rays
+     * @param size the number of rays (the first ones of the array)
+     * @throws IllegalArgumentException if the number of rays is not between 1 and {@link #MAX_SIZE}
+     */
+    public RayPacket(Ray[] rays, int size) {
+        if (size < 1 || size > MAX_SIZE)
+            throw new IllegalArgumentException("A packet has 1 to " + MAX_SIZE + " rays");
+        this.rays = rays;
+        this.size = size;
+        ox = new double[size];
+        oy = new double[size];
+        oz = new double[size];
+        invX = new double[size];
+        invY = new double[size];
+        invZ = new double[size];
+        maxDistances = new double[size];
+        closest = new GeoPoint[size];
+
+        boolean sameHead = true;
+        for (int k = 0; k < size; ++k) {
+            Point p0 = rays[k].getP0();
+            Vector dir = rays[k].getDir();
+            ox[k] = p0.getX();
+            oy[k] = p0.getY();
+            oz[k] = p0.getZ();
+            invX[k] = 1 / dir.getX();
+            invY[k] = 1 / dir.getY();
+            invZ[k] = 1 / dir.getZ();
+            maxDistances[k] = Double.POSITIVE_INFINITY;
+            sameHead &= ox[k] == ox[0] && oy[k] == oy[0] && oz[k] == oz[0];
+        }
+        coherent = sameHead && interval();
+    }
+
+    /**
+     * Calculates the intervals of the inverse directions.
+     *
+     * @return false if the packet has no frustum, i.e. an inverse direction component is infinite or the signs
+     * of a component differ
+     */
+    private boolean interval() {
+        loX = hiX = invX[0];
+        loY = hiY = invY[0];
+        loZ = hiZ = invZ[0];
+        for (int k = 1; k < size; ++k) {
+            loX = Math.min(loX, invX[k]);
+            hiX = Math.max(hiX, invX[k]);
+            loY = Math.min(loY, invY[k]);
+            hiY = Math.max(hiY, invY[k]);
+            loZ = Math.min(loZ, invZ[k]);
+            hiZ = Math.max(hiZ, invZ[k]);
+        }
+        return sameSign(loX, hiX) && sameSign(loY, hiY) && sameSign(loZ, hiZ);
+    }
+
+    /**
+     * Checks whether an interval is finite and does not contain zero.
+     *
+     * @param lo the lower bound
+     * @param hi the upper bound
+     * @return true if all the interval has the same sign
+     */
+    private static boolean sameSign(double lo, double hi) {
+        return Double.isFinite(lo) && Double.isFinite(hi) && (lo > 0 || hi < 0);
+    }
+
+    /**
+     * Returns the number of rays in the packet.
+     *
+     * @return the number of rays
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the mask of all the rays of the packet.
+     *
+     * @return the mask
+     */
+    long all() {
+        return size == MAX_SIZE ? -1L : (1L << size) - 1;
+    }
+
+    /**
+     * Returns a ray of the packet.
+     *
+     * @param k the index of the ray
+     * @return the ray
+     */
+    public Ray getRay(int k) {
+        return rays[k];
+    }
+
+    /**
+     * Returns the closest intersection of a ray found so far.
+     *
+     * @param k the index of the ray
+     * @return the intersection, null if none was found
+     */
+    public GeoPoint getClosest(int k) {
+        return closest[k];
+    }
+
+    /**
+     * Returns the maximal allowed distance of the next intersections of a ray.
+     *
+     * @param k the index of the ray
+     * @return the distance of its closest intersection found so far
+     */
+    double maxDistance(int k) {
+        return maxDistances[k];
+    }
+
+    /**
+     * Offers an intersection of a ray, which is kept if it is closer than the closest one found so far
+     * (on equal distance the first found one wins).
+     *
+     * @param k        the index of the ray
+     * @param geoPoint the intersection, may be null
+     */
+    void offer(int k, GeoPoint geoPoint) {
+        if (geoPoint != null && (closest[k] == null ? geoPoint.t <= maxDistances[k] : geoPoint.t < maxDistances[k])) {
+            closest[k] = geoPoint;
+            maxDistances[k] = geoPoint.t;
+        }
+    }
+
+    /**
+     * Finds the rays of a subset which cross a box before their closest intersections found so far.
+     * The whole subset is rejected at once when the box is out of the packet's frustum.
+     *
+     * @param box  the box
+     * @param mask the subset of the rays
+     * @return the subset of the rays which cross the box
+     */
+    long hits(BoundingBox box, long mask) {
+        if (box.isEmpty() || frustumMisses(box, mask)) return 0;
+        long result = 0;
+        for (long m = mask; m != 0; m &= m - 1) {
+            int k = Long.numberOfTrailingZeros(m);
+            if (box.intersects(ox[k], oy[k], oz[k], invX[k], invY[k], invZ[k], maxDistances[k]) != BoundingBox.MISS)
+                result |= 1L << k;
+        }
+        return result;
+    }
+
+    /**
+     * Interval arithmetic slab test: along each axis the entry of every ray into the box is not before the
+     * smallest one over the interval of the inverse directions, and the exit is not after the largest one.
+     * If the latest smallest entry is after the earliest largest exit, no ray of the packet crosses the box.
+     *
+     * @param box  the box
+     * @param mask the subset of the rays
+     * @return true if surely no ray crosses the box, false if the packet has no frustum
+     */
+    private boolean frustumMisses(BoundingBox box, long mask) {
+        if (!coherent) return false;
+        double far = 0;
+        for (long m = mask; m != 0; m &= m - 1)
+            far = Math.max(far, maxDistances[Long.numberOfTrailingZeros(m)]);
+        double near = 0;
+
+        double a = box.minX - ox[0], b = box.maxX - ox[0];
+        double lo = loX, hi = hiX;
+        if (lo < 0) { double tmp = a; a = b; b = tmp; }
+        near = Math.max(near, Math.min(a * lo, a * hi));
+        far = Math.min(far, Math.max(b * lo, b * hi) * BoundingBox.SLAB_TOLERANCE);
+
+        a = box.minY - oy[0];
+        b = box.maxY - oy[0];
+        lo = loY;
+        hi = hiY;
+        if (lo < 0) { double tmp = a; a = b; b = tmp; }
+        near = Math.max(near, Math.min(a * lo, a * hi));
+        far = Math.min(far, Math.max(b * lo, b * hi) * BoundingBox.SLAB_TOLERANCE);
+
+        a = box.minZ - oz[0];
+        b = box.maxZ - oz[0];
+        lo = loZ;
+        hi = hiZ;
+        if (lo < 0) { double tmp = a; a = b; b = tmp; }
+        near = Math.max(near, Math.min(a * lo, a * hi));
+        far = Math.min(far, Math.max(b * lo, b * hi) * BoundingBox.SLAB_TOLERANCE);
+
+        return near > far;
+    }
+}
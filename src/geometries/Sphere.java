@@ -1,5 +1,6 @@
 package geometries;
 import static primitives.Util. *;
+import static primitives.VectorMath.*;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -16,6 +17,9 @@ public class Sphere extends RadialGeometry{
     /** The center point of the sphere */
     final Point center;
 
+    /** The bounding box of the sphere */
+    private final BoundingBox box;
+
     /**
      * Constructor to initialize a Sphere object with its center point and radius.
      *
@@ -25,6 +29,22 @@ public class Sphere extends RadialGeometry{
     public Sphere(Point tcenter, double tradius){
         super(tradius);
         center = tcenter;
+        box = new BoundingBox(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
+    }
+
+    /**
+     * Returns the center point of the sphere.
+     *
+     * @return the center point
+     */
+    public Point getCenter() {
+        return center;
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
     }
 
     /**
@@ -56,17 +76,20 @@ public class Sphere extends RadialGeometry{
         Point P0 = ray.getP0();
         Vector v = ray.getDir();
 
-        if (P0.equals(center)) {
+        // U = center - P0, calculated on raw coordinates
+        double ux = center.getX() - P0.getX();
+        double uy = center.getY() - P0.getY();
+        double uz = center.getZ() - P0.getZ();
+
+        if (isZeroVector(ux, uy, uz)) { // P0 is the center
             if (alignZero(radius - maxDistance) > 0) {
                 return null;
             }
-            return List.of(new GeoPoint(this, center.add(v.scale(radius))));
+            return List.of(new GeoPoint(this, ray, radius));
         }
 
-        Vector U = center.subtract(P0);
-
-        double tm = alignZero(v.dotProduct(U));
-        double d = alignZero(Math.sqrt(U.lengthSquared() - tm * tm));
+        double tm = alignZero(dot(v.getX(), v.getY(), v.getZ(), ux, uy, uz));
+        double d = alignZero(Math.sqrt(lengthSquared(ux, uy, uz) - tm * tm));
 
         // no intersections: the ray direction is above the sphere
         if (d >= radius) {
@@ -83,20 +106,46 @@ public class Sphere extends RadialGeometry{
         }
 
         if (t1 > 0 && t2 > 0 && alignZero(t1 - maxDistance) <= 0 && alignZero(t2 - maxDistance) <= 0) {
-            Point P1 = ray.getPoint(t1);
-            Point P2 = ray.getPoint(t2);
-            return List.of(new GeoPoint(this, P1), new GeoPoint(this, P2));
+            return List.of(new GeoPoint(this, ray, t1), new GeoPoint(this, ray, t2));
         }
         if (t1 > 0 && alignZero(t1 - maxDistance) <= 0) {
-            Point P1 = ray.getPoint(t1);
-            return List.of(new GeoPoint(this, P1));
+            return List.of(new GeoPoint(this, ray, t1));
         }
         if (t2 > 0 && alignZero(t2 - maxDistance) <= 0) {
-            Point P2 = ray.getPoint(t2);
-            return List.of(new GeoPoint(this, P2));
+            return List.of(new GeoPoint(this, ray, t2));
         }
         return null;
     }
 
+    /**
+     * Finds the closest intersection between a ray and the sphere without building a list.
+     *
+     * @param ray         The ray to intersect with the sphere.
+     * @param maxDistance The maximum allowed distance between the ray origin and the intersection point.
+     * @return The closest intersection, or null if no intersection is found.
+     */
+    @Override
+    protected GeoPoint findClosestIntersectionHelper(Ray ray, double maxDistance) {
+        Point P0 = ray.getP0();
+        Vector v = ray.getDir();
+
+        double ux = center.getX() - P0.getX();
+        double uy = center.getY() - P0.getY();
+        double uz = center.getZ() - P0.getZ();
+        if (isZeroVector(ux, uy, uz))
+            return alignZero(radius - maxDistance) > 0 ? null : new GeoPoint(this, ray, radius);
+
+        double tm = alignZero(dot(v.getX(), v.getY(), v.getZ(), ux, uy, uz));
+        double d = alignZero(Math.sqrt(lengthSquared(ux, uy, uz) - tm * tm));
+        if (d >= radius) return null;
+
+        double th = alignZero(Math.sqrt(radius * radius - d * d));
+        // t1 < t2, so the first one in front of the ray's head is the closest
+        double t1 = alignZero(tm - th);
+        if (t1 > 0)
+            return alignZero(t1 - maxDistance) <= 0 ? new GeoPoint(this, ray, t1) : null;
+        double t2 = alignZero(tm + th);
+        return t2 > 0 && alignZero(t2 - maxDistance) <= 0 ? new GeoPoint(this, ray, t2) : null;
+    }
 
 }
@@ -8,13 +8,25 @@ import java.util.List;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
+import static primitives.VectorMath.dot;
+import static primitives.VectorMath.lengthSquared;
 
 /**
  * The Triangle class represents a triangle in 3D space by its three points.
  * It extends the Polygon class.
+ * The intersection is calculated by the M&ouml;ller&ndash;Trumbore algorithm over edges precomputed at
+ * construction, so no plane intersection and no intermediate vectors are needed.
  * @author Ayala Houri and Shani Zegal
  */
 public class Triangle extends Polygon {
+    /** The first vertex of the triangle */
+    private final double ax, ay, az;
+    /** The edge from the first vertex to the second one */
+    private final double e1x, e1y, e1z;
+    /** The edge from the first vertex to the third one */
+    private final double e2x, e2y, e2z;
+    /** Inverse of the edges' cross product length, to test the determinant against the normalized one */
+    private final double invArea;
 
     /**
      * Constructor to initialize a Triangle object with its three points.
@@ -25,6 +37,16 @@ public class Triangle extends Polygon {
      */
     public Triangle(Point tpoint1, Point tpoint2, Point tpoint3){
         super(tpoint1, tpoint2, tpoint3);
+        ax = tpoint1.getX();
+        ay = tpoint1.getY();
+        az = tpoint1.getZ();
+        e1x = tpoint2.getX() - ax;
+        e1y = tpoint2.getY() - ay;
+        e1z = tpoint2.getZ() - az;
+        e2x = tpoint3.getX() - ax;
+        e2y = tpoint3.getY() - ay;
+        e2z = tpoint3.getZ() - az;
+        invArea = 1 / Math.sqrt(lengthSquared(e1y * e2z - e1z * e2y, e1z * e2x - e1x * e2z, e1x * e2y - e1y * e2x));
     }
 
     /**
@@ -38,42 +60,84 @@ public class Triangle extends Polygon {
         return super.getNormal(point);
     }
 
-
     /**
-     * Finds the intersections between a ray and a triangle.
+     * Intersects a ray with the triangle (M&ouml;ller&ndash;Trumbore).
+     * A ray lying in the triangle's plane, starting on it, or hitting an edge or a vertex does not intersect.
      *
      * @param ray         The ray to intersect with the triangle.
      * @param maxDistance The maximum allowed distance between the ray origin and the intersection point.
-     * @return A list of GeoPoint objects representing the intersections, or null if no intersection is found.
+     * @param barycentric If not null, receives the barycentric coordinates of the intersection point relative
+     *                    to the second and the third vertices (the first one's is 1 minus their sum)
+     * @return the distance of the intersection from the ray head, or {@link Polygon#NO_HIT}
      */
-    @Override
-    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        List<GeoPoint> planeIntersections = plane.findGeoIntersections(ray, maxDistance);
-        if (planeIntersections == null)
-            return null;
-
+    double intersect(Ray ray, double maxDistance, double[] barycentric) {
         Point p0 = ray.getP0();
         Vector v = ray.getDir();
+        double dx = v.getX(), dy = v.getY(), dz = v.getZ();
+
+        // p = v x e2, det = e1 * p
+        double px = dy * e2z - dz * e2y;
+        double py = dz * e2x - dx * e2z;
+        double pz = dx * e2y - dy * e2x;
+        double det = dot(e1x, e1y, e1z, px, py, pz);
+        // ray is parallel to the triangle's plane
+        if (isZero(alignZero(det * invArea)))
+            return NO_HIT;
+        boolean positive = det > 0;
 
-        Vector v1 = this.vertices.get(0).subtract(p0);
-        Vector v2 = this.vertices.get(1).subtract(p0);
-        Vector v3 = this.vertices.get(2).subtract(p0);
+        // the barycentric numerators are the (signed) volumes spanned by the ray and each edge, so an edge or
+        // a vertex is hit when one of them is zero, and the point is outside when their signs differ
+        double sx = p0.getX() - ax, sy = p0.getY() - ay, sz = p0.getZ() - az;
+        double uDet = dot(sx, sy, sz, px, py, pz);
+        if (isZero(uDet) || positive != (uDet > 0))
+            return NO_HIT;
 
-        double s1 = v.dotProduct(v1.crossProduct(v2));
-        if (isZero(s1))
-            return null;
-        double s2 = v.dotProduct(v2.crossProduct(v3));
-        if (isZero(s2))
-            return null;
-        double s3 = v.dotProduct(v3.crossProduct(v1));
-        if (isZero(s3))
-            return null;
+        // q = s x e1
+        double qx = sy * e1z - sz * e1y;
+        double qy = sz * e1x - sx * e1z;
+        double qz = sx * e1y - sy * e1x;
+        double wDet = dot(dx, dy, dz, qx, qy, qz);
+        if (isZero(wDet) || positive != (wDet > 0))
+            return NO_HIT;
+        double restDet = det - uDet - wDet;
+        if (isZero(restDet) || positive != (restDet > 0))
+            return NO_HIT;
 
-        if ((s1 > 0 && s2 > 0 && s3 > 0) || (s1 < 0 && s2 < 0 && s3 < 0)) {
-            Point point = planeIntersections.get(0).point;
-            return List.of(new GeoPoint(this, point));
+        double invDet = 1 / det;
+        double t = alignZero(dot(e2x, e2y, e2z, qx, qy, qz) * invDet);
+        if (t <= 0 || alignZero(t - maxDistance) > 0)
+            return NO_HIT;
+
+        if (barycentric != null) {
+            barycentric[0] = uDet * invDet;
+            barycentric[1] = wDet * invDet;
         }
-        return null;
+        return t;
+    }
+
+    /**
+     * Finds the intersections between a ray and a triangle.
+     *
+     * @param ray         The ray to intersect with the triangle.
+     * @param maxDistance The maximum allowed distance between the ray origin and the intersection point.
+     * @return A list of GeoPoint objects representing the intersections, or null if no intersection is found.
+     */
+    @Override
+    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray, maxDistance, null);
+        return t == NO_HIT ? null : List.of(new GeoPoint(this, ray, t));
     }
-}
 
+    /**
+     * Finds the intersection between a ray and the triangle without building a list.
+     *
+     * @param ray         The ray to intersect with the triangle.
+     * @param maxDistance The maximum allowed distance between the ray origin and the intersection point.
+     * @return The intersection, or null if no intersection is found.
+     */
+    @Override
+    protected GeoPoint findClosestIntersectionHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray, maxDistance, null);
+        return t == NO_HIT ? null : new GeoPoint(this, ray, t);
+    }
+}
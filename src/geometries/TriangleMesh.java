@@ -0,0 +1,711 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+import static primitives.VectorMath.dot;
+import static primitives.VectorMath.lengthSquared;
+
+/**
+ * A mesh of triangles sharing their vertices, kept in flat arrays: the coordinates of the vertices and
+ * an index buffer of three vertices per triangle, with optional per-vertex normals for smooth shading.
+ * <p>
+ * The mesh is a single geometry (one emission and material) of any number of triangles, costing a few dozen
+ * bytes per triangle instead of the lists, planes and normals of a {@link Triangle} object. The triangles are
+ * addressed by their index, and a hierarchy of boxes over them is built in flat arrays as well, so the mesh
+ * is intersected in logarithmic time when put in a {@link Geometries} or a {@link BoundingVolumeHierarchy}.
+ * The intersection of each triangle is the one of {@link Triangle}.
+ * @author Ayala Houri and Shani Zegal
+ */
+public class TriangleMesh extends Geometry {
+    /** Maximal number of triangles in a leaf */
+    private static final int MAX_LEAF_SIZE = 4;
+
+    /** The coordinates of the vertices, x,y,z of each */
+    private final double[] vertices;
+    /** The vertices of the triangles, three of each, ordered so that each leaf refers to a contiguous range */
+    private final int[] indices;
+    /** The unit normals of the vertices, x,y,z of each, or null for flat shading */
+    private final float[] normals;
+    /** Inverse of each triangle's edges' cross product length, to test the determinant against the normalized one */
+    private final double[] invAreas;
+
+    // the hierarchy, allocated for the most nodes possible and trimmed when built
+    /** The boxes of the nodes, 6 numbers per node: the minimal and the maximal coordinates */
+    private double[] bounds;
+    /** A leaf's first triangle, an inner node's first child (the second one follows it) */
+    private int[] firsts;
+    /** A leaf's number of triangles, 0 for an inner node */
+    private int[] counts;
+    /** The box of the whole mesh */
+    private final BoundingBox box;
+
+    /**
+     * An intersection with a triangle of the mesh, which knows the triangle and the barycentric coordinates
+     * of the point in it for the normal
+     */
+    public static class MeshPoint extends GeoPoint {
+        /** the index of the intersected triangle */
+        public final int triangle;
+        private final double u, w;
+
+        /**
+         * Constructs an intersection with a triangle of a mesh
+         * @param mesh the intersected mesh
+         * @param ray the intersecting ray
+         * @param t the distance of the intersection from the ray head
+         * @param triangle the index of the triangle
+         * @param u the barycentric coordinate of the point relative to the triangle's second vertex
+         * @param w the barycentric coordinate of the point relative to the triangle's third vertex
+         */
+        MeshPoint(TriangleMesh mesh, Ray ray, double t, int triangle, double u, double w) {
+            super(mesh, ray, t);
+            this.triangle = triangle;
+            this.u = u;
+            this.w = w;
+        }
+
+        @Override
+        public Vector getNormal() {
+            return ((TriangleMesh) geometry).normal(triangle, u, w);
+        }
+    }
+
+    /**
+     * Constructs a flat shaded mesh.
+     *
+     * @param vertices the coordinates of the vertices, x,y,z of each (the array is referred to, not copied)
+     * @param indices  the vertices of the triangles, three of each in the order of {@link Triangle}'s points
+     * @throws IllegalArgumentException if the arrays' lengths are not multiples of 3, there is no triangle, or
+     *                                  an index is out of the vertices
+     */
+    public TriangleMesh(double[] vertices, int[] indices) {
+        this(vertices, indices, null);
+    }
+
+    /**
+     * Constructs a mesh. Triangles of no area (with coinciding vertices or on a line) are dropped.
+     *
+     * @param vertices the coordinates of the vertices, x,y,z of each (the array is referred to, not copied)
+     * @param indices  the vertices of the triangles, three of each in the order of {@link Triangle}'s points
+     * @param normals  the normals of the vertices, x,y,z of each (the array is referred to, not copied),
+     *                 or null for flat shading
+     * @throws IllegalArgumentException if the arrays' lengths are not multiples of 3, there is no triangle,
+     *                                  an index is out of the vertices, or the normals do not match the vertices
+     */
+    public TriangleMesh(double[] vertices, int[] indices, float[] normals) {
+        if (vertices.length % 3 != 0 || indices.length % 3 != 0)
+            throw new IllegalArgumentException("The vertices and the indices must come in triples");
+        if (normals != null && normals.length != vertices.length)
+            throw new IllegalArgumentException("There must be a normal for each vertex");
+        int vertexCount = vertices.length / 3;
+        for (int index : indices)
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("Vertex index " + index + " is out of the vertices");
+
+        this.vertices = vertices;
+        this.normals = normals;
+
+        // keep the triangles with an area
+        int[] kept = new int[indices.length];
+        double[] areas = new double[indices.length / 3];
+        int size = 0;
+        for (int tri = 0; tri < indices.length / 3; ++tri) {
+            int a = 3 * indices[3 * tri], b = 3 * indices[3 * tri + 1], c = 3 * indices[3 * tri + 2];
+            double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1];
+            double e1z = vertices[b + 2] - vertices[a + 2];
+            double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1];
+            double e2z = vertices[c + 2] - vertices[a + 2];
+            double area = Math.sqrt(lengthSquared(e1y * e2z - e1z * e2y, e1z * e2x - e1x * e2z, e1x * e2y - e1y * e2x));
+            if (isZero(area)) continue;
+            areas[size] = 1 / area;
+            System.arraycopy(indices, 3 * tri, kept, 3 * size, 3);
+            ++size;
+        }
+        if (size == 0)
+            throw new IllegalArgumentException("A mesh must have a triangle");
+
+        double[] boxes = new double[6 * size];
+        int[] order = new int[size];
+        for (int tri = 0; tri < size; ++tri) {
+            order[tri] = tri;
+            for (int axis = 0; axis < 3; ++axis) {
+                double p1 = vertices[3 * kept[3 * tri] + axis], p2 = vertices[3 * kept[3 * tri + 1] + axis];
+                double p3 = vertices[3 * kept[3 * tri + 2] + axis];
+                boxes[6 * tri + axis] = Math.min(p1, Math.min(p2, p3));
+                boxes[6 * tri + 3 + axis] = Math.max(p1, Math.max(p2, p3));
+            }
+        }
+        bounds = new double[6 * (2 * size - 1)];
+        firsts = new int[2 * size - 1];
+        counts = new int[2 * size - 1];
+        int nodes = build(0, 1, 0, size, boxes, order);
+        bounds = Arrays.copyOf(bounds, 6 * nodes);
+        firsts = Arrays.copyOf(firsts, nodes);
+        counts = Arrays.copyOf(counts, nodes);
+
+        // the triangles in the order of the leaves
+        this.indices = new int[3 * size];
+        invAreas = new double[size];
+        for (int k = 0; k < size; ++k) {
+            System.arraycopy(kept, 3 * order[k], this.indices, 3 * k, 3);
+            invAreas[k] = areas[order[k]];
+        }
+        box = new BoundingBox(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+    }
+
+    /**
+     * Returns the number of the mesh's triangles.
+     *
+     * @return the number of triangles
+     */
+    public int getTriangleCount() {
+        return invAreas.length;
+    }
+
+    /**
+     * Returns the number of the mesh's vertices.
+     *
+     * @return the number of vertices
+     */
+    public int getVertexCount() {
+        return vertices.length / 3;
+    }
+
+    /**
+     * Returns a vertex of the mesh.
+     *
+     * @param index the index of the vertex
+     * @return the vertex
+     */
+    public Point getVertex(int index) {
+        return new Point(vertices[3 * index], vertices[3 * index + 1], vertices[3 * index + 2]);
+    }
+
+    /**
+     * Returns the size of the mesh's encoding.
+     *
+     * @return the number of bytes {@link #encode(ByteBuffer)} puts
+     */
+    public long getEncodedSize() {
+        return 4L * 4 + 8L * (vertices.length + invAreas.length + bounds.length)
+                + 4L * (indices.length + firsts.length + counts.length) + (normals == null ? 0 : 4L * normals.length);
+    }
+
+    /**
+     * Encodes the mesh, with its hierarchy, in a buffer, so that it is decoded with no rebuilding by
+     * {@link #decode(ByteBuffer)}: the numbers of the vertices, the triangles and the nodes and whether there are
+     * normals, and then the arrays, in the buffer's byte order.
+     *
+     * @param buffer the buffer, which is advanced by {@link #getEncodedSize()} bytes
+     */
+    public void encode(ByteBuffer buffer) {
+        buffer.putInt(vertices.length / 3).putInt(invAreas.length).putInt(firsts.length)
+                .putInt(normals == null ? 0 : 1);
+        buffer.asDoubleBuffer().put(vertices).put(invAreas).put(bounds);
+        buffer.position(buffer.position() + 8 * (vertices.length + invAreas.length + bounds.length));
+        buffer.asIntBuffer().put(indices).put(firsts).put(counts);
+        buffer.position(buffer.position() + 4 * (indices.length + firsts.length + counts.length));
+        if (normals != null) {
+            buffer.asFloatBuffer().put(normals);
+            buffer.position(buffer.position() + 4 * normals.length);
+        }
+    }
+
+    /**
+     * Decodes a mesh encoded by {@link #encode(ByteBuffer)}, reading its arrays in bulk.
+     *
+     * @param buffer the buffer, which is advanced over the encoding
+     * @return the mesh
+     * @throws IllegalArgumentException if the encoding is not of a valid mesh
+     * @throws java.nio.BufferUnderflowException if the encoding is truncated
+     */
+    public static TriangleMesh decode(ByteBuffer buffer) {
+        int vertexCount = buffer.getInt(), size = buffer.getInt(), nodes = buffer.getInt(), smooth = buffer.getInt();
+        if (vertexCount < 0 || vertexCount > Integer.MAX_VALUE / 3 || size <= 0 || size > Integer.MAX_VALUE / 6
+                || nodes <= 0 || nodes >= 2 * size || (smooth & ~1) != 0)
+            throw new IllegalArgumentException("Bad mesh encoding");
+        if (buffer.remaining() < 8L * (3L * vertexCount + size + 6L * nodes) + 4L * (3L * size + 2L * nodes)
+                + 4L * 3 * vertexCount * smooth)
+            throw new BufferUnderflowException();
+        double[] vertices = new double[3 * vertexCount];
+        double[] invAreas = new double[size];
+        double[] bounds = new double[6 * nodes];
+        buffer.asDoubleBuffer().get(vertices).get(invAreas).get(bounds);
+        buffer.position(buffer.position() + 8 * (vertices.length + size + bounds.length));
+        int[] indices = new int[3 * size];
+        int[] firsts = new int[nodes];
+        int[] counts = new int[nodes];
+        buffer.asIntBuffer().get(indices).get(firsts).get(counts);
+        buffer.position(buffer.position() + 4 * (indices.length + 2 * nodes));
+        float[] normals = null;
+        if (smooth == 1) {
+            normals = new float[vertices.length];
+            buffer.asFloatBuffer().get(normals);
+            buffer.position(buffer.position() + 4 * normals.length);
+        }
+        return new TriangleMesh(vertices, indices, normals, invAreas, bounds, firsts, counts);
+    }
+
+    /**
+     * Constructs a mesh of a built hierarchy, checking that it refers only to its triangles and nodes, and that
+     * a node's children follow it (so traversing it ends).
+     *
+     * @param vertices the coordinates of the vertices
+     * @param indices  the vertices of the triangles in the order of the leaves
+     * @param normals  the normals of the vertices, or null
+     * @param invAreas the inverses of the triangles' edges' cross product lengths
+     * @param bounds   the boxes of the nodes
+     * @param firsts   the first triangles of the leaves and the first children of the inner nodes
+     * @param counts   the numbers of the leaves' triangles, 0 for the inner nodes
+     * @throws IllegalArgumentException if the hierarchy or an index is out of range
+     */
+    private TriangleMesh(double[] vertices, int[] indices, float[] normals, double[] invAreas, double[] bounds,
+                         int[] firsts, int[] counts) {
+        int vertexCount = vertices.length / 3;
+        for (int index : indices)
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("Vertex index " + index + " is out of the vertices");
+        for (int node = 0; node < firsts.length; ++node)
+            if (counts[node] == 0 ? firsts[node] <= node || firsts[node] >= firsts.length - 1
+                    : counts[node] < 0 || firsts[node] < 0 || firsts[node] > invAreas.length - counts[node])
+                throw new IllegalArgumentException("Node " + node + " is out of the hierarchy");
+        this.vertices = vertices;
+        this.indices = indices;
+        this.normals = normals;
+        this.invAreas = invAreas;
+        this.bounds = bounds;
+        this.firsts = firsts;
+        this.counts = counts;
+        box = new BoundingBox(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+    }
+
+    /**
+     * Returns a coordinate of a triangle's vertex.
+     *
+     * @param tri    the triangle
+     * @param corner the vertex of the triangle (0, 1 or 2)
+     * @param axis   0 for x, 1 for y, 2 for z
+     * @return the coordinate
+     */
+    private double vertex(int tri, int corner, int axis) {
+        return vertices[3 * indices[3 * tri + corner] + axis];
+    }
+
+    /**
+     * Builds the sub-tree over the triangles in the range [from, to) of an order, reordering them in place.
+     * A node is split at the middle of its triangles' box centers along their longest extent, or in two halves
+     * when the centers coincide.
+     *
+     * @param node  the index of the sub-tree root
+     * @param next  the first free node index
+     * @param from  the first triangle (included)
+     * @param to    the last triangle (excluded)
+     * @param boxes the boxes of the triangles, the minimal and the maximal coordinates of each (reordered with
+     *              the triangles, so they are read in sequence)
+     * @param order the order of the triangles
+     * @return the first free node index after the sub-tree
+     */
+    private int build(int node, int next, int from, int to, double[] boxes, int[] order) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        // the extents of the doubled centers
+        double cMinX = Double.POSITIVE_INFINITY, cMinY = Double.POSITIVE_INFINITY, cMinZ = Double.POSITIVE_INFINITY;
+        double cMaxX = Double.NEGATIVE_INFINITY, cMaxY = Double.NEGATIVE_INFINITY, cMaxZ = Double.NEGATIVE_INFINITY;
+        for (int k = from; k < to; ++k) {
+            int b = 6 * k;
+            if (boxes[b] < minX) minX = boxes[b];
+            if (boxes[b + 1] < minY) minY = boxes[b + 1];
+            if (boxes[b + 2] < minZ) minZ = boxes[b + 2];
+            if (boxes[b + 3] > maxX) maxX = boxes[b + 3];
+            if (boxes[b + 4] > maxY) maxY = boxes[b + 4];
+            if (boxes[b + 5] > maxZ) maxZ = boxes[b + 5];
+            double cx = boxes[b] + boxes[b + 3], cy = boxes[b + 1] + boxes[b + 4], cz = boxes[b + 2] + boxes[b + 5];
+            if (cx < cMinX) cMinX = cx;
+            if (cy < cMinY) cMinY = cy;
+            if (cz < cMinZ) cMinZ = cz;
+            if (cx > cMaxX) cMaxX = cx;
+            if (cy > cMaxY) cMaxY = cy;
+            if (cz > cMaxZ) cMaxZ = cz;
+        }
+        int n = 6 * node;
+        bounds[n] = minX;
+        bounds[n + 1] = minY;
+        bounds[n + 2] = minZ;
+        bounds[n + 3] = maxX;
+        bounds[n + 4] = maxY;
+        bounds[n + 5] = maxZ;
+
+        if (to - from <= MAX_LEAF_SIZE) {
+            firsts[node] = from;
+            counts[node] = to - from;
+            return next;
+        }
+
+        int axis = 0;
+        double cMin = cMinX, extent = cMaxX - cMinX;
+        if (cMaxY - cMinY > extent) {
+            axis = 1;
+            cMin = cMinY;
+            extent = cMaxY - cMinY;
+        }
+        if (cMaxZ - cMinZ > extent) {
+            axis = 2;
+            cMin = cMinZ;
+            extent = cMaxZ - cMinZ;
+        }
+        int mid = from;
+        if (extent > 0) {
+            double split = cMin + extent / 2;
+            for (int k = from; k < to; ++k) {
+                int b = 6 * k + axis;
+                if (boxes[b] + boxes[b + 3] < split) {
+                    int tri = order[k];
+                    order[k] = order[mid];
+                    order[mid] = tri;
+                    for (int i = 0; i < 6; ++i) {
+                        double bound = boxes[6 * k + i];
+                        boxes[6 * k + i] = boxes[6 * mid + i];
+                        boxes[6 * mid + i] = bound;
+                    }
+                    ++mid;
+                }
+            }
+        }
+        if (mid == from || mid == to) // identical centers, or the middle is rounded to an end of a tiny extent
+            mid = (from + to) >>> 1;
+
+        firsts[node] = next;
+        counts[node] = 0;
+        next = build(next, next + 2, from, mid, boxes, order);
+        return build(firsts[node] + 1, next, mid, to, boxes, order);
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    /**
+     * Calculates the normal of a triangle at a point: the triangle's own one for flat shading, the interpolation
+     * of its vertices' normals for smooth shading (the triangle's own one where they cancel out).
+     *
+     * @param tri the triangle
+     * @param u   the barycentric coordinate of the point relative to the triangle's second vertex
+     * @param w   the barycentric coordinate of the point relative to the triangle's third vertex
+     * @return the unit normal
+     */
+    Vector normal(int tri, double u, double w) {
+        if (normals != null) {
+            int a = 3 * indices[3 * tri], b = 3 * indices[3 * tri + 1], c = 3 * indices[3 * tri + 2];
+            double s = 1 - u - w;
+            double x = s * normals[a] + u * normals[b] + w * normals[c];
+            double y = s * normals[a + 1] + u * normals[b + 1] + w * normals[c + 1];
+            double z = s * normals[a + 2] + u * normals[b + 2] + w * normals[c + 2];
+            if (!isZero(lengthSquared(x, y, z))) return new Vector(x, y, z).normalize();
+        }
+        double e1x = vertex(tri, 1, 0) - vertex(tri, 0, 0);
+        double e1y = vertex(tri, 1, 1) - vertex(tri, 0, 1);
+        double e1z = vertex(tri, 1, 2) - vertex(tri, 0, 2);
+        double e2x = vertex(tri, 2, 0) - vertex(tri, 0, 0);
+        double e2y = vertex(tri, 2, 1) - vertex(tri, 0, 1);
+        double e2z = vertex(tri, 2, 2) - vertex(tri, 0, 2);
+        return new Vector(e1y * e2z - e1z * e2y, e1z * e2x - e1x * e2z, e1x * e2y - e1y * e2x).normalize();
+    }
+
+    /**
+     * Calculates the normal of the mesh at a point on it. The triangle of the point is searched for over all
+     * the triangles, so the normal of an intersection should rather be taken from it
+     * ({@link GeoPoint#getNormal()}), which knows its triangle.
+     *
+     * @param point A point on the surface of the mesh.
+     * @return The unit normal at the point.
+     * @throws IllegalArgumentException if the point is not on the mesh
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        double px = point.getX(), py = point.getY(), pz = point.getZ();
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY, bestU = 0, bestW = 0;
+        for (int tri = 0; tri < invAreas.length; ++tri) {
+            double ax = vertex(tri, 0, 0), ay = vertex(tri, 0, 1), az = vertex(tri, 0, 2);
+            double e1x = vertex(tri, 1, 0) - ax, e1y = vertex(tri, 1, 1) - ay, e1z = vertex(tri, 1, 2) - az;
+            double e2x = vertex(tri, 2, 0) - ax, e2y = vertex(tri, 2, 1) - ay, e2z = vertex(tri, 2, 2) - az;
+            double sx = px - ax, sy = py - ay, sz = pz - az;
+            // the barycentric coordinates of the point's projection on the triangle's plane
+            double d11 = dot(e1x, e1y, e1z, e1x, e1y, e1z), d12 = dot(e1x, e1y, e1z, e2x, e2y, e2z);
+            double d22 = dot(e2x, e2y, e2z, e2x, e2y, e2z);
+            double s1 = dot(sx, sy, sz, e1x, e1y, e1z), s2 = dot(sx, sy, sz, e2x, e2y, e2z);
+            double denominator = d11 * d22 - d12 * d12;
+            double u = (d22 * s1 - d12 * s2) / denominator, w = (d11 * s2 - d12 * s1) / denominator;
+            if (alignZero(u) < 0 || alignZero(w) < 0 || alignZero(1 - u - w) < 0) continue;
+            double distance = Math.abs(dot(sx, sy, sz, e1y * e2z - e1z * e2y, e1z * e2x - e1x * e2z,
+                    e1x * e2y - e1y * e2x)) * invAreas[tri];
+            if (distance < bestDistance) {
+                best = tri;
+                bestDistance = distance;
+                bestU = u;
+                bestW = w;
+            }
+        }
+        if (best < 0 || !isZero(bestDistance))
+            throw new IllegalArgumentException("The point is not on the mesh");
+        return normal(best, bestU, bestW);
+    }
+
+    /**
+     * Intersects a ray with a triangle of the mesh (M&ouml;ller&ndash;Trumbore, as {@link Triangle} does).
+     *
+     * @param tri         the triangle
+     * @param ox          ray head x
+     * @param oy          ray head y
+     * @param oz          ray head z
+     * @param dx          ray direction x
+     * @param dy          ray direction y
+     * @param dz          ray direction z
+     * @param maxDistance the maximum allowed distance of the intersection
+     * @param barycentric if not null, receives the barycentric coordinates of the intersection point relative
+     *                    to the second and the third vertices
+     * @return the distance of the intersection from the ray head, or {@link Polygon#NO_HIT}
+     */
+    private double intersect(int tri, double ox, double oy, double oz, double dx, double dy, double dz,
+                             double maxDistance, double[] barycentric) {
+        int a = 3 * indices[3 * tri], b = 3 * indices[3 * tri + 1], c = 3 * indices[3 * tri + 2];
+        double ax = vertices[a], ay = vertices[a + 1], az = vertices[a + 2];
+        double e1x = vertices[b] - ax, e1y = vertices[b + 1] - ay, e1z = vertices[b + 2] - az;
+        double e2x = vertices[c] - ax, e2y = vertices[c + 1] - ay, e2z = vertices[c + 2] - az;
+
+        double px = dy * e2z - dz * e2y;
+        double py = dz * e2x - dx * e2z;
+        double pz = dx * e2y - dy * e2x;
+        double det = dot(e1x, e1y, e1z, px, py, pz);
+        if (isZero(alignZero(det * invAreas[tri])))
+            return Polygon.NO_HIT;
+        boolean positive = det > 0;
+
+        double sx = ox - ax, sy = oy - ay, sz = oz - az;
+        double uDet = dot(sx, sy, sz, px, py, pz);
+        if (isZero(uDet) || positive != (uDet > 0))
+            return Polygon.NO_HIT;
+
+        double qx = sy * e1z - sz * e1y;
+        double qy = sz * e1x - sx * e1z;
+        double qz = sx * e1y - sy * e1x;
+        double wDet = dot(dx, dy, dz, qx, qy, qz);
+        if (isZero(wDet) || positive != (wDet > 0))
+            return Polygon.NO_HIT;
+        double restDet = det - uDet - wDet;
+        if (isZero(restDet) || positive != (restDet > 0))
+            return Polygon.NO_HIT;
+
+        double invDet = 1 / det;
+        double t = alignZero(dot(e2x, e2y, e2z, qx, qy, qz) * invDet);
+        if (t <= 0 || alignZero(t - maxDistance) > 0)
+            return Polygon.NO_HIT;
+
+        if (barycentric != null) {
+            barycentric[0] = uDet * invDet;
+            barycentric[1] = wDet * invDet;
+        }
+        return t;
+    }
+
+    /**
+     * Slab test of a ray with a node's box, as {@link BoundingBox} does.
+     *
+     * @param node        the node
+     * @param ox          ray head x
+     * @param oy          ray head y
+     * @param oz          ray head z
+     * @param invX        inverse of the ray direction x
+     * @param invY        inverse of the ray direction y
+     * @param invZ        inverse of the ray direction z
+     * @param maxDistance the maximal distance along the ray
+     * @return the entry distance into the box, or {@link BoundingBox#MISS}
+     */
+    private double enter(int node, double ox, double oy, double oz, double invX, double invY, double invZ,
+                         double maxDistance) {
+        int b = 6 * node;
+        double tNear = 0;
+        double tFar = maxDistance;
+
+        double t1 = (bounds[b] - ox) * invX, t2 = (bounds[b + 3] - ox) * invX;
+        if (t1 > t2) { double tmp = t1; t1 = t2; t2 = tmp; }
+        if (t1 > tNear) tNear = t1;
+        if (t2 * BoundingBox.SLAB_TOLERANCE < tFar) tFar = t2 * BoundingBox.SLAB_TOLERANCE;
+
+        t1 = (bounds[b + 1] - oy) * invY;
+        t2 = (bounds[b + 4] - oy) * invY;
+        if (t1 > t2) { double tmp = t1; t1 = t2; t2 = tmp; }
+        if (t1 > tNear) tNear = t1;
+        if (t2 * BoundingBox.SLAB_TOLERANCE < tFar) tFar = t2 * BoundingBox.SLAB_TOLERANCE;
+
+        t1 = (bounds[b + 2] - oz) * invZ;
+        t2 = (bounds[b + 5] - oz) * invZ;
+        if (t1 > t2) { double tmp = t1; t1 = t2; t2 = tmp; }
+        if (t1 > tNear) tNear = t1;
+        if (t2 * BoundingBox.SLAB_TOLERANCE < tFar) tFar = t2 * BoundingBox.SLAB_TOLERANCE;
+
+        return tNear <= tFar ? tNear : BoundingBox.MISS;
+    }
+
+    /**
+     * Finds the intersections between a ray and the triangles of the mesh.
+     *
+     * @param ray         The ray to intersect with the mesh.
+     * @param maxDistance The maximum allowed distance between the ray origin and the intersection point.
+     * @return A list of the intersections (as {@link MeshPoint}s), or null if no intersection is found.
+     */
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double invX = 1 / dx, invY = 1 / dy, invZ = 1 / dz;
+
+        List<GeoPoint> result = null;
+        double[] barycentric = new double[2];
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (enter(node, ox, oy, oz, invX, invY, invZ, maxDistance) == BoundingBox.MISS) continue;
+            if (counts[node] > 0) {
+                for (int tri = firsts[node]; tri < firsts[node] + counts[node]; ++tri) {
+                    double t = intersect(tri, ox, oy, oz, dx, dy, dz, maxDistance, barycentric);
+                    if (t == Polygon.NO_HIT) continue;
+                    if (result == null) result = new LinkedList<>();
+                    result.add(new MeshPoint(this, ray, t, tri, barycentric[0], barycentric[1]));
+                }
+            } else {
+                if (top + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[top++] = firsts[node] + 1;
+                stack[top++] = firsts[node];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the closest intersection with the triangles of the mesh, visiting the nearer child of a node first
+     * and skipping the boxes behind the closest intersection found so far.
+     *
+     * @param ray         The ray to intersect with the mesh.
+     * @param maxDistance The maximum allowed distance between the ray origin and the intersection point.
+     * @return The closest intersection (as a {@link MeshPoint}), or null if no intersection is found.
+     */
+    @Override
+    protected GeoPoint findClosestIntersectionHelper(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double invX = 1 / dx, invY = 1 / dy, invZ = 1 / dz;
+
+        double rootDistance = enter(0, ox, oy, oz, invX, invY, invZ, maxDistance);
+        if (rootDistance == BoundingBox.MISS) return null;
+
+        int best = -1;
+        int[] stack = new int[64];
+        double[] entries = new double[64];
+        int top = 0;
+        stack[top] = 0;
+        entries[top++] = rootDistance;
+        while (top > 0) {
+            int node = stack[--top];
+            if (entries[top] > maxDistance) continue; // an intersection closer than the box was found meanwhile
+
+            if (counts[node] > 0) {
+                for (int tri = firsts[node]; tri < firsts[node] + counts[node]; ++tri) {
+                    double t = intersect(tri, ox, oy, oz, dx, dy, dz, maxDistance, null);
+                    if (t != Polygon.NO_HIT && (best < 0 ? t <= maxDistance : t < maxDistance)) {
+                        best = tri;
+                        maxDistance = t;
+                    }
+                }
+                continue;
+            }
+
+            int left = firsts[node], right = left + 1;
+            double leftDistance = enter(left, ox, oy, oz, invX, invY, invZ, maxDistance);
+            double rightDistance = enter(right, ox, oy, oz, invX, invY, invZ, maxDistance);
+            if (top + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+                entries = Arrays.copyOf(entries, entries.length * 2);
+            }
+            // push the farther child first so the nearer one is visited first
+            int near = left, far = right;
+            double nearDistance = leftDistance, farDistance = rightDistance;
+            if (rightDistance < leftDistance) {
+                near = right;
+                far = left;
+                nearDistance = rightDistance;
+                farDistance = leftDistance;
+            }
+            if (farDistance != BoundingBox.MISS) {
+                stack[top] = far;
+                entries[top++] = farDistance;
+            }
+            if (nearDistance != BoundingBox.MISS) {
+                stack[top] = near;
+                entries[top++] = nearDistance;
+            }
+        }
+        if (best < 0) return null;
+
+        double[] barycentric = new double[2];
+        intersect(best, ox, oy, oz, dx, dy, dz, Double.POSITIVE_INFINITY, barycentric);
+        return new MeshPoint(this, ray, maxDistance, best, barycentric[0], barycentric[1]);
+    }
+
+    /**
+     * Accumulates the transparency of the mesh along a ray segment: its kT once per crossed triangle.
+     *
+     * @param ray         The ray to intersect with the mesh.
+     * @param maxDistance The maximum allowed distance between the ray origin and the intersection point.
+     * @param ktr         The transparency factor accumulated so far.
+     * @param minK        The threshold below which the objects are considered opaque.
+     * @return The accumulated transparency factor, {@link Double3#ZERO} if it is below the threshold.
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr, double minK) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double invX = 1 / dx, invY = 1 / dy, invZ = 1 / dz;
+        Double3 kt = getMaterial().getKt();
+
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (enter(node, ox, oy, oz, invX, invY, invZ, maxDistance) == BoundingBox.MISS) continue;
+            if (counts[node] > 0) {
+                for (int tri = firsts[node]; tri < firsts[node] + counts[node]; ++tri) {
+                    if (intersect(tri, ox, oy, oz, dx, dy, dz, maxDistance, null) == Polygon.NO_HIT) continue;
+                    ktr = ktr.product(kt);
+                    if (ktr.lowerThan(minK)) return Double3.ZERO;
+                }
+            } else {
+                if (top + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[top++] = firsts[node] + 1;
+                stack[top++] = firsts[node];
+            }
+        }
+        return ktr;
+    }
+}
@@ -8,6 +8,7 @@ import java.util.List;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
+import static primitives.VectorMath.dot;
 
 /**
  * Represents a tube in 3D space, defined by a center axis ray and a radius.
@@ -17,6 +18,10 @@ public class Tube extends RadialGeometry {
 
     /** The axis ray of the tube. */
     final Ray axisRay;
+    /** The axis ray's head */
+    final double ox, oy, oz;
+    /** The axis ray's (unit) direction */
+    final double ax, ay, az;
 
     /**
      * Constructs a new tube object with the specified radius and axis ray.
@@ -27,6 +32,23 @@ public class Tube extends RadialGeometry {
     public Tube(double radius, Ray axisRay) {
         super(radius);
         this.axisRay = axisRay;
+        Point o = axisRay.getP0();
+        Vector a = axisRay.getDir();
+        ox = o.getX();
+        oy = o.getY();
+        oz = o.getZ();
+        ax = a.getX();
+        ay = a.getY();
+        az = a.getZ();
+    }
+
+    /**
+     * Returns the axis ray of the tube.
+     *
+     * @return the axis ray of the tube.
+     */
+    public Ray getAxisRay() {
+        return axisRay;
     }
 
     /**
@@ -66,12 +88,21 @@ public class Tube extends RadialGeometry {
         normal = point.subtract(p).normalize();
         return normal;
     }
+    /**
+     * A tube is unbounded along its axis
+     *
+     * @return {@link BoundingBox#INFINITE}
+     */
     @Override
-    public List<Point> findIntersections(Ray ray){
-        return null;
+    public BoundingBox getBoundingBox() {
+        return BoundingBox.INFINITE;
     }
+
     /**
      * Helper method to find the intersections between a ray and the geometry of the tube.
+     * The quadratic equation |(P0 + t*v - O) - ((P0 + t*v - O) * va) * va|^2 = r^2 is solved directly on the
+     * coordinates, so the special positions of the ray (parallel to the axis, starting on it) need no
+     * special handling.
      *
      * @param ray          The ray for intersection tests
      * @param maxDistance  The maximum distance of valid intersections
@@ -80,81 +111,38 @@ public class Tube extends RadialGeometry {
      */
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        Vector vAxis = axisRay.getDir();
-        Vector v = ray.getDir();
         Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+        double dx = v.getX(), dy = v.getY(), dz = v.getZ();
 
-        // At^2+Bt+C=0
-        double a = 0;
-        double b = 0;
-        double c = 0;
-
-        double vVa = alignZero(v.dotProduct(vAxis));
-        Vector vVaVa;
-        Vector vMinusVVaVa;
-        if (vVa == 0) // the ray is orthogonal to the axis
-            vMinusVVaVa = v;
-        else {
-            vVaVa = vAxis.scale(vVa);
-            try {
-                vMinusVVaVa = v.subtract(vVaVa);
-            } catch (IllegalArgumentException e1) { // the rays is parallel to axis
-                return null;
-            }
-        }
+        // the ray direction without its component along the axis: v - (v*va)*va
+        double vVa = dot(dx, dy, dz, ax, ay, az);
+        double wx = dx - vVa * ax, wy = dy - vVa * ay, wz = dz - vVa * az;
         // A = (v-(v*va)*va)^2
-        a = vMinusVVaVa.lengthSquared();
-
-        Vector deltaP = null;
-        try {
-            deltaP = p0.subtract(axisRay.getP0());
-        } catch (IllegalArgumentException e1) { // the ray begins at axis P0
-            if (vVa == 0 && alignZero(radius - maxDistance) <= 0) { // the ray is orthogonal to Axis
-                return List.of(new GeoPoint(this, ray.getPoint(radius)));
-            }
-            double t = alignZero(Math.sqrt(radius * radius / vMinusVVaVa.lengthSquared()));
-            return alignZero(t - maxDistance) >= 0 ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
-        }
+        double a = alignZero(dot(wx, wy, wz, wx, wy, wz));
+        if (a == 0) return null; // the ray is parallel to the axis
 
-        double dPVAxis = alignZero(deltaP.dotProduct(vAxis));
-        Vector dPVaVa;
-        Vector dPMinusdPVaVa;
-        if (dPVAxis == 0)
-            dPMinusdPVaVa = deltaP;
-        else {
-            dPVaVa = vAxis.scale(dPVAxis);
-            try {
-                dPMinusdPVaVa = deltaP.subtract(dPVaVa);
-            } catch (IllegalArgumentException e1) {
-                double t = alignZero(Math.sqrt(radius * radius / a));
-                return alignZero(t - maxDistance) >= 0 ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
-            }
-        }
+        // the ray head relative to the axis without its component along the axis: dp - (dp*va)*va
+        double px = p0.getX() - ox, py = p0.getY() - oy, pz = p0.getZ() - oz;
+        double dpVa = dot(px, py, pz, ax, ay, az);
+        double ux = px - dpVa * ax, uy = py - dpVa * ay, uz = pz - dpVa * az;
 
-        // B = 2(v - (v*va)*va) * (dp - (dp*va)*va))
-        b = 2 * alignZero(vMinusVVaVa.dotProduct(dPMinusdPVaVa));
-        c = dPMinusdPVaVa.lengthSquared() - radius * radius;
+        // B = 2(v - (v*va)*va) * (dp - (dp*va)*va)), C = (dp - (dp*va)*va)^2 - r^2
+        double b = 2 * dot(wx, wy, wz, ux, uy, uz);
+        double c = dot(ux, uy, uz, ux, uy, uz) - radius * radius;
 
-        // A*t^2 + B*t + C = 0 - lets resolve it
         double discr = alignZero(b * b - 4 * a * c);
         if (discr <= 0) return null; // the ray is outside or tangent to the tube
 
-        double doubleA = 2 * a;
-        double tm = alignZero(-b / doubleA);
-        double th = Math.sqrt(discr) / doubleA;
-        if (isZero(th)) return null; // the ray is tangent to the tube
-
-        double t1 = alignZero(tm + th);
-        if (t1 <= 0) // t1 is behind the head
-            return null; // since th must be positive (sqrt), t2 must be non-positive as t1
-
-        double t2 = alignZero(tm - th);
+        double th = Math.sqrt(discr);
+        double t1 = alignZero((-b - th) / (2 * a));
+        double t2 = alignZero((-b + th) / (2 * a));
+        if (t2 <= 0 || alignZero(t1 - maxDistance) > 0) return null; // both are behind the head or too far
 
-        // if both t1 and t2 are positive
-        if (t2 > 0 && alignZero(t2 - maxDistance) < 0)
-            return List.of(new GeoPoint(this, ray.getPoint(t1)),new GeoPoint(this, ray.getPoint(t2)));
-        else if (alignZero(t1 - maxDistance) < 0)// t2 is behind the head
-            return List.of(new GeoPoint(this, ray.getPoint(t1)));
-        return null;
+        boolean first = t1 > 0;
+        boolean second = alignZero(t2 - maxDistance) <= 0;
+        if (first && second) return List.of(new GeoPoint(this, ray, t1), new GeoPoint(this, ray, t2));
+        if (first) return List.of(new GeoPoint(this, ray, t1));
+        return second ? List.of(new GeoPoint(this, ray, t2)) : null;
     }
 }
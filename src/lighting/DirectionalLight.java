@@ -23,11 +23,20 @@ public class DirectionalLight extends Light implements LightSource {
      * @param intensity The intensity of the directional light as a Color object.
      * @param direction The direction of the directional light as a Vector object.
      */
-    protected DirectionalLight(Color intensity, Vector direction) {
+    public DirectionalLight(Color intensity, Vector direction) {
         super(intensity);
         this.direction = direction.normalize();
     }
 
+    /**
+     * Retrieves the direction of the light.
+     *
+     * @return The normalized direction of the light.
+     */
+    public Vector getDirection() {
+        return direction;
+    }
+
     /**
      * Retrieves the intensity of the light at the specified point.
      *
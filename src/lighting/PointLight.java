@@ -31,6 +31,42 @@ public class PointLight extends Light implements LightSource {
         this.position = position;
     }
 
+    /**
+     * Retrieves the position of the light.
+     *
+     * @return The position of the light.
+     */
+    public Point getPosition() {
+        return position;
+    }
+
+    /**
+     * Retrieves the constant attenuation factor.
+     *
+     * @return The constant attenuation factor.
+     */
+    public Double3 getKc() {
+        return Kc;
+    }
+
+    /**
+     * Retrieves the linear attenuation factor.
+     *
+     * @return The linear attenuation factor.
+     */
+    public Double3 getKl() {
+        return Kl;
+    }
+
+    /**
+     * Retrieves the quadratic attenuation factor.
+     *
+     * @return The quadratic attenuation factor.
+     */
+    public Double3 getKq() {
+        return Kq;
+    }
+
     /**
      * Retrieves the intensity of the light at the specified point.
      *
@@ -53,6 +53,15 @@ public class SpotLight extends PointLight {
        return Ic.scale(factor);
     }
 
+    /**
+     * Retrieves the axis of the cone of light.
+     *
+     * @return The normalized direction of the light.
+     */
+    public Vector getDirection() {
+        return direction;
+    }
+
     public double getConcentration() {
         return concentration;
     }
@@ -7,14 +7,14 @@ package primitives;
  * @author Dan Zilberstein */
 public class Color {
    /** The internal fields maintain RGB components as double numbers from 0 to
-    * whatever... */
-   private final Double3 rgb;
+    * whatever... (kept inline, without an inner triad object) */
+   private final double r, g, b;
 
    /** Black color = (0,0,0) */
    public static final Color BLACK = new Color();
 
    /** Default constructor - to generate Black Color (privately) */
-   private Color() { rgb = Double3.ZERO; }
+   private Color() { r = g = b = 0; }
 
    /** Constructor to generate a color according to RGB components Each component
     * in
@@ -24,46 +24,52 @@ public class Color {
     * @param b Blue component */
    public Color(double r, double g, double b) {
       if (r < 0 || g < 0 || b < 0) throw new IllegalArgumentException("Negative color component is illegal");
-      rgb = new Double3(r, g, b);
-   }
-
-   /** Constructor to generate a color according to RGB components Each component
-    * in
-    * range 0..255 (for printed white color) or more [for lights]
-    * @param rgb triad of Red/Green/Blue components */
-   private Color(Double3 rgb) {
-      if (rgb.d1 < 0 || rgb.d2 < 0 || rgb.d3 < 0)
-         throw new IllegalArgumentException("Negative color component is illegal");
-      this.rgb = rgb;
+      this.r = r;
+      this.g = g;
+      this.b = b;
    }
 
    /** Constructor on base of java.awt.Color object
     * @param other java.awt.Color's source object */
    public Color(java.awt.Color other) {
-      rgb = new Double3(other.getRed(), other.getGreen(), other.getBlue());
+      r = other.getRed();
+      g = other.getGreen();
+      b = other.getBlue();
    }
 
    /** Color getter - returns the color after converting it into java.awt.Color
     * object During the conversion any component bigger than 255 is set to 255
     * @return java.awt.Color object based on this Color RGB components */
    public java.awt.Color getColor() {
-      int ir = (int) rgb.d1;
-      int ig = (int) rgb.d2;
-      int ib = (int) rgb.d3;
+      int ir = (int) r;
+      int ig = (int) g;
+      int ib = (int) b;
       return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
    }
 
+   /** Red component getter
+    * @return the red component */
+   public double getR() { return r; }
+
+   /** Green component getter
+    * @return the green component */
+   public double getG() { return g; }
+
+   /** Blue component getter
+    * @return the blue component */
+   public double getB() { return b; }
+
    /** Operation of adding this and one or more other colors (by component)
     * @param  colors one or more other colors to add
     * @return        new Color object which is a result of the operation */
    public Color add(Color... colors) {
-      double rr = rgb.d1;
-      double rg = rgb.d2;
-      double rb = rgb.d3;
+      double rr = r;
+      double rg = g;
+      double rb = b;
       for (Color c : colors) {
-         rr += c.rgb.d1;
-         rg += c.rgb.d2;
-         rb += c.rgb.d3;
+         rr += c.r;
+         rg += c.g;
+         rb += c.b;
       }
       return new Color(rr, rg, rb);
    }
@@ -74,7 +80,7 @@ public class Color {
    public Color scale(Double3 k) {
       if (k.d1 < 0.0 || k.d2 < 0.0 || k.d3 < 0.0)
          throw new IllegalArgumentException("Can't scale a color by a negative number");
-      return new Color(rgb.product(k));
+      return new Color(r * k.d1, g * k.d2, b * k.d3);
    }
 
    /** Scale the color by a scalar
@@ -82,7 +88,7 @@ public class Color {
     * @return   new Color object which is the result of the operation */
    public Color scale(double k) {
       if (k < 0.0) throw new IllegalArgumentException("Can't scale a color by a negative number");
-      return new Color(rgb.scale(k));
+      return new Color(r * k, g * k, b * k);
    }
 
    /** Scale the color by (1 / reduction factor)
@@ -90,7 +96,7 @@ public class Color {
     * @return   new Color object which is the result of the operation */
    public Color reduce(double k) {
       if (k < 1) throw new IllegalArgumentException("Can't scale a color by a by a number lower than 1");
-      return new Color(rgb.reduce(k));
+      return new Color(r / k, g / k, b / k);
    }
 
    /** Scale the color by (1 / reduction factor)
@@ -99,27 +105,35 @@ public class Color {
    public Color reduce(Double3 k) {
       if (k.d1 < 1.0 || k.d2 < 1.0 || k.d3 < 1.0)
          throw new IllegalArgumentException("Can't scale a color by a by a number lower than 1");
-      return new Color(rgb.d1 / k.d1, rgb.d2 / k.d2, rgb.d3 / k.d3);
+      return new Color(r / k.d1, g / k.d2, b / k.d3);
    }
 
    /**
     * Compare two colors if they are in the same variety
-    * The range of the variety is 1 for each r,g,b.
+    * The range of the variety is 10 for each r,g,b.
     *
     * @param color The color to compare with
     * @return If in the same variety or not (Boolean)
     */
    public boolean equals(Color color) {
-      if (Math.abs(this.rgb.d1)- color.rgb.d1 > 10 ||
-              Math.abs(this.rgb.d2- color.rgb.d2) > 10||
-              Math.abs(this.rgb.d3- color.rgb.d3) > 10)
-            return false;
+      return isSimilar(color, 10);
+   }
 
-         return true;
-      }
+   /**
+    * Checks whether two colors are similar - none of their components differs by more than a threshold
+    *
+    * @param color     The color to compare with
+    * @param threshold The maximal difference of each of r,g,b
+    * @return true if the colors are similar
+    */
+   public boolean isSimilar(Color color, double threshold) {
+      return Math.abs(r - color.r) <= threshold
+              && Math.abs(g - color.g) <= threshold
+              && Math.abs(b - color.b) <= threshold;
+   }
 
 
 
    @Override
-   public String toString() { return "rgb:" + rgb; }
+   public String toString() { return "rgb:(" + r + "," + g + "," + b + ")"; }
 }
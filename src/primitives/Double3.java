@@ -80,6 +80,30 @@ public class Double3 {
       return "(" + d1 + "," + d2 + "," + d3 + ")";
    }
 
+   /**
+    * First number getter
+    * @return the first number
+    */
+   public double getD1() {
+      return d1;
+   }
+
+   /**
+    * Second number getter
+    * @return the second number
+    */
+   public double getD2() {
+      return d2;
+   }
+
+   /**
+    * Third number getter
+    * @return the third number
+    */
+   public double getD3() {
+      return d3;
+   }
+
    /**
     * Adds the current Double3 object to another Double3 object and returns the result.
     * @param  rhs The right-hand side operand for addition
@@ -149,8 +173,5 @@ public class Double3 {
    public boolean lowerThan(Double3 other) {
       return d1 < other.d1 && d2 < other.d2 && d3 < other.d3;
    }
-   protected double getX() {return this.d1;}
-   protected double getY() {return this.d2;}
-   protected double getZ() {return this.d3;}
 
 }
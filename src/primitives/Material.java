@@ -36,6 +36,12 @@ public class Material {
      */
     private Double3 Kr = Double3.ZERO;
 
+    /**
+     *  maxDepth - the maximal number of bounces of a ray arriving at the surface
+     * for which reflected and refracted rays are still traced from it
+     */
+    private int maxDepth = Integer.MAX_VALUE;
+
 
     public Material setKs(double ks) {
         Ks = new Double3(ks);
@@ -83,6 +89,21 @@ public class Material {
         return this;
     }
 
+    /**
+     * Limits the secondary rays traced from the surface: a ray which has already bounced depth times does not
+     * reflect or refract here (0 - only the local color even for the camera rays)
+     *
+     * @param maxDepth the maximal depth, not negative
+     * @return the material
+     * @throws IllegalArgumentException if the depth is negative
+     */
+    public Material setMaxDepth(int maxDepth) {
+        if (maxDepth < 0)
+            throw new IllegalArgumentException("Maximal depth must not be negative");
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
     public Double3 getKs() {
         return Ks;
     }
@@ -104,6 +125,10 @@ public class Material {
         return Kr;
     }
 
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
 
 }
 
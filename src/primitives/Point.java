@@ -1,15 +1,19 @@
 package primitives;
 
 import java.lang.Math;
-import java.util.Objects;
+
+import static primitives.Util.isZero;
 
 /**
  * Represents a point in a 3D space.
+ * The coordinates are kept directly in the object (and not in an inner {@link Double3}), so every point or
+ * vector is a single small allocation that the JIT can easily scalar-replace.
  * @author Ayala Houri and Shani Zegal
  */
 public class Point {
     public static final Point ZERO = new Point(Double3.ZERO);
-    final Double3 xyz;
+    /** The coordinates of the point */
+    final double x, y, z;
 
     /**
      * Constructs a new Point object with the given coordinates.
@@ -19,7 +23,9 @@ public class Point {
      * @param z The z coordinate of the point.
      */
     public Point(double x, double y, double z) {
-        xyz = new Double3(x, y, z);
+        this.x = x;
+        this.y = y;
+        this.z = z;
     }
 
     /**
@@ -28,7 +34,7 @@ public class Point {
      * @param coordinate The coordinate of the point as a Double3 object.
      */
     Point(Double3 coordinate){
-        xyz = new Double3(coordinate.d1, coordinate.d2, coordinate.d3);
+        this(coordinate.d1, coordinate.d2, coordinate.d3);
     }
 
     /**
@@ -42,7 +48,7 @@ public class Point {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Point point = (Point) o;
-        return xyz.equals(point.xyz);
+        return isZero(x - point.x) && isZero(y - point.y) && isZero(z - point.z);
     }
 
 
@@ -53,7 +59,7 @@ public class Point {
      */
     @Override
     public int hashCode() {
-        return Objects.hash(xyz);
+        return 31 + (int) Math.round(x + y + z);
     }
 
     /**
@@ -63,7 +69,7 @@ public class Point {
      */
     @Override
     public String toString() {
-        return "Point{" + xyz;
+        return "Point{(" + x + "," + y + "," + z + ")";
     }
 
     /**
@@ -73,7 +79,10 @@ public class Point {
      * @return The squared distance between this point and the specified point.
      */
     public double distanceSquared(Point point){
-        return ((point.xyz.d1- xyz.d1)*(point.xyz.d1- xyz.d1)+(point.xyz.d2- xyz.d2)*(point.xyz.d2- xyz.d2)+(point.xyz.d3- xyz.d3)*(point.xyz.d3- xyz.d3));
+        double dx = point.x - x;
+        double dy = point.y - y;
+        double dz = point.z - z;
+        return dx * dx + dy * dy + dz * dz;
     }
 
     /**
@@ -93,7 +102,7 @@ public class Point {
      * @return A new Point object representing the moved point.
      */
     public Point add(Vector vector){
-        return new Point(xyz.add(vector.xyz));
+        return new Point(x + vector.x, y + vector.y, z + vector.z);
     }
 
     /**
@@ -103,16 +112,16 @@ public class Point {
      * @return A new Vector object representing the vector between this point and the specified point.
      */
     public Vector subtract(Point point){
-        return (new Vector(xyz.subtract(point.xyz)));
+        return new Vector(x - point.x, y - point.y, z - point.z);
     }
 
     public double getX() {
-        return xyz.getX();
+        return x;
     }
     public double getY() {
-        return xyz.getY();
+        return y;
     }
     public double getZ() {
-        return xyz.getZ();
+        return z;
     }
 }
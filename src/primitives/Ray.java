@@ -32,10 +32,7 @@ public class Ray {
     public Ray(Point p, Vector n, Vector dir) {
         this.dir = dir.normalize();
         double nv = n.dotProduct(this.dir);
-        Vector delta  =n.scale(DELTA);
-        if (nv < 0)
-            delta = delta.scale(-1);
-        this.p0 = p.add(delta);
+        this.p0 = p.add(n.scale(nv < 0 ? -DELTA : DELTA));
     }
 
     /**
@@ -71,37 +68,47 @@ public class Ray {
     }
 
 
+    /**
+     * Returns the point from the given list that is closest to the head of the ray.
+     *
+     * @param points The list of points to search for the closest point
+     * @return The closest point, or null if the list is empty
+     */
     public Point findClosestPoint(List<Point> points) {
-        return points == null || points.isEmpty() ? null
-                : findClosestGeoPoint(points.stream().map(p -> new GeoPoint(null, p)).toList()).point;
+        if (points == null || points.isEmpty()) return null;
+
+        Point closest = null;
+        double minDistance = Double.POSITIVE_INFINITY;
+        for (Point point : points) {
+            double distance = point.distanceSquared(p0);
+            if (distance < minDistance) {
+                minDistance = distance;
+                closest = point;
+            }
+        }
+        return closest;
     }
 
     /**
-     * Returns the GeoPoint from the given list that is closest to the reference point of this object.
+     * Returns the GeoPoint from the given list that is closest to the head of the ray.
+     * The intersections are compared by their distance along the ray, no point is calculated.
      *
-     * @param geoPointList The list of GeoPoint objects to search for the closest point
-     * @return The GeoPoint object with the closest point to the reference point,
+     * @param geoPointList The list of GeoPoint objects (of this ray) to search for the closest point
+     * @return The GeoPoint object with the closest point to the head of the ray,
      *         or null if the list is empty
      */
-
     public GeoPoint findClosestGeoPoint(List<GeoPoint> geoPointList) {
-        if (geoPointList.isEmpty()) {
-            return null;
-        }
-
-        double minDistance = geoPointList.get(0).point.distance(p0);
-        int indexOfElementWithClosestPoint = 0;
-        int iterationIndex = 0;
+        if (geoPointList == null || geoPointList.isEmpty()) return null;
 
+        GeoPoint closest = null;
+        double minDistance = Double.POSITIVE_INFINITY;
         for (GeoPoint item : geoPointList) {
-            if (item.point.distance(p0) < minDistance) {
-                minDistance = item.point.distance(p0);
-                indexOfElementWithClosestPoint = iterationIndex;
+            if (item.t < minDistance) {
+                minDistance = item.t;
+                closest = item;
             }
-            iterationIndex++;
         }
-
-        return geoPointList.get(indexOfElementWithClosestPoint);
+        return closest;
     }
 
 
@@ -112,34 +119,6 @@ public class Ray {
         Ray ray = (Ray) o;
         return p0.equals(ray.p0) && dir.equals(ray.dir);
     }
-    /**
-     * find the closest point to the ray
-     *
-     * @param geoPointList list of geoPoints
-     *                     (they all the same geometry but different intersection points, if there have more then one intersection point)
-     * @return the geometry with his closest intersection point to the ray (GeoPoint)
-     */
-    public GeoPoint getClosestGeoPoint(List<GeoPoint> geoPointList) {
-
-        if (geoPointList.isEmpty()) return null;
-
-        double minDistance = geoPointList.get(0).point.distance(p0);
-
-        //indexes to find the element with the closest point.
-        int indexOfElementWithClosestPoint = 0;
-        int iterationIndex = 0;
-
-        for (GeoPoint item : geoPointList) {
-            if (item.point.distance(p0) < minDistance) {
-                minDistance = item.point.distance(p0);
-                indexOfElementWithClosestPoint = iterationIndex;
-            }
-            iterationIndex++;
-        }
-
-        return geoPointList.get(indexOfElementWithClosestPoint);
-    }
-
     @Override
     public int hashCode() {
         return Objects.hash(p0, dir);
@@ -1,5 +1,7 @@
 package primitives;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * Util class is used for some internal utilities, e.g. controlling accuracy
  * 
@@ -60,13 +62,14 @@ public abstract class Util {
 
 	/**
 	 * Provide a real random number in range between min and max
+	 * (from the current thread's generator, so rendering threads do not contend on a shared one)
 	 * 
 	 * @param min value (included)
 	 * @param max value (excluded)
 	 * @return the random value
 	 */
 	public static double random(double min, double max) {
-		return Math.random() * (max - min) + min;
+		return ThreadLocalRandom.current().nextDouble() * (max - min) + min;
 	}
 
 }
@@ -1,5 +1,7 @@
 package primitives;
 
+import static primitives.Util.isZero;
+
 /**
  * A class representing a vector in 3D space.
  * @author Ayala Houri and Shani Zegal
@@ -15,7 +17,7 @@ public class Vector extends Point{
      */
     public Vector(double x, double y, double z) {
         super(x, y, z);
-        if(xyz.equals(Double3.ZERO))
+        if (VectorMath.isZeroVector(x, y, z))
             throw new IllegalArgumentException("Zero vector is not allowed");
     }
 
@@ -37,7 +39,7 @@ public class Vector extends Point{
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Vector vector = (Vector) o;
-        return xyz.equals(vector.xyz);
+        return isZero(x - vector.x) && isZero(y - vector.y) && isZero(z - vector.z);
     }
 
     /**
@@ -47,7 +49,7 @@ public class Vector extends Point{
     @Override
     public String toString() {
         return "Vector{" +
-                "xyz=" + xyz+
+                "xyz=(" + x + "," + y + "," + z + ")" +
                 '}';
     }
 
@@ -57,7 +59,7 @@ public class Vector extends Point{
      * @return The resulting vector.
      */
     public Vector add(Vector vector){
-        return new Vector(xyz.add(vector.xyz));
+        return new Vector(x + vector.x, y + vector.y, z + vector.z);
     }
 
     /**
@@ -66,7 +68,7 @@ public class Vector extends Point{
      * @return The scaled vector.
      */
     public Vector scale(double scalar){
-        return new Vector(xyz.scale(scalar));
+        return new Vector(x * scalar, y * scalar, z * scalar);
     }
 
     /**
@@ -75,9 +77,9 @@ public class Vector extends Point{
      * @return The resulting vector.
      */
     public Vector crossProduct(Vector vector){
-        return new Vector(xyz.d2 * vector.xyz.d3 - xyz.d3 * vector.xyz.d2,
-                -(xyz.d1 * vector.xyz.d3 - xyz.d3 * vector.xyz.d1),
-                xyz.d1 * vector.xyz.d2 - xyz.d2 * vector.xyz.d1 );
+        return new Vector(y * vector.z - z * vector.y,
+                -(x * vector.z - z * vector.x),
+                x * vector.y - y * vector.x);
     }
 
     /**
@@ -85,7 +87,7 @@ public class Vector extends Point{
      * @return The squared length of the vector.
      */
     public double lengthSquared(){
-        return (xyz.d1 * xyz.d1 + xyz.d2 * xyz.d2 + xyz.d3 * xyz.d3);
+        return x * x + y * y + z * z;
     }
 
     /**
@@ -101,7 +103,8 @@ public class Vector extends Point{
      * @return The normalized vector.
      */
     public Vector normalize(){
-        return new Vector(xyz.reduce(length()));
+        double length = length();
+        return new Vector(x / length, y / length, z / length);
     }
 
     /**
@@ -110,6 +113,6 @@ public class Vector extends Point{
      * @return The dot product of the two vectors.
      */
     public double dotProduct(Vector vector) {
-        return (vector.xyz.d1 * xyz.d1 + vector.xyz.d2 * xyz.d2 + vector.xyz.d3 * xyz.d3);
+        return vector.x * x + vector.y * y + vector.z * z;
     }
 }
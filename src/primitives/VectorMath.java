@@ -0,0 +1,73 @@
+package primitives;
+
+import static primitives.Util.isZero;
+
+/**
+ * Allocation free vector math over raw coordinates.
+ * <p>
+ * The {@link Point} and {@link Vector} operations create a new object for every result. The intersection and
+ * shading code calls them millions of times per image, so in the hot paths the calculations are done on
+ * plain doubles with these kernels instead, while the immutable classes remain the API for building scenes.
+ * The arithmetic is done in the same order as in the corresponding {@link Vector} methods, so the results
+ * are identical.
+ * @author Ayala Houri and Shani Zegal
+ */
+public abstract class VectorMath {
+	/**
+	 * Empty private constructor to hide the public one
+	 */
+	private VectorMath() {}
+
+	/**
+	 * Calculates the dot product of two vectors given by their coordinates
+	 *
+	 * @param ax 1st vector x
+	 * @param ay 1st vector y
+	 * @param az 1st vector z
+	 * @param bx 2nd vector x
+	 * @param by 2nd vector y
+	 * @param bz 2nd vector z
+	 * @return the dot product
+	 */
+	public static double dot(double ax, double ay, double az, double bx, double by, double bz) {
+		return ax * bx + ay * by + az * bz;
+	}
+
+	/**
+	 * Calculates the dot product of a vector and the difference of two points (v * (a - b))
+	 * without creating the difference vector
+	 *
+	 * @param v the vector
+	 * @param a the head of the difference
+	 * @param b the tail of the difference
+	 * @return the dot product
+	 */
+	public static double dotDifference(Vector v, Point a, Point b) {
+		return dot(v.x, v.y, v.z, a.x - b.x, a.y - b.y, a.z - b.z);
+	}
+
+	/**
+	 * Calculates the squared length of a vector given by its coordinates
+	 *
+	 * @param x vector x
+	 * @param y vector y
+	 * @param z vector z
+	 * @return the squared length
+	 */
+	public static double lengthSquared(double x, double y, double z) {
+		return x * x + y * y + z * z;
+	}
+
+	/**
+	 * Checks whether a vector given by its coordinates is [almost] the zero vector
+	 * (the same check as done by {@link Vector} constructor and {@link Point#equals(Object)})
+	 *
+	 * @param x vector x
+	 * @param y vector y
+	 * @param z vector z
+	 * @return true if all the coordinates are zero or almost zero
+	 */
+	public static boolean isZeroVector(double x, double y, double z) {
+		return isZero(x) && isZero(y) && isZero(z);
+	}
+}
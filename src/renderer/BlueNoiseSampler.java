@@ -0,0 +1,88 @@
+package renderer;
+
+/**
+ * Sampler which shifts the same low-discrepancy set (the Halton points) in every pixel by the values of a
+ * blue-noise mask (Cranley-Patterson rotation).
+ * <p>
+ * In a blue-noise mask the values of neighbouring cells are as different as possible, so the remaining
+ * sampling error of neighbouring pixels is decorrelated into high-frequency noise, which the eye hardly
+ * notices, instead of visible blotches. The mask is a tileable square, made once by the void-and-cluster
+ * method: the cells are ranked by filling, each time, the cell farthest from the cells ranked so far. The
+ * distance is measured by the energy of a Gaussian kernel around each ranked cell.
+ * @author Ayala Houri and Shani Zegal
+ */
+public class BlueNoiseSampler implements Sampler {
+    /** Side of the (tileable) mask, a power of 2 */
+    private static final int SIZE = 64;
+    /** Standard deviation of the void-and-cluster kernel, in cells */
+    private static final double SIGMA = 1.5;
+    /** The mask values (row by row), a permutation of the ranks scaled into [0, 1) */
+    private static final double[] MASK = createMask();
+
+    /**
+     * Creates the blue-noise mask by ranking its cells from the largest void to the smallest one.
+     *
+     * @return the mask
+     */
+    private static double[] createMask() {
+        int n = SIZE * SIZE;
+        // the kernel by the toroidal offset between two cells
+        double[] kernel = new double[n];
+        for (int dy = 0; dy < SIZE; ++dy)
+            for (int dx = 0; dx < SIZE; ++dx) {
+                int y = Math.min(dy, SIZE - dy);
+                int x = Math.min(dx, SIZE - dx);
+                kernel[dy * SIZE + dx] = Math.exp(-(x * x + y * y) / (2 * SIGMA * SIGMA));
+            }
+
+        double[] mask = new double[n];
+        double[] energy = new double[n];
+        boolean[] ranked = new boolean[n];
+        int next = 0;
+        for (int rank = 0; rank < n; ++rank) {
+            ranked[next] = true;
+            mask[next] = (rank + 0.5) / n;
+            int py = next / SIZE;
+            int px = next % SIZE;
+            for (int y = 0; y < SIZE; ++y) {
+                int row = ((y - py) & (SIZE - 1)) * SIZE;
+                for (int x = 0; x < SIZE; ++x)
+                    energy[y * SIZE + x] += kernel[row + ((x - px) & (SIZE - 1))];
+            }
+            // the largest void is the cell of the lowest energy
+            double min = Double.POSITIVE_INFINITY;
+            for (int c = 0; c < n; ++c)
+                if (!ranked[c] && energy[c] < min) {
+                    min = energy[c];
+                    next = c;
+                }
+        }
+        return mask;
+    }
+
+    @Override
+    public void samples(long seed, int i, int j, double[] offsets) {
+        // the seed moves the pixels over the mask, and the vertical shift is taken from a far part of it
+        long h = PixelRandom.mix(seed);
+        int row = (int) (i + h) & (SIZE - 1);
+        int col = (int) (j + (h >>> 32)) & (SIZE - 1);
+        double shiftX = MASK[row * SIZE + col];
+        double shiftY = MASK[((row + SIZE / 2) & (SIZE - 1)) * SIZE + ((col + SIZE / 2) & (SIZE - 1))];
+        for (int k = 0; k < offsets.length / 2; ++k) {
+            offsets[2 * k] = shift(HaltonSampler.radicalInverse(2, k), shiftX);
+            offsets[2 * k + 1] = shift(HaltonSampler.radicalInverse(3, k), shiftY);
+        }
+    }
+
+    /**
+     * Shifts a position cyclically within [0, 1).
+     *
+     * @param value the position
+     * @param shift the shift
+     * @return the shifted position
+     */
+    private static double shift(double value, double shift) {
+        double result = value + shift;
+        return result >= 1 ? result - 1 : result;
+    }
+}
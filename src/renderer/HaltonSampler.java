@@ -0,0 +1,80 @@
+package renderer;
+
+/**
+ * Sampler of the low-discrepancy Halton sequence (radical inverses in bases 2 and 3), Owen-scrambled per pixel.
+ * <p>
+ * The first 2^a * 3^b points of the sequence fall one in each cell of a 2^a x 3^b grid of the pixel, and the
+ * rest are spread evenly as well, so the error of the average drops much faster than with random samples.
+ * Owen scrambling randomly permutes each digit of the radical inverse by the digits before it. It keeps this
+ * stratification, while the pixels get independent point sets instead of all sharing the same pattern.
+ * @author Ayala Houri and Shani Zegal
+ */
+public class HaltonSampler implements Sampler {
+    /** The digits are scrambled down to this resolution, far below a single sample's effect */
+    private static final double PRECISION = 0x1.0p-32;
+    /** The golden ratio increment of SplitMix64, used to spread the digit prefixes */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    /** All the permutations of a digit in base 3 */
+    private static final int[][] PERMUTATIONS_3 = {
+            { 0, 1, 2 }, { 0, 2, 1 }, { 1, 0, 2 }, { 1, 2, 0 }, { 2, 0, 1 }, { 2, 1, 0 } };
+
+    @Override
+    public void samples(long seed, int i, int j, double[] offsets) {
+        long pixel = PixelRandom.pixel(i, j);
+        long keyX = PixelRandom.bits(seed, pixel, 0, 0);
+        long keyY = PixelRandom.bits(seed, pixel, 0, 1);
+        for (int k = 0; k < offsets.length / 2; ++k) {
+            offsets[2 * k] = scrambledRadicalInverse(2, k, keyX);
+            offsets[2 * k + 1] = scrambledRadicalInverse(3, k, keyY);
+        }
+    }
+
+    /**
+     * Calculates the radical inverse of an index (its digits mirrored around the radix point) with each digit
+     * permuted by a random permutation chosen by the key and the digits before it (Owen scrambling).
+     *
+     * @param base  the base, 2 or 3
+     * @param index the index of the point in the sequence
+     * @param key   the random key of the scrambling
+     * @return the scrambled radical inverse in [0, 1)
+     */
+    static double scrambledRadicalInverse(int base, int index, long key) {
+        double invBase = 1d / base;
+        double factor = invBase;
+        double result = 0;
+        // the digits handled so far, after a leading 1 which tells the leading zeros apart
+        long prefix = 1;
+        // the digits after the last digit of the index are zeros, which are scrambled as well
+        while (factor > PRECISION) {
+            int digit = index % base;
+            index /= base;
+            long h = PixelRandom.mix(key + prefix * GOLDEN_GAMMA);
+            int permuted = base == 2
+                    ? digit ^ (int) (h & 1)
+                    : PERMUTATIONS_3[(int) Long.remainderUnsigned(h, 6)][digit];
+            result += permuted * factor;
+            prefix = prefix * base + digit;
+            factor *= invBase;
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the (not scrambled) radical inverse of an index.
+     *
+     * @param base  the base
+     * @param index the index of the point in the sequence
+     * @return the radical inverse in [0, 1)
+     */
+    static double radicalInverse(int base, int index) {
+        double invBase = 1d / base;
+        double factor = invBase;
+        double result = 0;
+        while (index > 0) {
+            result += (index % base) * factor;
+            index /= base;
+            factor *= invBase;
+        }
+        return result;
+    }
+}
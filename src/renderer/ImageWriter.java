@@ -2,6 +2,7 @@ package renderer;
 
 import primitives.Color;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
 import java.util.logging.Level;
@@ -22,6 +23,8 @@ public class ImageWriter {
 	private static final String FOLDER_PATH = System.getProperty("user.dir") + "/images";
 
 	private BufferedImage image;
+	/** Direct view of the image raster (row by row), written by pixel index */
+	private final int[] pixels;
 	private String imageName;
 	
 	private Logger logger = Logger.getLogger("ImageWriter");
@@ -39,6 +42,7 @@ public class ImageWriter {
 		this.nY = nY;
 
 		image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+		pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
 	}
 
 	// ***************** Getters/Setters ********************** //
@@ -78,14 +82,41 @@ public class ImageWriter {
 
 	/**
 	 * The function writePixel writes a color of a specific pixel into pixel color
-	 * matrix
+	 * matrix.
+	 * Each pixel is stored in its own array cell, so concurrent writes of
+	 * different pixels (e.g. by different render tiles) do not interfere
 	 * 
 	 * @param xIndex X axis index of the pixel
 	 * @param yIndex Y axis index of the pixel
 	 * @param color  final color of the pixel
 	 */
 	public void writePixel(int xIndex, int yIndex, Color color) {
-		image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+		if (xIndex < 0 || xIndex >= nX || yIndex < 0 || yIndex >= nY)
+			throw new ArrayIndexOutOfBoundsException("Pixel (" + xIndex + "," + yIndex + ") is out of the image");
+		pixels[yIndex * nX + xIndex] = color.getColor().getRGB() & 0xFFFFFF;
+	}
+
+	/**
+	 * Measures the difference of the image from a reference image (e.g. one rendered with very many rays per
+	 * pixel) by the root mean square error of the color components, on the 0..255 scale
+	 * 
+	 * @param reference the reference image writer
+	 * @return the root mean square error
+	 * @throws IllegalArgumentException if the resolutions of the images differ
+	 */
+	public double rootMeanSquareError(ImageWriter reference) {
+		if (reference.nX != nX || reference.nY != nY)
+			throw new IllegalArgumentException("The images have different resolutions");
+		double sum = 0;
+		for (int k = 0; k < pixels.length; ++k) {
+			int a = pixels[k];
+			int b = reference.pixels[k];
+			for (int shift = 0; shift <= 16; shift += 8) {
+				int d = ((a >> shift) & 0xFF) - ((b >> shift) & 0xFF);
+				sum += d * d;
+			}
+		}
+		return Math.sqrt(sum / (3d * pixels.length));
 	}
 
 	public void printGrid(int interval, Color color) {
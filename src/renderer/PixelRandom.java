@@ -0,0 +1,95 @@
+package renderer;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Counter based random numbers for sampling the pixels.
+ * <p>
+ * A random number is a hash of the render seed, the pixel, the sample index and the dimension (e.g. 0 for the
+ * horizontal offset and 1 for the vertical one), instead of the next state of a shared generator. So every
+ * pixel has its own reproducible stream: the image does not depend on the order in which the threads render
+ * the pixels, and no generator object is created or shared.
+ * The hash is the finalizer of the SplitMix64 generator (the one behind {@link java.util.SplittableRandom}).
+ * @author Ayala Houri and Shani Zegal
+ */
+final class PixelRandom {
+    /** The golden ratio increment of SplitMix64 */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Empty private constructor to hide the public one
+     */
+    private PixelRandom() {}
+
+    /**
+     * Combines the indices of a pixel into its key.
+     *
+     * @param i the row index of the pixel
+     * @param j the column index of the pixel
+     * @return the pixel key
+     */
+    static long pixel(int i, int j) {
+        return ((long) i << 32) | (j & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Mixes the bits of a 64 bit value (SplitMix64 finalizer).
+     *
+     * @param z the value to mix
+     * @return the mixed value
+     */
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Calculates the random 64 bits of a sample's dimension.
+     *
+     * @param seed      the render seed
+     * @param pixel     the pixel key (see {@link #pixel(int, int)})
+     * @param sample    the sample index within the pixel
+     * @param dimension the dimension of the sample
+     * @return the random bits
+     */
+    static long bits(long seed, long pixel, int sample, int dimension) {
+        long h = mix(seed + GOLDEN_GAMMA);
+        h = mix(h + pixel * GOLDEN_GAMMA);
+        return mix(h + (((long) sample << 8) | dimension) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Calculates the uniformly distributed random number of a sample's dimension.
+     *
+     * @param seed      the render seed
+     * @param pixel     the pixel key (see {@link #pixel(int, int)})
+     * @param sample    the sample index within the pixel
+     * @param dimension the dimension of the sample
+     * @return a random number in [0, 1)
+     */
+    static double uniform(long seed, long pixel, int sample, int dimension) {
+        return (bits(seed, pixel, sample, dimension) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Calculates a uniformly distributed random number keyed by a ray (its head and direction),
+     * for random decisions along the ray's path which must not depend on the rendering order.
+     *
+     * @param ray the ray
+     * @return a random number in [0, 1)
+     */
+    static double uniform(Ray ray) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        long h = mix(Double.doubleToLongBits(p0.getX()) + GOLDEN_GAMMA);
+        h = mix(h + Double.doubleToLongBits(p0.getY()) * GOLDEN_GAMMA);
+        h = mix(h + Double.doubleToLongBits(p0.getZ()) * GOLDEN_GAMMA);
+        h = mix(h + Double.doubleToLongBits(dir.getX()) * GOLDEN_GAMMA);
+        h = mix(h + Double.doubleToLongBits(dir.getY()) * GOLDEN_GAMMA);
+        h = mix(h + Double.doubleToLongBits(dir.getZ()) * GOLDEN_GAMMA);
+        return (h >>> 11) * 0x1.0p-53;
+    }
+}
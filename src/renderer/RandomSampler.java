@@ -0,0 +1,16 @@
+package renderer;
+
+/**
+ * Sampler of independent uniformly distributed positions (pure Monte Carlo jitter).
+ * @author Ayala Houri and Shani Zegal
+ */
+public class RandomSampler implements Sampler {
+    @Override
+    public void samples(long seed, int i, int j, double[] offsets) {
+        long pixel = PixelRandom.pixel(i, j);
+        for (int k = 0; k < offsets.length / 2; ++k) {
+            offsets[2 * k] = PixelRandom.uniform(seed, pixel, k, 0);
+            offsets[2 * k + 1] = PixelRandom.uniform(seed, pixel, k, 1);
+        }
+    }
+}
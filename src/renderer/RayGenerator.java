@@ -0,0 +1,150 @@
+package renderer;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * Generator of the primary rays of a camera for a given resolution.
+ * <p>
+ * The view plane geometry is fixed once: the direction from the camera to the center of the top left pixel and
+ * the steps of a pixel to the right and downwards, all as raw coordinates. The directions of a batch of pixels
+ * (a scanline or a tile) are then produced from the steps into a buffer of doubles, with no {@link Point} or
+ * {@link Vector} created until the ray itself. The generator is immutable, so it is shared by the render threads.
+ * @author Ayala Houri and Shani Zegal
+ */
+final class RayGenerator {
+    private final Point p0; // the head of all the rays
+    private final double nX, nY; // the resolution
+    private final double ox, oy, oz; // from the camera to the center of pixel [0,0]
+    private final double rx, ry, rz; // a pixel step to the right
+    private final double dx, dy, dz; // a pixel step downwards
+    private final double ux, uy, uz, vx, vy, vz; // unit right and up vectors
+    private final double cx, cy, cz; // from the camera to the view plane center
+
+    /**
+     * Fixes the view plane of a camera.
+     *
+     * @param p0       The camera location.
+     * @param vTo      The unit vector towards the view plane.
+     * @param vUp      The unit upwards vector.
+     * @param vRight   The unit vector to the right.
+     * @param distance The distance of the view plane.
+     * @param width    The view plane width.
+     * @param height   The view plane height.
+     * @param nX       The number of pixels in the X-axis.
+     * @param nY       The number of pixels in the Y-axis.
+     */
+    RayGenerator(Point p0, Vector vTo, Vector vUp, Vector vRight,
+                 double distance, double width, double height, double nX, double nY) {
+        this.p0 = p0;
+        this.nX = nX;
+        this.nY = nY;
+        ux = vRight.getX();
+        uy = vRight.getY();
+        uz = vRight.getZ();
+        vx = vUp.getX();
+        vy = vUp.getY();
+        vz = vUp.getZ();
+        cx = vTo.getX() * distance;
+        cy = vTo.getY() * distance;
+        cz = vTo.getZ() * distance;
+
+        double rX = width / nX;
+        double rY = height / nY;
+        rx = ux * rX;
+        ry = uy * rX;
+        rz = uz * rX;
+        dx = -vx * rY;
+        dy = -vy * rY;
+        dz = -vz * rY;
+        double left = -(nX - 1) / 2d;
+        double top = -(nY - 1) / 2d;
+        ox = cx + rx * left + dx * top;
+        oy = cy + ry * left + dy * top;
+        oz = cz + rz * left + dz * top;
+    }
+
+    /**
+     * Checks whether the generator was made for a resolution.
+     *
+     * @param nX The number of pixels in the X-axis.
+     * @param nY The number of pixels in the Y-axis.
+     * @return true if the resolution is the generator's one
+     */
+    boolean fits(double nX, double nY) {
+        return this.nX == nX && this.nY == nY;
+    }
+
+    /**
+     * Fills the directions to the centers of a block of pixels, row by row. A scanline is a block of a single row.
+     * Each pixel is stepped from the first pixel by its own row and column (with the row step hoisted out of the
+     * row's loop), so a pixel's direction is the same in whichever block it is generated, whatever the tile layout
+     * is, and the same as the ray of {@link #pixelRay(int, int, double, double)} through its center.
+     *
+     * @param startI The first row (included).
+     * @param endI   The last row (excluded).
+     * @param startJ The first column (included).
+     * @param endJ   The last column (excluded).
+     * @param dirs   The buffer, at least 3 * (endI - startI) * (endJ - startJ) long, of the x,y,z of each direction.
+     */
+    void directions(int startI, int endI, int startJ, int endJ, double[] dirs) {
+        int k = 0;
+        for (int i = startI; i < endI; ++i) {
+            double downX = dx * i, downY = dy * i, downZ = dz * i;
+            for (int j = startJ; j < endJ; ++j) {
+                dirs[k++] = ox + rx * j + downX;
+                dirs[k++] = oy + ry * j + downY;
+                dirs[k++] = oz + rz * j + downZ;
+            }
+        }
+    }
+
+    /**
+     * Constructs a ray of a batch filled by {@link #directions(int, int, int, int, double[])}.
+     *
+     * @param dirs The directions buffer.
+     * @param k    The index of the ray in the batch.
+     * @return The ray.
+     */
+    Ray ray(double[] dirs, int k) {
+        return new Ray(p0, new Vector(dirs[3 * k], dirs[3 * k + 1], dirs[3 * k + 2]));
+    }
+
+    /**
+     * Constructs the ray through a point of a pixel.
+     *
+     * @param i The row index of the pixel.
+     * @param j The column index of the pixel.
+     * @param u The horizontal position within the pixel, 0 at the left edge, 0.5 at the center.
+     * @param v The vertical position within the pixel, 0 at the top edge, 0.5 at the center.
+     * @return The ray.
+     */
+    Ray pixelRay(int i, int j, double u, double v) {
+        double s = j + u - 0.5;
+        double t = i + v - 0.5;
+        return new Ray(p0, new Vector(ox + rx * s + dx * t, oy + ry * s + dy * t, oz + rz * s + dz * t));
+    }
+
+    /**
+     * Constructs the ray through a point of the view plane.
+     *
+     * @param x The distance of the point from the view plane center to the right.
+     * @param y The distance of the point from the view plane center upwards.
+     * @return The ray.
+     */
+    Ray rayThrough(double x, double y) {
+        return new Ray(p0, new Vector(cx + ux * x + vx * y, cy + uy * x + vy * y, cz + uz * x + vz * y));
+    }
+
+    /**
+     * Calculates the center of a pixel on the view plane.
+     *
+     * @param i The row index of the pixel.
+     * @param j The column index of the pixel.
+     * @return The pixel center.
+     */
+    Point pixelCenter(int i, int j) {
+        return p0.add(new Vector(ox + rx * j + dx * i, oy + ry * j + dy * i, oz + rz * j + dz * i));
+    }
+}
@@ -1,15 +1,20 @@
 package renderer;
 
+import geometries.Geometry;
+import geometries.Intersectable.GeoPoint;
 import primitives.Color;
 import primitives.Ray;
 import scene.Scene;
 
 /**
  * an abstract class responsible for the Ray tracer
+ * <p>
+ * A tracer is shared by all the render threads of a camera, so implementations must not keep
+ * per-ray state in fields
  */
 public abstract class RayTracerBase {
 
-    protected Scene scene;
+    protected final Scene scene;
 
     /**
      *  c-tor receive scene and set him in the variable
@@ -27,5 +32,68 @@ public abstract class RayTracerBase {
      */
     public abstract Color traceRay(Ray ray);
 
+    /**
+     * Traces a packet of rays, e.g. the coherent primary rays of neighbouring pixels.
+     * The default implementation traces the rays one by one.
+     *
+     * @param rays   the rays
+     * @param count  the number of rays (the first ones of the array)
+     * @param colors the array to put the colors of the rays in
+     */
+    public void traceRays(Ray[] rays, int count, Color[] colors) {
+        for (int k = 0; k < count; ++k)
+            colors[k] = traceRay(rays[k]);
+    }
+
+    /**
+     * Traces a primary ray and also reports what the ray sees, for edge-aware antialiasing (see
+     * {@link Camera#setEdgeAntialiasing(boolean, boolean)}).
+     * The default implementation finds the closest intersection in addition to {@link #traceRay(Ray)},
+     * and reports no shadows.
+     *
+     * @param ray     the primary ray
+     * @param shadows whether to calculate the shadow mask of the seen point
+     * @return the color and the seen geometry
+     */
+    public PrimaryHit tracePrimaryRay(Ray ray, boolean shadows) {
+        GeoPoint gp = scene.getGeometries().findClosestIntersection(ray);
+        return new PrimaryHit(traceRay(ray), gp == null ? null : gp.geometry, 0);
+    }
 
+    /**
+     * The result of tracing a primary ray: its color, the geometry seen by the ray and which lights are
+     * blocked at the seen point
+     */
+    public static class PrimaryHit {
+        /** the color of the ray */
+        public final Color color;
+        /** the closest geometry hit by the ray, null for the background */
+        public final Geometry geometry;
+        /** bit k is set when the k-th light of the scene does not light the seen point (lights beyond 64 are ignored) */
+        public final long shadowMask;
+
+        /**
+         * Constructs the result of a primary ray
+         *
+         * @param color      the color of the ray
+         * @param geometry   the closest geometry hit by the ray, null for the background
+         * @param shadowMask the blocked lights bits
+         */
+        public PrimaryHit(Color color, Geometry geometry, long shadowMask) {
+            this.color = color;
+            this.geometry = geometry;
+            this.shadowMask = shadowMask;
+        }
+
+        /**
+         * Checks whether another primary ray sees the same surface in the same lighting, so that no edge
+         * passes between the two rays
+         *
+         * @param other the other ray's result
+         * @return true if the two rays see the same geometry with the same shadow mask
+         */
+        public boolean sameSurface(PrimaryHit other) {
+            return geometry == other.geometry && shadowMask == other.shadowMask;
+        }
+    }
 }
@@ -1,70 +1,123 @@
 package renderer;
 import geometries.Intersectable.GeoPoint;
+import geometries.RayPacket;
 import lighting.LightSource;
 import primitives.*;
 import scene.Scene;
 import primitives.Material;
 
-import java.util.List;
+import java.util.Arrays;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
 /**
  * implementation of RayTracerBase class
+ * <p>
+ * The tracer holds no mutable state besides the (read-only while rendering) scene, so it is thread-safe
  */
 public class RayTracerBasic extends RayTracerBase {
 
     private static final double EPS = 0.1;
     private static final double MIN_CALC_COLOR_K = 0.001;
     private static final int MAX_CALC_COLOR_LEVEL = 10;
-    private static final Double3 INITIAL_K = Double3.ONE;
+    /** Luminance weights of the r,g,b components (Rec. 709) */
+    private static final double LUMA_R = 0.2126, LUMA_G = 0.7152, LUMA_B = 0.0722;
+    /** The ray tracing work of each render thread */
+    private static final ThreadLocal<ShadingStack> STACKS = ThreadLocal.withInitial(ShadingStack::new);
 
 
+    private int rouletteDepth = 0; // the depth from which Russian roulette terminates rays, 0 when it is off
+
     public RayTracerBasic(Scene scene) {
         super(scene);
     }
 
+    /**
+     * Turns on Russian roulette termination of the secondary rays. From the given depth (number of bounces)
+     * on, a secondary ray survives with the probability of its weight's luminance (the fraction of its color
+     * which gets to the pixel), and the weight of a survivor is divided by that probability. So the expected
+     * color is unchanged, while the rays which hardly affect the pixel are rarely traced.
+     * The random decisions are keyed by the rays, so the image does not depend on the rendering order.
+     *
+     * @param depth the first depth at which rays may be terminated (at least 1), 0 to turn the roulette off
+     * @return the ray tracer
+     * @throws IllegalArgumentException if the depth is negative
+     */
+    public RayTracerBasic setRussianRoulette(int depth) {
+        if (depth < 0)
+            throw new IllegalArgumentException("Russian roulette depth must not be negative");
+        this.rouletteDepth = depth;
+        return this;
+    }
+
 
     @Override
     public Color traceRay(Ray ray) {
 
-        if (scene.geometries.findGeoIntersections(ray) == null)
-            return scene.background;
+        GeoPoint p = findClosestIntersection(ray);
+        return p == null ? scene.background : calcColor(p, ray);
+    }
 
-        GeoPoint p = ray.getClosestGeoPoint(scene.geometries.findGeoIntersections(ray));
+    /**
+     * Traces a packet of rays: the closest intersections of all the rays are found by a single packet query,
+     * which tests the boxes of the scene once for the whole packet, and then each ray is shaded.
+     *
+     * @param rays   the rays
+     * @param count  the number of rays (the first ones of the array)
+     * @param colors the array to put the colors of the rays in
+     */
+    @Override
+    public void traceRays(Ray[] rays, int count, Color[] colors) {
+        for (int from = 0; from < count; from += RayPacket.MAX_SIZE) {
+            int size = Math.min(RayPacket.MAX_SIZE, count - from);
+            Ray[] packetRays = from == 0 ? rays : Arrays.copyOfRange(rays, from, from + size);
+            RayPacket packet = new RayPacket(packetRays, size);
+            scene.getGeometries().findClosestIntersections(packet);
+            for (int k = 0; k < size; ++k) {
+                GeoPoint p = packet.getClosest(k);
+                colors[from + k] = p == null ? scene.background : calcColor(p, packetRays[k]);
+            }
+        }
+    }
 
-        return calcColor(p, ray);
+    /**
+     * Traces a primary ray with a single closest intersection query for both the color and the seen geometry.
+     *
+     * @param ray     the primary ray
+     * @param shadows whether to calculate the shadow mask of the seen point
+     * @return the color, the seen geometry and its shadow mask
+     */
+    @Override
+    public PrimaryHit tracePrimaryRay(Ray ray, boolean shadows) {
+        GeoPoint p = findClosestIntersection(ray);
+        if (p == null) return new PrimaryHit(scene.background, null, 0);
+        return new PrimaryHit(calcColor(p, ray), p.geometry, shadows ? shadowMask(p, ray) : 0);
     }
+
     /**
-     * Calculates the color of a point in a 3D scene considering global effects such as reflection and transparency.
+     * Calculates which lights do not light a point: the lights behind the surface and the lights whose
+     * way to the point is blocked by (almost) opaque objects.
      *
-     * @param gp        The GeoPoint representing the point in 3D space.
-     * @param material  The Material object representing the material properties of the surface at the given point.
-     * @param n         The surface normal at the given point.
-     * @param v         The view direction.
-     * @param nv        The dot product of n and v.
-     * @param level     The recursion level for calculating global effects.
-     * @param k         The attenuation factor for global effects.
-     * @return The calculated color at the given point.
+     * @param gp  the point with its geometry
+     * @param ray the ray which hit the point
+     * @return bit k is set when the k-th light of the scene does not light the point (up to 64 lights)
      */
-    private Color calcGlobalEffects(GeoPoint gp, Material material, Vector n, Vector v, double nv, int level, Double3 k) {
-        Color color = Color.BLACK;
-        // kkr - reflection
-        Double3 kkr = material.getKr().product(k);
-        if (!kkr.lowerThan(MIN_CALC_COLOR_K)) {
-            color = color.add(
-                    calcGlobalEffect(constructReflectedRay(gp.point, v, n), level - 1, material.getKr(), kkr).scale(material.getKr()));
-        }
-        // kkt - transparency
-        Double3 kkt = material.getKt().product(k);
-        if (!kkt.lowerThan(MIN_CALC_COLOR_K)) {
-            color = color.add(
-                    calcGlobalEffect(constructRefractedRay(gp.point, v, n), level - 1, material.getKt(), kkt).scale(material.getKt()));
+    private long shadowMask(GeoPoint gp, Ray ray) {
+        Vector n = gp.getNormal();
+        double nv = alignZero(n.dotProduct(ray.getDir()));
+        long mask = 0;
+        int bit = 0;
+        for (LightSource lightSource : scene.getLights()) {
+            if (bit == Long.SIZE) break;
+            Vector l = lightSource.getL(gp.getPoint());
+            double nl = alignZero(n.dotProduct(l));
+            if (nl * nv <= 0 || transparency(lightSource, l, n, gp).lowerThan(MIN_CALC_COLOR_K))
+                mask |= 1L << bit;
+            ++bit;
         }
-        return color;
+        return mask;
     }
-
     /**
      * Constructs a refracted ray based on the given parameters.
      *
@@ -99,53 +152,131 @@ public class RayTracerBasic extends RayTracerBase {
 
 
     /**
-     * Calculates the global effect (reflection or refraction) for a given ray and level of recursion.
+     * Calculates the color at a given intersection point in the scene, including the reflected and refracted
+     * rays' colors.
+     * <p>
+     * The tree of secondary rays is traced iteratively: instead of recursing, each reflected or refracted ray
+     * is pushed with its weight and attenuation factor to the calling thread's {@link ShadingStack}, and the
+     * weighted colors are summed into its accumulator. A secondary ray's color is weighted twice by the
+     * material coefficient and is traced two levels down, as the reflected and refracted colors have always
+     * been calculated here.
      *
-     * @param ray   The ray for which to calculate the global effect.
-     * @param level The recursion level for calculating the global effect.
-     * @param kx    The attenuation factor for the global effect.
-     * @param kkx   The product of the material reflection or transmission coefficient and the attenuation factor.
-     * @return The calculated color for the global effect.
+     * @param geopoint The intersection point in the scene.
+     * @param ray      The ray that intersected the point.
+     * @return The calculated color at the intersection point.
      */
-    private Color calcGlobalEffect(Ray ray, int level, Double3 kx, Double3 kkx) {
-        GeoPoint gp = findClosestIntersection(ray);
-        return (gp == null ? scene.getBackground() : calcColor(gp, ray, level - 1, kkx)).scale(kx);
+    private Color calcColor(GeoPoint geopoint, Ray ray) {
+        ShadingStack stack = STACKS.get();
+        stack.clear();
+        shade(stack, geopoint, ray, MAX_CALC_COLOR_LEVEL, 1, 1, 1, 1, 1, 1);
+        while (!stack.isEmpty()) {
+            Ray secondary = stack.pop();
+            int level = stack.level();
+            double wr = stack.factor(0), wg = stack.factor(1), wb = stack.factor(2);
+            double kr = stack.factor(3), kg = stack.factor(4), kb = stack.factor(5);
+            GeoPoint gp = findClosestIntersection(secondary);
+            if (gp == null)
+                stack.accumulate(scene.getBackground(), wr, wg, wb);
+            else
+                shade(stack, gp, secondary, level, wr, wg, wb, kr, kg, kb);
+        }
+        return stack.color().add(scene.getAmbientLight().getIntensity());
     }
 
-
     /**
-     * calculate the color on specific point on the object
+     * Adds the local color of a point to the accumulated color, and pushes its reflected and refracted rays
+     * whose contribution is not negligible.
      *
-     * @param geoPoint The object with the closest intersection point with the object
-     * @param ray      The intersect ray
-     * @return The color on the point
+     * @param stack the ray tracing work of the calling thread
+     * @param gp    the point with its geometry
+     * @param ray   the ray which hit the point
+     * @param level the recursion level of the ray, no secondary rays below level 2
+     * @param wr    the red weight of the ray's color
+     * @param wg    the green weight of the ray's color
+     * @param wb    the blue weight of the ray's color
+     * @param kr    the red attenuation factor of the ray
+     * @param kg    the green attenuation factor of the ray
+     * @param kb    the blue attenuation factor of the ray
      */
-    private Color calcColor(GeoPoint geoPoint, Ray ray, int level, Double3 k) {
+    private void shade(ShadingStack stack, GeoPoint gp, Ray ray, int level,
+                       double wr, double wg, double wb, double kr, double kg, double kb) {
         Vector v = ray.getDir();
-        Vector n = geoPoint.geometry.getNormal(geoPoint.point);
+        Vector n = gp.getNormal();
 
         // check that ray is not parallel to geometry
         double nv = alignZero(n.dotProduct(v));
 
+        Material material = gp.geometry.getMaterial();
+        stack.accumulate(calcLocalEffects(gp, material, n, v, nv, kr, kg, kb), wr, wg, wb);
+        if (level < 2 || depth(level) >= material.getMaxDepth()) return;
 
-        Material material = geoPoint.geometry.getMaterial();
-        Color color = calcLocalEffects(geoPoint, material, n, v, nv, k);
-        return 1 == level ? color : color.add(calcGlobalEffects(geoPoint, material,n,v,nv, level, k));
+        // kkr - reflection
+        Double3 kR = material.getKr();
+        double kkr = kR.getD1() * kr, kkg = kR.getD2() * kg, kkb = kR.getD3() * kb;
+        if (!negligible(kkr, kkg, kkb)) {
+            Ray reflected = constructReflectedRay(gp.getPoint(), v, n);
+            if (reflected != null)
+                push(stack, reflected, level - 2,
+                        wr * kR.getD1() * kR.getD1(), wg * kR.getD2() * kR.getD2(), wb * kR.getD3() * kR.getD3(),
+                        kkr, kkg, kkb);
+        }
+        // kkt - transparency
+        Double3 kT = material.getKt();
+        kkr = kT.getD1() * kr;
+        kkg = kT.getD2() * kg;
+        kkb = kT.getD3() * kb;
+        if (!negligible(kkr, kkg, kkb))
+            push(stack, constructRefractedRay(gp.getPoint(), v, n), level - 2,
+                    wr * kT.getD1() * kT.getD1(), wg * kT.getD2() * kT.getD2(), wb * kT.getD3() * kT.getD3(),
+                    kkr, kkg, kkb);
     }
 
+    /**
+     * Pushes a secondary ray to trace, unless it is terminated by the Russian roulette.
+     *
+     * @param stack the ray tracing work of the calling thread
+     * @param ray   the secondary ray
+     * @param level the recursion level of the ray
+     * @param wr    the red weight of the ray's color
+     * @param wg    the green weight of the ray's color
+     * @param wb    the blue weight of the ray's color
+     * @param kr    the red attenuation factor of the ray
+     * @param kg    the green attenuation factor of the ray
+     * @param kb    the blue attenuation factor of the ray
+     */
+    private void push(ShadingStack stack, Ray ray, int level,
+                      double wr, double wg, double wb, double kr, double kg, double kb) {
+        if (rouletteDepth > 0 && depth(level) >= rouletteDepth) {
+            double survival = Math.min(1, LUMA_R * wr + LUMA_G * wg + LUMA_B * wb);
+            if (PixelRandom.uniform(ray) >= survival) return;
+            wr /= survival;
+            wg /= survival;
+            wb /= survival;
+        }
+        stack.push(ray, level, wr, wg, wb, kr, kg, kb);
+    }
 
     /**
-     * Calculates the color at a given intersection point in the scene.
+     * Calculates the number of bounces of a ray by its recursion level.
      *
-     * @param geopoint The intersection point in the scene.
-     * @param ray      The ray that intersected the point.
-     * @return The calculated color at the intersection point.
+     * @param level the recursion level
+     * @return the depth, 0 for the camera rays
      */
-    private Color calcColor(GeoPoint geopoint, Ray ray) {
-        return calcColor(geopoint, ray, MAX_CALC_COLOR_LEVEL, INITIAL_K)
-                .add(scene.getAmbientLight().getIntensity());
+    private static int depth(int level) {
+        return (MAX_CALC_COLOR_LEVEL - level) / 2;
     }
 
+    /**
+     * Checks whether an attenuation factor is too small for its ray to affect the color.
+     *
+     * @param kr the red factor
+     * @param kg the green factor
+     * @param kb the blue factor
+     * @return true if all the components are below {@link #MIN_CALC_COLOR_K}
+     */
+    private static boolean negligible(double kr, double kg, double kb) {
+        return kr < MIN_CALC_COLOR_K && kg < MIN_CALC_COLOR_K && kb < MIN_CALC_COLOR_K;
+    }
 
     /**
      * Calculates the diffusive component of the shading for a given diffuse reflection coefficient, dot product of
@@ -175,8 +306,10 @@ public class RayTracerBasic extends RayTracerBase {
      * @return
      */
     private Double3 calcSpecular(Double3 kS, Vector n, Vector l, double nl,Vector v,int shininess,Color intensity) {
-        Vector r = l.add(n.scale(-2 * nl)); // nl must not be zero!
-        double minusVR = -alignZero(r.dotProduct(v));
+        // r = l - 2 * nl * n, calculated on raw coordinates
+        double s = -2 * nl; // nl must not be zero!
+        double minusVR = -alignZero(VectorMath.dot(v.getX(), v.getY(), v.getZ(),
+                l.getX() + n.getX() * s, l.getY() + n.getY() * s, l.getZ() + n.getZ() * s));
         if (minusVR <= 0)
             return new Double3(0);
         Double3 amount =kS.scale(Math.pow(minusVR, shininess));
@@ -197,27 +330,12 @@ public class RayTracerBasic extends RayTracerBase {
     private Double3 transparency(LightSource lightSource, Vector l, Vector n, GeoPoint gp) {
         // Pay attention to your method of distance screening
         Vector lightDirection = l.scale(-1); // from point to light source
-        Point point = gp.point;
+        Point point = gp.getPoint();
         Ray lightRay = new Ray(point, n, lightDirection);
 
         double maxdistance = lightSource.getDistance(point);
-        List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(lightRay, maxdistance);
-
-        if (intersections == null)
-            return Double3.ONE;
-
-        Double3 ktr = Double3.ONE;
-//        loop over intersections and for each intersection which is closer to the
-//        point than the light source multiply ktr by 𝒌𝑻 of its geometry.
-//        Performance:
-//        if you get close to 0 –it’s time to get out( return 0)
-        for (var geo : intersections) {
-            ktr = ktr.product(geo.geometry.getMaterial().getKt());
-            if (ktr.lowerThan(MIN_CALC_COLOR_K)) {
-                return Double3.ZERO;
-            }
-        }
-        return ktr;
+        // stops on the first opaque object or when the product gets close to 0
+        return scene.getGeometries().findTransparency(lightRay, maxdistance, MIN_CALC_COLOR_K);
     }
 
     /**
@@ -226,20 +344,24 @@ public class RayTracerBasic extends RayTracerBase {
      *
      * @param gp  geopoint of the intersection
      * @param v ray direction
+     * @param kr the red attenuation factor of the ray
+     * @param kg the green attenuation factor of the ray
+     * @param kb the blue attenuation factor of the ray
      * @return resulting color with diffuse and specular
      * @author Eliezer Ginsburger
      */
-    private Color calcLocalEffects(GeoPoint gp, Material material, Vector n, Vector v, double nv, Double3 k) {
+    private Color calcLocalEffects(GeoPoint gp, Material material, Vector n, Vector v, double nv,
+                                   double kr, double kg, double kb) {
         Color color = gp.geometry.getEmission();
 
-        Point point = gp.point;
+        Point point = gp.getPoint();
 
         for (LightSource lightSource : scene.getLights()) {
             Vector l = lightSource.getL(point);
             double nl = alignZero(n.dotProduct(l));
             if (nl * nv > 0) { // sign(nl) == sign(nv)
                 Double3 ktr = transparency(lightSource, l, n, gp);
-                if (!ktr.product(k).lowerThan(MIN_CALC_COLOR_K)) {
+                if (!negligible(ktr.getD1() * kr, ktr.getD2() * kg, ktr.getD3() * kb)) {
                     Color iL = lightSource.getIntensity(point).scale(ktr);
                     color = color.add(
                             iL.scale(calcDiffusive(material.getKd(), nl,iL)),
@@ -257,11 +379,7 @@ public class RayTracerBasic extends RayTracerBase {
      * @return The closest intersection point, or null if no intersection is found.
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        List<GeoPoint> intersections = scene.getGeometries().findGeoIntersections(ray);
-        if (intersections == null) {
-            return null;
-        }
-        return ray.findClosestGeoPoint(intersections);
+        return scene.getGeometries().findClosestIntersection(ray);
     }
 
 
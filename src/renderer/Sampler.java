@@ -0,0 +1,23 @@
+package renderer;
+
+/**
+ * The Sampler interface generates the positions of the rays of a pixel within the pixel.
+ * <p>
+ * The positions must depend only on the seed, the pixel and the number of samples, so a render is reproducible
+ * whatever the order of rendering the pixels is. Samplers hold no per-render state and may be shared by all the
+ * rendering threads.
+ * @author Ayala Houri and Shani Zegal
+ */
+public interface Sampler {
+    /**
+     * Generates the positions of the samples of a pixel.
+     *
+     * @param seed    the render seed
+     * @param i       the row index of the pixel
+     * @param j       the column index of the pixel
+     * @param offsets receives the positions of the samples (the number of samples is half of its length): the
+     *                pair offsets[2k], offsets[2k+1] are the fractions of the pixel width to the right and of the
+     *                pixel height downwards of the k-th sample, both in [0, 1)
+     */
+    void samples(long seed, int i, int j, double[] offsets);
+}
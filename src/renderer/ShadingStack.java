@@ -0,0 +1,128 @@
+package renderer;
+
+import primitives.Color;
+import primitives.Ray;
+
+import java.util.Arrays;
+
+/**
+ * The work of the iterative ray tracing of a single primary ray: a stack of the secondary rays still to be
+ * traced, and the accumulated color of the rays already traced.
+ * <p>
+ * Each ray is kept with its recursion level, its weight (the product of the coefficients along its path, by
+ * which its color contributes to the pixel) and its attenuation factor k (by which its contribution is
+ * tested against the minimal one), all in primitive arrays which grow on demand and are reused from one
+ * primary ray to the next. A stack is not thread-safe: every render thread uses its own one.
+ * @author Ayala Houri and Shani Zegal
+ */
+final class ShadingStack {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Ray[] rays = new Ray[INITIAL_CAPACITY];
+    private int[] levels = new int[INITIAL_CAPACITY];
+    private double[] factors = new double[6 * INITIAL_CAPACITY]; // weight r,g,b and k r,g,b of each ray
+    private int size = 0;
+    private double r, g, b; // the accumulated color
+
+    /**
+     * Empties the stack and resets the accumulated color to black.
+     */
+    void clear() {
+        for (int i = 0; i < size; ++i) rays[i] = null;
+        size = 0;
+        r = g = b = 0;
+    }
+
+    /**
+     * Checks whether there are no rays to trace.
+     *
+     * @return true if the stack is empty
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Pushes a ray to trace.
+     *
+     * @param ray   the ray
+     * @param level the recursion level of the ray
+     * @param wr    the red weight of the ray's color
+     * @param wg    the green weight of the ray's color
+     * @param wb    the blue weight of the ray's color
+     * @param kr    the red attenuation factor
+     * @param kg    the green attenuation factor
+     * @param kb    the blue attenuation factor
+     */
+    void push(Ray ray, int level, double wr, double wg, double wb, double kr, double kg, double kb) {
+        if (size == rays.length) {
+            rays = Arrays.copyOf(rays, 2 * size);
+            levels = Arrays.copyOf(levels, 2 * size);
+            factors = Arrays.copyOf(factors, 12 * size);
+        }
+        rays[size] = ray;
+        levels[size] = level;
+        int f = 6 * size;
+        factors[f] = wr;
+        factors[f + 1] = wg;
+        factors[f + 2] = wb;
+        factors[f + 3] = kr;
+        factors[f + 4] = kg;
+        factors[f + 5] = kb;
+        ++size;
+    }
+
+    /**
+     * Removes the top ray. Its level and factors remain readable by {@link #level()} and
+     * {@link #factor(int)} until the next push.
+     *
+     * @return the removed ray
+     */
+    Ray pop() {
+        Ray ray = rays[--size];
+        rays[size] = null;
+        return ray;
+    }
+
+    /**
+     * Returns the level of the last popped ray.
+     *
+     * @return the level
+     */
+    int level() {
+        return levels[size];
+    }
+
+    /**
+     * Returns a factor of the last popped ray.
+     *
+     * @param index 0..2 for the weight r,g,b, 3..5 for the attenuation factor r,g,b
+     * @return the factor
+     */
+    double factor(int index) {
+        return factors[6 * size + index];
+    }
+
+    /**
+     * Adds a weighted color to the accumulated color.
+     *
+     * @param color the color
+     * @param wr    the red weight
+     * @param wg    the green weight
+     * @param wb    the blue weight
+     */
+    void accumulate(Color color, double wr, double wg, double wb) {
+        r += color.getR() * wr;
+        g += color.getG() * wg;
+        b += color.getB() * wb;
+    }
+
+    /**
+     * Returns the accumulated color.
+     *
+     * @return the color
+     */
+    Color color() {
+        return new Color(r, g, b);
+    }
+}
@@ -0,0 +1,34 @@
+package renderer;
+
+/**
+ * Sampler of jittered strata: the pixel is divided into as many cells of equal area as there are samples, and
+ * each sample is a random position in its own cell.
+ * <p>
+ * For n samples there are floor(sqrt(n)) rows of cells. When n is not a square, some rows have one more cell
+ * than the others, and the heights of the rows are proportional to the numbers of their cells, so all the cells
+ * still have the same area and the average stays unbiased.
+ * @author Ayala Houri and Shani Zegal
+ */
+public class StratifiedSampler implements Sampler {
+    @Override
+    public void samples(long seed, int i, int j, double[] offsets) {
+        long pixel = PixelRandom.pixel(i, j);
+        int count = offsets.length / 2;
+        if (count == 0) return;
+        int rows = (int) Math.sqrt(count);
+        int base = count / rows;
+        int extra = count % rows;
+
+        int k = 0;
+        double top = 0;
+        for (int row = 0; row < rows; ++row) {
+            int cells = row < extra ? base + 1 : base;
+            double rowHeight = (double) cells / count;
+            for (int cell = 0; cell < cells; ++cell, ++k) {
+                offsets[2 * k] = (cell + PixelRandom.uniform(seed, pixel, k, 0)) / cells;
+                offsets[2 * k + 1] = Math.min(top + PixelRandom.uniform(seed, pixel, k, 1) * rowHeight, Math.nextDown(1d));
+            }
+            top += rowHeight;
+        }
+    }
+}
@@ -0,0 +1,620 @@
+package scene;
+
+import geometries.TriangleMesh;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loader of Wavefront OBJ models into a {@link TriangleMesh}.
+ * <p>
+ * The file is streamed through a fixed buffer from a file channel and parsed byte by byte: numbers are
+ * converted straight from the bytes (exactly, as {@link Double#parseDouble(String)} does, with no string
+ * created for numbers of up to 18 significant digits), and the vertices and the faces are appended to growing
+ * primitive arrays which become the mesh's own. So files of any size are loaded at a small constant cost per byte and with
+ * no object per vertex or face.
+ * <p>
+ * The vertices ({@code v}), the vertex normals ({@code vn}) and the faces ({@code f}) are read; faces of more
+ * than three vertices are split into a fan of triangles, and negative (relative) indices are supported.
+ * Texture coordinates, groups, materials and the other statements are skipped. The normals of the faces'
+ * vertices become the mesh's vertex normals - a vertex referred to with different normals is duplicated. The
+ * duplicates are kept apart and appended after all the file's vertices, so the faces' indices keep referring
+ * to the {@code v} statements also after a duplication.
+ * After each load the throughput is logged and kept ({@link #getMegabytesPerSecond()},
+ * {@link #getTrianglesPerSecond()}).
+ * @author Ayala Houri and Shani Zegal
+ */
+public class ObjLoader {
+    /** Size of the read buffer */
+    private static final int BUFFER_SIZE = 1 << 20;
+    /** The powers of 10 which are exact doubles, for the exact conversion of short numbers */
+    private static final double[] POWERS_OF_10 = new double[23];
+    /** The decimal exponents beyond which every number of up to 19 digits is 0 or infinite */
+    private static final int MIN_EXPONENT = -342, MAX_EXPONENT = 308;
+    /**
+     * The 128 most significant bits of the powers of 5 from 5^-342 to 5^308 (high and low halves), for the
+     * conversion of the other numbers
+     */
+    private static final long[] POWERS_OF_5 = new long[2 * (MAX_EXPONENT - MIN_EXPONENT + 1)];
+
+    static {
+        POWERS_OF_10[0] = 1;
+        for (int i = 1; i < POWERS_OF_10.length; ++i)
+            POWERS_OF_10[i] = POWERS_OF_10[i - 1] * 10;
+
+        // the positive powers are truncated, the negative ones are rounded up (as the Eisel-Lemire algorithm
+        // expects), and the far negative ones are truncated after the rounding up
+        for (int q = MIN_EXPONENT; q <= MAX_EXPONENT; ++q) {
+            BigInteger power = BigInteger.valueOf(5).pow(Math.abs(q)), bits;
+            if (q >= 0) bits = power.shiftLeft(Math.max(0, 128 - power.bitLength()));
+            else {
+                int z = power.bitLength();
+                bits = BigInteger.ONE.shiftLeft(q >= -27 ? z + 127 : 2 * z + 128).divide(power).add(BigInteger.ONE);
+            }
+            bits = bits.shiftRight(Math.max(0, bits.bitLength() - 128));
+            POWERS_OF_5[2 * (q - MIN_EXPONENT)] = bits.shiftRight(64).longValue();
+            POWERS_OF_5[2 * (q - MIN_EXPONENT) + 1] = bits.longValue();
+        }
+    }
+
+    private final Logger logger = Logger.getLogger("ObjLoader");
+
+    // the input
+    private ReadableByteChannel channel;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position, limit;
+    private long bytes;
+    private int line;
+    /** A byte read ahead and given back, -2 for none */
+    private int pending = -2;
+    /** The current token */
+    private final byte[] token = new byte[64];
+    private int tokenLength;
+    /** The last parsed integer */
+    private int integer;
+
+    // the model
+    private double[] vertices;
+    private int vertexCount;
+    private float[] normals;
+    private int normalCount;
+    private int[] indices;
+    private int indexCount;
+    /** The normal index each vertex was referred to with, -1 for none yet */
+    private int[] vertexNormals;
+    /** The duplicates of the vertices referred to with a second normal, by vertex and normal index */
+    private Map<Long, Integer> duplicates;
+    /** The vertex and the normal index of each duplicate, in pairs */
+    private int[] duplicateVertices;
+    private int duplicateCount;
+    /** Whether any face vertex has a normal */
+    private boolean smooth;
+
+    // the statistics of the last load
+    private long loadedBytes;
+    private int loadedTriangles;
+    private long nanos;
+
+    /**
+     * Loads a model from an OBJ file.
+     *
+     * @param path the file
+     * @return the mesh of the model's faces
+     * @throws IllegalArgumentException if the file is malformed or has no face
+     * @throws IllegalStateException    on an I/O error
+     */
+    public TriangleMesh load(Path path) {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            return load(file, path.toString());
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - can't read " + path, e);
+        }
+    }
+
+    /**
+     * Loads a model from an OBJ stream.
+     *
+     * @param channel the stream (not closed)
+     * @param name    the name of the stream, for the log
+     * @return the mesh of the model's faces
+     * @throws IOException              on an I/O error
+     * @throws IllegalArgumentException if the stream is malformed or has no face
+     */
+    TriangleMesh load(ReadableByteChannel channel, String name) throws IOException {
+        long start = System.nanoTime();
+        this.channel = channel;
+        position = limit = 0;
+        bytes = 0;
+        line = 1;
+        pending = -2;
+        vertices = new double[3 * 1024];
+        vertexCount = 0;
+        normals = new float[3 * 1024];
+        normalCount = 0;
+        indices = new int[3 * 1024];
+        indexCount = 0;
+        vertexNormals = new int[1024];
+        duplicates = new HashMap<>();
+        duplicateVertices = new int[2 * 1024];
+        duplicateCount = 0;
+        smooth = false;
+        try {
+            parse();
+            // the duplicates follow the file's vertices, and the faces refer to them by negative indices
+            int total = vertexCount + duplicateCount;
+            double[] meshVertices = Arrays.copyOf(vertices, 3 * total);
+            for (int d = 0; d < duplicateCount; ++d)
+                System.arraycopy(vertices, 3 * duplicateVertices[2 * d], meshVertices, 3 * (vertexCount + d), 3);
+            if (duplicateCount > 0)
+                for (int k = 0; k < indexCount; ++k)
+                    if (indices[k] < 0) indices[k] = vertexCount - 1 - indices[k];
+            float[] meshNormals = null;
+            if (smooth) {
+                meshNormals = new float[3 * total];
+                for (int v = 0; v < total; ++v) {
+                    int normal = v < vertexCount ? vertexNormals[v] : duplicateVertices[2 * (v - vertexCount) + 1];
+                    if (normal >= 0)
+                        System.arraycopy(normals, 3 * normal, meshNormals, 3 * v, 3);
+                }
+            }
+            TriangleMesh mesh = new TriangleMesh(meshVertices, Arrays.copyOf(indices, indexCount), meshNormals);
+
+            nanos = System.nanoTime() - start;
+            loadedBytes = bytes;
+            loadedTriangles = mesh.getTriangleCount();
+            logger.info(String.format("Loaded %s: %d triangles, %.1f MB in %.2f s (%.1f MB/s, %.0f triangles/s)",
+                    name, loadedTriangles, bytes / 1e6, nanos / 1e9, getMegabytesPerSecond(), getTrianglesPerSecond()));
+            return mesh;
+        } finally {
+            // drop the working arrays, which may be huge
+            this.channel = null;
+            vertices = null;
+            normals = null;
+            indices = null;
+            vertexNormals = null;
+            duplicates = null;
+            duplicateVertices = null;
+        }
+    }
+
+    /**
+     * Returns the reading rate of the last load.
+     *
+     * @return the loaded megabytes (10^6 bytes) per second
+     */
+    public double getMegabytesPerSecond() {
+        return loadedBytes / 1e6 / (nanos / 1e9);
+    }
+
+    /**
+     * Returns the triangles rate of the last load.
+     *
+     * @return the loaded triangles per second
+     */
+    public double getTrianglesPerSecond() {
+        return loadedTriangles / (nanos / 1e9);
+    }
+
+    /**
+     * Parses the statements of the stream.
+     *
+     * @throws IOException on an I/O error
+     */
+    private void parse() throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            while (c == ' ' || c == '\t') c = read(); // an indented statement
+            if (c == 'v') {
+                c = read();
+                if (keywordEnd(c)) vertex();
+                else if (c == 'n' && keywordEnd(c = read())) normal();
+                else skipLine(c);
+            } else if (c == 'f') {
+                c = read();
+                if (keywordEnd(c)) face();
+                else skipLine(c);
+            } else skipLine(c);
+        }
+    }
+
+    /**
+     * Checks whether a byte ends a statement's keyword, giving back a line end for the statement to find.
+     *
+     * @param c the byte after the keyword
+     * @return true if the keyword ends
+     */
+    private boolean keywordEnd(int c) {
+        if (!isSpace(c)) return false;
+        if (c != ' ' && c != '\t') pending = c;
+        return true;
+    }
+
+    /**
+     * Reads a vertex statement (after its keyword). A 4th coordinate and vertex colors are skipped.
+     *
+     * @throws IOException on an I/O error
+     */
+    private void vertex() throws IOException {
+        if (3 * vertexCount + 3 > vertices.length) {
+            vertices = Arrays.copyOf(vertices, grow(vertices.length));
+            vertexNormals = Arrays.copyOf(vertexNormals, vertices.length / 3);
+        }
+        for (int i = 0; i < 3; ++i)
+            vertices[3 * vertexCount + i] = number();
+        vertexNormals[vertexCount++] = -1;
+        skipLine(read());
+    }
+
+    /**
+     * Reads a vertex normal statement (after its keyword).
+     *
+     * @throws IOException on an I/O error
+     */
+    private void normal() throws IOException {
+        if (3 * normalCount + 3 > normals.length)
+            normals = Arrays.copyOf(normals, grow(normals.length));
+        for (int i = 0; i < 3; ++i)
+            normals[3 * normalCount + i] = (float) number();
+        ++normalCount;
+        skipLine(read());
+    }
+
+    /**
+     * Reads a face statement (after its keyword) and appends the fan of its triangles.
+     *
+     * @throws IOException on an I/O error
+     */
+    private void face() throws IOException {
+        int first = -1, previous = -1, count = 0;
+        while (nextToken()) {
+            int vertex = faceVertex();
+            if (count >= 2) {
+                if (indexCount + 3 > indices.length)
+                    indices = Arrays.copyOf(indices, grow(indices.length));
+                indices[indexCount++] = first;
+                indices[indexCount++] = previous;
+                indices[indexCount++] = vertex;
+            }
+            if (count++ == 0) first = vertex;
+            previous = vertex;
+        }
+        if (count < 3)
+            throw error("A face must have 3 vertices at least");
+    }
+
+    /**
+     * Parses a vertex of a face from the current token: {@code v}, {@code v/vt}, {@code v/vt/vn} or
+     * {@code v//vn}.
+     *
+     * @return the index (0 based) of the file's vertex, or -1 - the number of its duplicate
+     */
+    private int faceVertex() {
+        int i = integer(0);
+        int vertex = resolve(integer, vertexCount, "vertex");
+        int normal = 0;
+        if (i < tokenLength && token[i] == '/') {
+            ++i;
+            if (i < tokenLength && token[i] != '/')
+                i = integer(i); // the texture coordinates are not used
+            if (i < tokenLength && token[i] == '/') {
+                i = integer(i + 1);
+                normal = resolve(integer, normalCount, "normal") + 1;
+            }
+        }
+        if (i != tokenLength)
+            throw error("Bad face vertex " + tokenString());
+        if (normal == 0) return vertex;
+
+        // a vertex of a smooth face: take the normal, or a duplicate if the vertex already has another one
+        smooth = true;
+        --normal;
+        if (vertexNormals[vertex] < 0 || vertexNormals[vertex] == normal) {
+            vertexNormals[vertex] = normal;
+            return vertex;
+        }
+        long key = (long) vertex << 32 | normal;
+        Integer duplicate = duplicates.get(key);
+        if (duplicate != null) return duplicate;
+        if (2 * duplicateCount + 2 > duplicateVertices.length)
+            duplicateVertices = Arrays.copyOf(duplicateVertices, grow(duplicateVertices.length));
+        duplicateVertices[2 * duplicateCount] = vertex;
+        duplicateVertices[2 * duplicateCount + 1] = normal;
+        duplicates.put(key, duplicateCount);
+        return -1 - duplicateCount++;
+    }
+
+    /**
+     * Converts an OBJ index (1 based, or negative - relative to the end) to an array index.
+     *
+     * @param index the OBJ index
+     * @param count the number of the elements read so far
+     * @param kind  the kind of the elements, for the error message
+     * @return the index (0 based)
+     */
+    private int resolve(int index, int count, String kind) {
+        int resolved = index < 0 ? count + index : index - 1;
+        if (index == 0 || resolved < 0 || resolved >= count)
+            throw error("No " + kind + " of index " + index);
+        return resolved;
+    }
+
+    /**
+     * Parses an integer in the current token into {@link #integer}.
+     *
+     * @param i the position of the integer in the token
+     * @return the position after the integer
+     */
+    private int integer(int i) {
+        boolean negative = i < tokenLength && token[i] == '-';
+        if (negative || i < tokenLength && token[i] == '+') ++i;
+        int start = i;
+        long n = 0;
+        for (; i < tokenLength && isDigit(token[i]); ++i) {
+            n = n * 10 + (token[i] - '0');
+            if (n > Integer.MAX_VALUE) throw error("Index out of range in " + tokenString());
+        }
+        if (i == start)
+            throw error("Bad face vertex " + tokenString());
+        integer = (int) (negative ? -n : n);
+        return i;
+    }
+
+    /**
+     * Reads a number token. Numbers of up to 15 significant digits and a decimal exponent within &plusmn;22
+     * are converted exactly by a single multiplication or division of exact doubles, the other numbers of up
+     * to 18 significant digits by the Eisel-Lemire algorithm. Longer numbers are converted by their first 18
+     * digits too, unless the rest of the digits may change the rounding, and hexadecimal numbers, infinities
+     * and NaNs by {@link Double#parseDouble(String)}.
+     *
+     * @return the number
+     * @throws IOException on an I/O error
+     */
+    private double number() throws IOException {
+        if (!nextToken())
+            throw error("Missing coordinate");
+        int i = 0;
+        boolean negative = token[0] == '-';
+        if (negative || token[0] == '+') ++i;
+        long mantissa = 0;
+        int digits = 0, exponent = 0;
+        boolean any = false, exact = true;
+        for (; i < tokenLength && isDigit(token[i]); ++i) {
+            any = true;
+            if (mantissa == 0 && token[i] == '0') continue;
+            if (digits++ < 18) mantissa = mantissa * 10 + (token[i] - '0');
+            else {
+                exact = false;
+                ++exponent;
+            }
+        }
+        if (i < tokenLength && token[i] == '.') {
+            for (++i; i < tokenLength && isDigit(token[i]); ++i) {
+                any = true;
+                if (mantissa == 0 && token[i] == '0') {
+                    --exponent;
+                    continue;
+                }
+                if (digits++ < 18) {
+                    mantissa = mantissa * 10 + (token[i] - '0');
+                    --exponent;
+                } else exact = false;
+            }
+        }
+        if (any && i < tokenLength && (token[i] == 'e' || token[i] == 'E')) {
+            ++i;
+            boolean negativeExponent = i < tokenLength && token[i] == '-';
+            if (negativeExponent || i < tokenLength && token[i] == '+') ++i;
+            int start = i, e = 0;
+            for (; i < tokenLength && isDigit(token[i]); ++i)
+                if (e < 100000) e = e * 10 + (token[i] - '0');
+            if (i == start) any = false;
+            exponent += negativeExponent ? -e : e;
+        }
+        if (!any || i != tokenLength)
+            return parseToken();
+
+        if (mantissa == 0) return negative ? -0.0 : 0.0;
+        double value;
+        if (exact && mantissa < 1L << 53 && exponent >= -22 && exponent <= 22)
+            value = exponent >= 0 ? mantissa * POWERS_OF_10[exponent] : mantissa / POWERS_OF_10[-exponent];
+        else {
+            value = eiselLemire(mantissa, exponent);
+            // the truncated digits lie between the mantissa and the next one - both must round alike
+            if (!exact && value != eiselLemire(mantissa + 1, exponent))
+                return parseToken();
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Converts a decimal number to the nearest double by the Eisel-Lemire algorithm: the mantissa is
+     * multiplied by the 128 bits approximation of the power of 5, and the power of 2 is added to the binary
+     * exponent. The approximation decides the rounding of every number of a 64 bits mantissa (Mushtak and
+     * Lemire, "Fast number parsing without fallback", 2023).
+     *
+     * @param w the decimal mantissa, positive
+     * @param q the decimal exponent
+     * @return the double nearest to w * 10^q
+     */
+    private static double eiselLemire(long w, int q) {
+        if (q < MIN_EXPONENT) return 0;
+        if (q > MAX_EXPONENT) return Double.POSITIVE_INFINITY;
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+        int index = 2 * (q - MIN_EXPONENT);
+        long high = unsignedMultiplyHigh(w, POWERS_OF_5[index]), low = w * POWERS_OF_5[index];
+        if ((high & 0x1FF) == 0x1FF) {
+            // the truncated bits may carry into the 55 bits needed - refine by the low half of the power
+            long carry = unsignedMultiplyHigh(w, POWERS_OF_5[index + 1]);
+            low += carry;
+            if (Long.compareUnsigned(carry, low) > 0) ++high;
+        }
+        int upper = (int) (high >>> 63);
+        long mantissa = high >>> (upper + 9);
+        // floor(q * log2(10)) + 63 is the binary exponent of 10^q, the double exponent is biased by 1023
+        int power2 = (int) ((217706L * q) >> 16) + 63 + upper - lz + 1023;
+        if (power2 <= 0) {
+            // a subnormal number (or the smallest normal one, if the rounding carries into the implicit bit)
+            if (-power2 + 1 >= 64) return 0;
+            mantissa >>>= -power2 + 1;
+            mantissa += mantissa & 1;
+            return Double.longBitsToDouble(mantissa >>> 1);
+        }
+        // an exact halfway between two doubles is rounded to the even one
+        if (Long.compareUnsigned(low, 1) <= 0 && q >= -4 && q <= 23 && (mantissa & 3) == 1
+                && mantissa << (upper + 9) == high)
+            mantissa &= ~1L;
+        mantissa += mantissa & 1;
+        mantissa >>>= 1;
+        if (mantissa >= 2L << 52) {
+            mantissa = 1L << 52;
+            ++power2;
+        }
+        if (power2 >= 0x7FF) return Double.POSITIVE_INFINITY;
+        return Double.longBitsToDouble(mantissa & ~(1L << 52) | (long) power2 << 52);
+    }
+
+    /**
+     * Calculates the high half of the unsigned 128 bits product of two longs.
+     *
+     * @param x the first factor, unsigned
+     * @param y the second factor, unsigned
+     * @return the high 64 bits of the product
+     */
+    private static long unsignedMultiplyHigh(long x, long y) {
+        return Math.multiplyHigh(x, y) + (x >> 63 & y) + (y >> 63 & x);
+    }
+
+    /**
+     * Converts the current token by {@link Double#parseDouble(String)}.
+     *
+     * @return the number
+     */
+    private double parseToken() {
+        try {
+            return Double.parseDouble(tokenString());
+        } catch (NumberFormatException e) {
+            throw error("Bad number " + tokenString());
+        }
+    }
+
+    /**
+     * Reads the next token of the line into {@link #token}.
+     *
+     * @return false if the line has no more tokens (the line end is left to be read)
+     * @throws IOException on an I/O error
+     */
+    private boolean nextToken() throws IOException {
+        int c = read();
+        while (c == ' ' || c == '\t') c = read();
+        tokenLength = 0;
+        while (c != -1 && !isSpace(c)) {
+            if (tokenLength == token.length)
+                throw error("Too long token");
+            token[tokenLength++] = (byte) c;
+            c = read();
+        }
+        if (c == '\n' || c == '\r' || c == '#') pending = c;
+        return tokenLength > 0;
+    }
+
+    /**
+     * Skips to the next line.
+     *
+     * @param c the current byte
+     * @throws IOException on an I/O error
+     */
+    private void skipLine(int c) throws IOException {
+        while (c != '\n' && c != -1) c = read();
+        if (c == '\n') ++line;
+    }
+
+    /**
+     * Reads the next byte, refilling the buffer from the channel when it is exhausted.
+     *
+     * @return the byte, -1 at the end of the stream
+     * @throws IOException on an I/O error
+     */
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        if (position == limit) {
+            int n;
+            do n = channel.read(ByteBuffer.wrap(buffer));
+            while (n == 0);
+            if (n < 0) return -1;
+            position = 0;
+            limit = n;
+            bytes += n;
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * Checks whether a byte separates tokens: a blank, a line end, a comment or the end of the stream.
+     *
+     * @param c the byte
+     * @return true if the byte ends a token
+     */
+    private static boolean isSpace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '#' || c == -1;
+    }
+
+    /**
+     * Checks whether a byte is a decimal digit.
+     *
+     * @param c the byte
+     * @return true for a digit
+     */
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Calculates the new length of a full array.
+     *
+     * @param length the current length
+     * @return the new length
+     * @throws IllegalArgumentException if the array can't grow anymore
+     */
+    private int grow(int length) {
+        int max = (Integer.MAX_VALUE - 8) / 3 * 3; // the largest array length of whole triples
+        if (length >= max)
+            throw error("The model is too large");
+        return (int) Math.min(2L * length, max);
+    }
+
+    /**
+     * Returns the current token as a string (for the rare conversions and the error messages).
+     *
+     * @return the token
+     */
+    private String tokenString() {
+        return new String(token, 0, tokenLength, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Creates the exception of a malformed input.
+     *
+     * @param message the problem
+     * @return the exception, with the line of the problem
+     */
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " in line " + line);
+    }
+}
@@ -0,0 +1,547 @@
+package scene;
+
+import geometries.TriangleMesh;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loader of binary PLY (Stanford polygon file format) models into a {@link TriangleMesh}.
+ * <p>
+ * The file is memory-mapped and the vertex and face blocks are read straight from the mapping into the mesh's
+ * arrays, with no object per element: the coordinates (and the normals {@code nx, ny, nz} if given) of the
+ * {@code vertex} element, and the {@code vertex_indices} (or {@code vertex_index}) list of the {@code face}
+ * element, whose polygons are split into fans of triangles. When the vertices are exactly three doubles
+ * {@code x, y, z} in the file's byte order, the whole block is copied to the coordinates array in bulk.
+ * Other elements and properties are skipped. Both the little and the big endian binary formats are read;
+ * files larger than a mapping are mapped in windows.
+ * @author Ayala Houri and Shani Zegal
+ */
+public class PlyLoader {
+    /** Maximal size of a mapping of the file */
+    private static final long WINDOW = 1L << 30;
+
+    /** The scalar types of the properties */
+    private enum Type {
+        CHAR(1), UCHAR(1), SHORT(2), USHORT(2), INT(4), UINT(4), FLOAT(4), DOUBLE(8);
+
+        /** the size in bytes */
+        final int size;
+
+        Type(int size) {
+            this.size = size;
+        }
+
+        /**
+         * Finds a type by its name in the header.
+         *
+         * @param name the name, e.g. {@code float} or {@code float32}
+         * @return the type
+         * @throws IllegalArgumentException for an unknown type
+         */
+        static Type of(String name) {
+            return switch (name) {
+                case "char", "int8" -> CHAR;
+                case "uchar", "uint8" -> UCHAR;
+                case "short", "int16" -> SHORT;
+                case "ushort", "uint16" -> USHORT;
+                case "int", "int32" -> INT;
+                case "uint", "uint32" -> UINT;
+                case "float", "float32" -> FLOAT;
+                case "double", "float64" -> DOUBLE;
+                default -> throw new IllegalArgumentException("Unknown PLY type " + name);
+            };
+        }
+    }
+
+    /** A property of an element: a scalar, or a list of scalars preceded by their count */
+    private static final class Property {
+        final String name;
+        final Type type;
+        final Type countType; // null for a scalar
+
+        Property(String name, Type type, Type countType) {
+            this.name = name;
+            this.type = type;
+            this.countType = countType;
+        }
+    }
+
+    /** An element of the file: a block of records of the same properties */
+    private static final class Element {
+        final String name;
+        final long count;
+        final List<Property> properties = new ArrayList<>();
+
+        Element(String name, long count) {
+            this.name = name;
+            this.count = count;
+        }
+
+        /**
+         * Finds the offset of a scalar property in a record of no lists.
+         *
+         * @param name the property name
+         * @return the offset, -1 if there is no such property
+         */
+        int offset(String name) {
+            int offset = 0;
+            for (Property property : properties) {
+                if (property.name.equals(name)) return offset;
+                offset += property.type.size;
+            }
+            return -1;
+        }
+
+        /**
+         * Calculates the size of a record.
+         *
+         * @return the size, -1 if the records have lists (and their sizes vary)
+         */
+        int stride() {
+            int stride = 0;
+            for (Property property : properties) {
+                if (property.countType != null) return -1;
+                stride += property.type.size;
+            }
+            return stride;
+        }
+
+        /**
+         * Calculates the minimal size of a record, in which the lists are empty but the given one.
+         *
+         * @param list    the index of the list property of a minimal length, -1 for none
+         * @param minimum the minimal length of that list
+         * @return the size
+         */
+        long minimalSize(int list, int minimum) {
+            long size = 0;
+            for (int i = 0; i < properties.size(); ++i) {
+                Property property = properties.get(i);
+                if (property.countType == null) size += property.type.size;
+                else size += property.countType.size + (i == list ? (long) minimum * property.type.size : 0);
+            }
+            return size;
+        }
+    }
+
+    private final Logger logger = Logger.getLogger("PlyLoader");
+    private final long window;
+
+    // the input
+    private FileChannel channel;
+    private long size;
+    private ByteOrder order;
+    private MappedByteBuffer buffer;
+    /** The file position of the mapping */
+    private long base;
+
+    // the statistics of the last load
+    private long loadedBytes;
+    private int loadedTriangles;
+    private long nanos;
+
+    /**
+     * Constructs a loader.
+     */
+    public PlyLoader() {
+        this(WINDOW);
+    }
+
+    /**
+     * Constructs a loader which maps a file in windows of a given size.
+     *
+     * @param window the maximal size of a mapping
+     */
+    PlyLoader(long window) {
+        this.window = window;
+    }
+
+    /**
+     * Loads a model from a binary PLY file.
+     *
+     * @param path the file
+     * @return the mesh of the model's faces
+     * @throws IllegalArgumentException if the file is malformed, not binary or has no face
+     * @throws IllegalStateException    on an I/O error
+     */
+    public TriangleMesh load(Path path) {
+        long start = System.nanoTime();
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            channel = file;
+            size = file.size();
+            order = null;
+            base = 0;
+            buffer = null;
+            TriangleMesh mesh = read();
+
+            nanos = System.nanoTime() - start;
+            loadedBytes = size;
+            loadedTriangles = mesh.getTriangleCount();
+            logger.info(String.format("Loaded %s: %d triangles, %.1f MB in %.2f s (%.1f MB/s, %.0f triangles/s)",
+                    path, loadedTriangles, size / 1e6, nanos / 1e9, getMegabytesPerSecond(), getTrianglesPerSecond()));
+            return mesh;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - can't read " + path, e);
+        } finally {
+            channel = null;
+            buffer = null;
+        }
+    }
+
+    /**
+     * Returns the reading rate of the last load.
+     *
+     * @return the loaded megabytes (10^6 bytes) per second
+     */
+    public double getMegabytesPerSecond() {
+        return loadedBytes / 1e6 / (nanos / 1e9);
+    }
+
+    /**
+     * Returns the triangles rate of the last load.
+     *
+     * @return the loaded triangles per second
+     */
+    public double getTrianglesPerSecond() {
+        return loadedTriangles / (nanos / 1e9);
+    }
+
+    /**
+     * Reads the header and the elements of the file.
+     *
+     * @return the mesh
+     * @throws IOException on an I/O error
+     */
+    private TriangleMesh read() throws IOException {
+        List<Element> elements = new ArrayList<>();
+        long position = header(elements);
+        buffer.order(order);
+
+        double[] vertices = null;
+        float[] normals = null;
+        int[] indices = null;
+        for (Element element : elements) {
+            if (element.name.equals("vertex")) {
+                if (element.stride() < 0)
+                    throw new IllegalArgumentException("Vertices of lists are not supported");
+                checkCount(element, position, element.stride());
+                if (element.count > Integer.MAX_VALUE / 3)
+                    throw new IllegalArgumentException("Too many vertices");
+                vertices = new double[(int) (3 * element.count)];
+                if (element.offset("nx") >= 0 && element.offset("ny") >= 0 && element.offset("nz") >= 0)
+                    normals = new float[vertices.length];
+                position = vertices(element, position, vertices, normals);
+            } else if (element.name.equals("face")) {
+                if (vertices == null)
+                    throw new IllegalArgumentException("The faces must follow the vertices");
+                int[][] result = new int[1][];
+                position = faces(element, position, result);
+                indices = result[0];
+            } else position = skip(element, position);
+        }
+        if (vertices == null || indices == null)
+            throw new IllegalArgumentException("A PLY mesh must have vertices and faces");
+        return new TriangleMesh(vertices, indices, normals);
+    }
+
+    /**
+     * Parses the header.
+     *
+     * @param elements receives the elements
+     * @return the position of the data after the header
+     * @throws IOException on an I/O error
+     */
+    private long header(List<Element> elements) throws IOException {
+        long position = 0;
+        boolean first = true;
+        while (true) {
+            StringBuilder text = new StringBuilder();
+            int c;
+            while ((c = position < size ? get(position, 1).get((int) (position - base)) : -1) != '\n') {
+                if (c == -1 || text.length() > 1024)
+                    throw new IllegalArgumentException("Bad PLY header");
+                ++position;
+                if (c != '\r') text.append((char) (c & 0xFF));
+            }
+            ++position;
+            String[] words = text.toString().trim().split("\\s+");
+            if (first) {
+                if (!words[0].equals("ply"))
+                    throw new IllegalArgumentException("Not a PLY file");
+                first = false;
+                continue;
+            }
+            switch (words[0]) {
+                case "format" -> {
+                    if (words.length < 2) throw new IllegalArgumentException("Bad PLY format line");
+                    order = switch (words[1]) {
+                        case "binary_little_endian" -> ByteOrder.LITTLE_ENDIAN;
+                        case "binary_big_endian" -> ByteOrder.BIG_ENDIAN;
+                        default -> throw new IllegalArgumentException("Only binary PLY files are supported");
+                    };
+                }
+                case "element" -> {
+                    if (words.length != 3 || Long.parseLong(words[2]) < 0)
+                        throw new IllegalArgumentException("Bad PLY element line");
+                    elements.add(new Element(words[1], Long.parseLong(words[2])));
+                }
+                case "property" -> {
+                    if (elements.isEmpty()) throw new IllegalArgumentException("A PLY property out of an element");
+                    Property property;
+                    if (words.length == 5 && words[1].equals("list"))
+                        property = new Property(words[4], Type.of(words[3]), Type.of(words[2]));
+                    else if (words.length == 3)
+                        property = new Property(words[2], Type.of(words[1]), null);
+                    else throw new IllegalArgumentException("Bad PLY property line");
+                    elements.get(elements.size() - 1).properties.add(property);
+                }
+                case "end_header" -> {
+                    if (order == null) throw new IllegalArgumentException("Missing PLY format");
+                    return position;
+                }
+                default -> { } // comments and other information
+            }
+        }
+    }
+
+    /**
+     * Reads the vertices.
+     *
+     * @param element  the vertex element
+     * @param position the position of the element's block
+     * @param vertices receives the coordinates
+     * @param normals  receives the normals, or null
+     * @return the position after the block
+     * @throws IOException on an I/O error
+     */
+    private long vertices(Element element, long position, double[] vertices, float[] normals) throws IOException {
+        int stride = element.stride();
+        int x = element.offset("x"), y = element.offset("y"), z = element.offset("z");
+        if (x < 0 || y < 0 || z < 0)
+            throw new IllegalArgumentException("The vertices must have x, y and z");
+        Type[] types = { type(element, "x"), type(element, "y"), type(element, "z") };
+        int[] offsets = { x, y, z };
+        long length = element.count * stride;
+
+        if (normals == null && stride == 24 && x == 0 && y == 8 && z == 16
+                && types[0] == Type.DOUBLE && types[1] == Type.DOUBLE && types[2] == Type.DOUBLE
+                && length <= Integer.MAX_VALUE) {
+            // the coordinates array's own layout - one bulk copy
+            channel.map(FileChannel.MapMode.READ_ONLY, position, length).order(order).asDoubleBuffer().get(vertices);
+            return position + length;
+        }
+
+        Type[] normalTypes = null;
+        int[] normalOffsets = null;
+        if (normals != null) {
+            normalTypes = new Type[] { type(element, "nx"), type(element, "ny"), type(element, "nz") };
+            normalOffsets = new int[] { element.offset("nx"), element.offset("ny"), element.offset("nz") };
+        }
+        for (int v = 0; v < element.count; ++v, position += stride) {
+            MappedByteBuffer record = get(position, stride);
+            int at = (int) (position - base);
+            for (int axis = 0; axis < 3; ++axis)
+                vertices[3 * v + axis] = value(record, at + offsets[axis], types[axis]);
+            if (normals != null)
+                for (int axis = 0; axis < 3; ++axis)
+                    normals[3 * v + axis] = (float) value(record, at + normalOffsets[axis], normalTypes[axis]);
+        }
+        return position;
+    }
+
+    /**
+     * Reads the faces, splitting polygons into fans of triangles.
+     *
+     * @param element  the face element
+     * @param position the position of the element's block
+     * @param result   receives the vertices of the triangles
+     * @return the position after the block
+     * @throws IOException on an I/O error
+     */
+    private long faces(Element element, long position, int[][] result) throws IOException {
+        int list = -1;
+        for (int i = 0; i < element.properties.size(); ++i) {
+            Property property = element.properties.get(i);
+            if (property.countType != null
+                    && (property.name.equals("vertex_indices") || property.name.equals("vertex_index")))
+                list = i;
+        }
+        if (list < 0)
+            throw new IllegalArgumentException("The faces must have a vertex_indices list");
+
+        checkCount(element, position, element.minimalSize(list, 3));
+        int[] indices = new int[(int) Math.min(Math.multiplyExact(3, element.count), Integer.MAX_VALUE - 8) / 3 * 3];
+        int count = 0;
+        for (long f = 0; f < element.count; ++f) {
+            for (int i = 0; i < element.properties.size(); ++i) {
+                Property property = element.properties.get(i);
+                if (property.countType == null) {
+                    position += property.type.size;
+                    continue;
+                }
+                long n = (long) value(get(position, property.countType.size), (int) (position - base),
+                        property.countType);
+                position += property.countType.size;
+                long length = listSize(n, property.type, position);
+                if (i != list) {
+                    position += length;
+                    continue;
+                }
+                if (n < 3)
+                    throw new IllegalArgumentException("A face must have 3 vertices at least");
+                MappedByteBuffer record = get(position, (int) length);
+                int at = (int) (position - base);
+                int first = (int) value(record, at, property.type);
+                int previous = (int) value(record, at + property.type.size, property.type);
+                for (int k = 2; k < n; ++k) {
+                    int vertex = (int) value(record, at + k * property.type.size, property.type);
+                    if (count + 3 > indices.length) {
+                        if (indices.length >= Integer.MAX_VALUE - 11)
+                            throw new IllegalArgumentException("Too many triangles");
+                        indices = Arrays.copyOf(indices, (int) Math.min(2L * indices.length + 3, Integer.MAX_VALUE - 8)
+                                / 3 * 3);
+                    }
+                    indices[count++] = first;
+                    indices[count++] = previous;
+                    indices[count++] = vertex;
+                    previous = vertex;
+                }
+                position += length;
+            }
+        }
+        if (position > size)
+            throw new IllegalArgumentException("The PLY file is truncated");
+        result[0] = count == indices.length ? indices : Arrays.copyOf(indices, count);
+        return position;
+    }
+
+    /**
+     * Checks that the rest of the file may hold the records of an element, before anything is allocated by
+     * the count which the header declares.
+     *
+     * @param element    the element
+     * @param position   the position of the element's block
+     * @param recordSize the minimal size of a record
+     * @throws IllegalArgumentException if the records can't fit in the file
+     */
+    private void checkCount(Element element, long position, long recordSize) {
+        try {
+            if (Math.multiplyExact(element.count, recordSize) > size - position)
+                throw new IllegalArgumentException("The PLY file is truncated");
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("The PLY file is truncated", e);
+        }
+    }
+
+    /**
+     * Checks that the rest of the file may hold the items of a list, before they are read or skipped by the
+     * count which the file declares.
+     *
+     * @param n        the number of items of the list
+     * @param type     the type of the items
+     * @param position the position of the list's items
+     * @return the size of the items in bytes
+     * @throws IllegalArgumentException if the count is negative or the items can't fit in the file
+     */
+    private long listSize(long n, Type type, long position) {
+        if (n < 0)
+            throw new IllegalArgumentException("Negative list size");
+        try {
+            long length = Math.multiplyExact(n, type.size);
+            if (length > size - position)
+                throw new IllegalArgumentException("The PLY file is truncated");
+            return length;
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("The PLY file is truncated", e);
+        }
+    }
+
+    /**
+     * Skips the block of an element.
+     *
+     * @param element  the element
+     * @param position the position of the element's block
+     * @return the position after the block
+     * @throws IOException on an I/O error
+     */
+    private long skip(Element element, long position) throws IOException {
+        checkCount(element, position, element.minimalSize(-1, 0));
+        int stride = element.stride();
+        if (stride >= 0) return position + element.count * stride;
+        for (long r = 0; r < element.count; ++r)
+            for (Property property : element.properties) {
+                if (property.countType != null) {
+                    long n = (long) value(get(position, property.countType.size), (int) (position - base),
+                            property.countType);
+                    position += property.countType.size;
+                    position += listSize(n, property.type, position);
+                } else position += property.type.size;
+            }
+        return position;
+    }
+
+    /**
+     * Finds the type of a scalar property.
+     *
+     * @param element the element
+     * @param name    the property name
+     * @return the type
+     */
+    private static Type type(Element element, String name) {
+        for (Property property : element.properties)
+            if (property.name.equals(name)) return property.type;
+        throw new IllegalArgumentException("Missing property " + name);
+    }
+
+    /**
+     * Reads a scalar from the mapping.
+     *
+     * @param buffer the mapping
+     * @param at     the position in the mapping
+     * @param type   the scalar type
+     * @return the value
+     */
+    private static double value(MappedByteBuffer buffer, int at, Type type) {
+        return switch (type) {
+            case CHAR -> buffer.get(at);
+            case UCHAR -> buffer.get(at) & 0xFF;
+            case SHORT -> buffer.getShort(at);
+            case USHORT -> buffer.getShort(at) & 0xFFFF;
+            case INT -> buffer.getInt(at);
+            case UINT -> buffer.getInt(at) & 0xFFFFFFFFL;
+            case FLOAT -> buffer.getFloat(at);
+            case DOUBLE -> buffer.getDouble(at);
+        };
+    }
+
+    /**
+     * Returns the mapping of a range of the file, mapping the window starting at the range if the current
+     * mapping does not contain it.
+     *
+     * @param position the position of the range
+     * @param length   the length of the range
+     * @return the mapping, in which the range starts at {@code position - base}
+     * @throws IOException on an I/O error
+     */
+    private MappedByteBuffer get(long position, int length) throws IOException {
+        if (buffer == null || position < base || position + length > base + buffer.limit()) {
+            if (position + length > size)
+                throw new IllegalArgumentException("The PLY file is truncated");
+            base = position;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, Math.min(Math.max(window, length), size - base));
+            if (order != null) buffer.order(order);
+        }
+        return buffer;
+    }
+}
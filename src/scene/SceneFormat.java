@@ -0,0 +1,90 @@
+package scene;
+
+/**
+ * The binary scene format written by {@link SceneWriter} and read by {@link SceneLoader}.
+ * <p>
+ * A file is the {@link #MAGIC} number and the {@link #VERSION} (4 bytes each), followed by sections, each of a
+ * 4 bytes tag, an 8 bytes length of its content and the content. All the numbers are little endian. Sections of
+ * unknown tags are skipped, so a reader of a version reads the files of the versions up to it. Each section is
+ * of a single tag, except {@link #MESHES}. The sections of version 1 are:
+ * <ul>
+ * <li>{@link #SCENE}: the name (a length and UTF-8 bytes), the background and the ambient light intensity
+ * (3 doubles each)</li>
+ * <li>{@link #CAMERA} (optional): the location, the direction to the view plane and the up direction
+ * (3 doubles each), and the view plane width, height and distance</li>
+ * <li>{@link #MATERIALS}: a count, {@link #MATERIAL_DOUBLES} doubles of each (kD, kS, kT and kR, 3 of each) and
+ * {@link #MATERIAL_INTS} integers of each (the shininess and the maximal depth)</li>
+ * <li>{@link #EMISSIONS}: a count and the 3 doubles of each emission color</li>
+ * <li>{@link #LIGHTS}: a count, {@link #LIGHT_DOUBLES} doubles of each (the intensity, the position, the
+ * direction, kC, kL, kQ - 3 of each - and the concentration) and a kind byte of each</li>
+ * <li>{@link #GEOMETRIES}: a count, the material of each, the emission of each (integers) and a kind byte of
+ * each, in the order of the scene</li>
+ * <li>a section of each kind of the scene's geometries - {@link #SPHERES}, {@link #PLANES}, {@link #TRIANGLES},
+ * {@link #TUBES} and {@link #CYLINDERS}: a count and the doubles of each; {@link #POLYGONS}: a count, the total
+ * number of vertices, the number of each one's vertices and the vertices</li>
+ * <li>{@link #MESHES}: a section of each triangle mesh, in the order of the scene, of its encoding
+ * ({@link geometries.TriangleMesh#encode(java.nio.ByteBuffer)})</li>
+ * </ul>
+ * The geometries are read in the order of the scene, each of the next record of its kind's section (or the next
+ * mesh section).
+ * <p>
+ * Limits: a section is mapped at once, so its content is up to {@link Integer#MAX_VALUE} bytes less the
+ * {@link #SECTION_HEADER}. Hence a single triangle mesh is up to about 35 million triangles (about 62 bytes of
+ * each, more with normals) while a scene may have any number of meshes, and a scene has up to about 29 million
+ * separate triangles or 67 million spheres. Larger models should be written as several meshes.
+ * @author Ayala Houri and Shani Zegal
+ */
+abstract class SceneFormat {
+    /** The first bytes of a file, "RTSC" */
+    static final int MAGIC = 0x43535452;
+    /** The version of the format */
+    static final int VERSION = 1;
+    /** The size of a section's tag and length */
+    static final int SECTION_HEADER = 12;
+
+    // the section tags
+    static final int SCENE = 1;
+    static final int CAMERA = 2;
+    static final int MATERIALS = 3;
+    static final int EMISSIONS = 4;
+    static final int LIGHTS = 5;
+    static final int GEOMETRIES = 6;
+    static final int SPHERES = 7;
+    static final int PLANES = 8;
+    static final int TRIANGLES = 9;
+    static final int POLYGONS = 10;
+    static final int TUBES = 11;
+    static final int CYLINDERS = 12;
+    static final int MESHES = 13;
+
+    // the kinds of the lights
+    static final byte DIRECTIONAL_LIGHT = 0;
+    static final byte POINT_LIGHT = 1;
+    static final byte SPOT_LIGHT = 2;
+
+    // the kinds of the geometries
+    static final byte SPHERE = 0;
+    static final byte PLANE = 1;
+    static final byte TRIANGLE = 2;
+    static final byte POLYGON = 3;
+    static final byte TUBE = 4;
+    static final byte CYLINDER = 5;
+    static final byte MESH = 6;
+
+    /** The number of doubles of each kind of geometries, by kind (0 for the ones of varying sizes) */
+    static final int[] GEOMETRY_DOUBLES = { 4, 6, 9, 0, 7, 8, 0 };
+    /** The sections of the geometries, by kind */
+    static final int[] GEOMETRY_SECTIONS = { SPHERES, PLANES, TRIANGLES, POLYGONS, TUBES, CYLINDERS, MESHES };
+
+    /** The number of doubles of a material */
+    static final int MATERIAL_DOUBLES = 12;
+    /** The number of integers of a material */
+    static final int MATERIAL_INTS = 2;
+    /** The number of doubles of a light */
+    static final int LIGHT_DOUBLES = 19;
+
+    /**
+     * Empty private constructor to hide the public one
+     */
+    private SceneFormat() {}
+}
@@ -0,0 +1,420 @@
+package scene;
+
+import geometries.*;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import renderer.Camera;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static scene.SceneFormat.*;
+
+/**
+ * Loader of scenes in the binary {@link SceneFormat scene format}, written by {@link SceneWriter}.
+ * <p>
+ * The file is memory-mapped and each section is read with bulk reads of its arrays, so no text is parsed and
+ * nothing is built again: the materials and the emission colors are created once for all their geometries,
+ * the triangle meshes get their arrays and their hierarchies as they were written, and the other geometries
+ * are constructed from the numbers of their kind's array.
+ * @author Ayala Houri and Shani Zegal
+ */
+public class SceneLoader {
+    private final Logger logger = Logger.getLogger("SceneLoader");
+
+    /** The camera of the last loaded scene */
+    private Camera camera;
+
+    // the statistics of the last load
+    private long loadedBytes;
+    private long nanos;
+
+    /**
+     * Loads a scene.
+     *
+     * @param path the file
+     * @return the scene
+     * @throws IllegalArgumentException if the file is not a scene file, of a newer version, or malformed
+     * @throws IllegalStateException    on an I/O error
+     */
+    public Scene load(Path path) {
+        long start = System.nanoTime();
+        camera = null;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<ByteBuffer> meshes = new ArrayList<>();
+            Map<Integer, ByteBuffer> sections = sections(channel, meshes);
+            Scene scene = read(sections, meshes);
+
+            nanos = System.nanoTime() - start;
+            loadedBytes = channel.size();
+            logger.info(String.format("Loaded %s: %d geometries, %.1f MB in %.2f s (%.1f MB/s)", path,
+                    scene.getGeometries().getIntersectables().size(), loadedBytes / 1e6, nanos / 1e9,
+                    getMegabytesPerSecond()));
+            return scene;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - can't read " + path, e);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("The scene file is truncated", e);
+        }
+    }
+
+    /**
+     * Returns the camera of the last loaded scene.
+     *
+     * @return the camera (with neither an image writer nor a ray tracer), or null if the scene has none
+     */
+    public Camera getCamera() {
+        return camera;
+    }
+
+    /**
+     * Returns the reading rate of the last load.
+     *
+     * @return the loaded megabytes (10^6 bytes) per second
+     */
+    public double getMegabytesPerSecond() {
+        return loadedBytes / 1e6 / (nanos / 1e9);
+    }
+
+    /**
+     * Maps the sections of a file.
+     *
+     * @param channel the file
+     * @param meshes  the list to add the mappings of the mesh sections to, in their order
+     * @return the mappings of the other sections' contents by their tags
+     * @throws IOException on an I/O error
+     */
+    private static Map<Integer, ByteBuffer> sections(FileChannel channel, List<ByteBuffer> meshes)
+            throws IOException {
+        long size = channel.size();
+        if (size < 8) throw new IllegalArgumentException("Not a scene file");
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, 8).order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt() != MAGIC) throw new IllegalArgumentException("Not a scene file");
+        int version = header.getInt();
+        if (version < 1 || version > VERSION)
+            throw new IllegalArgumentException("Unsupported scene file version " + version);
+
+        Map<Integer, ByteBuffer> sections = new HashMap<>();
+        for (long position = 8; position < size; ) {
+            if (position + SECTION_HEADER > size) throw new IllegalArgumentException("The scene file is truncated");
+            header = channel.map(FileChannel.MapMode.READ_ONLY, position, SECTION_HEADER)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            int tag = header.getInt();
+            long length = header.getLong();
+            position += SECTION_HEADER;
+            if (length < 0 || length > size - position)
+                throw new IllegalArgumentException("The scene file is truncated");
+            if (length > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Section " + tag + " is too large");
+            ByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, position, length)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (tag == MESHES) meshes.add(content);
+            else if (sections.put(tag, content) != null)
+                throw new IllegalArgumentException("Section " + tag + " is repeated");
+            position += length;
+        }
+        return sections;
+    }
+
+    /**
+     * Reads the scene from its sections.
+     *
+     * @param sections the sections' contents by their tags
+     * @param meshes   the mesh sections' contents in their order
+     * @return the scene
+     */
+    private Scene read(Map<Integer, ByteBuffer> sections, List<ByteBuffer> meshes) {
+        ByteBuffer buffer = section(sections, SCENE);
+        byte[] name = new byte[count(buffer, 1)];
+        buffer.get(name);
+        Color background = color(buffer);
+        Color ambient = color(buffer);
+
+        buffer = sections.get(CAMERA);
+        if (buffer != null) {
+            Point p0 = point(buffer);
+            Vector vTo = vector(buffer), vUp = vector(buffer);
+            double width = buffer.getDouble(), height = buffer.getDouble(), distance = buffer.getDouble();
+            camera = new Camera(p0, vTo, vUp).setVPSize(width, height).setVPDistance(distance);
+        }
+
+        Geometries geometries = new Geometries();
+        geometries.add(geometries(sections, meshes));
+        Scene scene = new Scene.SceneBuilder(new String(name, StandardCharsets.UTF_8))
+                .setBackground(background)
+                .setAmbientLight(new AmbientLight(ambient, Double3.ONE))
+                .setGeometries(geometries)
+                .build();
+        return scene.setLightSourceList(lights(section(sections, LIGHTS)));
+    }
+
+    /**
+     * Reads the lights.
+     *
+     * @param buffer the lights section
+     * @return the lights
+     */
+    private static List<LightSource> lights(ByteBuffer buffer) {
+        int count = count(buffer, 8 * LIGHT_DOUBLES + 1);
+        double[] values = doubles(buffer, LIGHT_DOUBLES * count);
+        List<LightSource> lights = new LinkedList<>();
+        for (int i = 0; i < count; ++i) {
+            int v = LIGHT_DOUBLES * i;
+            Color intensity = new Color(values[v], values[v + 1], values[v + 2]);
+            byte kind = buffer.get();
+            if (kind == DIRECTIONAL_LIGHT) {
+                lights.add(new DirectionalLight(intensity, vector(values, v + 6)));
+                continue;
+            }
+            PointLight light;
+            if (kind == POINT_LIGHT) light = new PointLight(intensity, point(values, v + 3));
+            else if (kind == SPOT_LIGHT)
+                light = new SpotLight(intensity, point(values, v + 3), vector(values, v + 6))
+                        .setConcentration(values[v + 18]);
+            else throw new IllegalArgumentException("Unknown light kind " + kind);
+            lights.add(light.setKc(triple(values, v + 9)).setKl(triple(values, v + 12)).setKq(triple(values, v + 15)));
+        }
+        return lights;
+    }
+
+    /**
+     * Reads the geometries.
+     *
+     * @param sections the sections' contents by their tags
+     * @param meshes   the mesh sections' contents in their order
+     * @return the geometries in their order
+     */
+    private static Intersectable[] geometries(Map<Integer, ByteBuffer> sections, List<ByteBuffer> meshes) {
+        ByteBuffer buffer = section(sections, MATERIALS);
+        int count = count(buffer, 8 * MATERIAL_DOUBLES + 4 * MATERIAL_INTS);
+        double[] values = doubles(buffer, MATERIAL_DOUBLES * count);
+        int[] ints = ints(buffer, MATERIAL_INTS * count);
+        Material[] materials = new Material[count];
+        for (int m = 0; m < count; ++m) {
+            int v = MATERIAL_DOUBLES * m;
+            materials[m] = new Material().setKd(triple(values, v)).setKs(triple(values, v + 3))
+                    .setKt(triple(values, v + 6)).setKr(triple(values, v + 9))
+                    .setShininess(ints[MATERIAL_INTS * m]).setMaxDepth(ints[MATERIAL_INTS * m + 1]);
+        }
+
+        buffer = section(sections, EMISSIONS);
+        values = doubles(buffer, 3 * count(buffer, 24));
+        Color[] emissions = new Color[values.length / 3];
+        for (int e = 0; e < emissions.length; ++e)
+            emissions[e] = new Color(values[3 * e], values[3 * e + 1], values[3 * e + 2]);
+
+        buffer = section(sections, GEOMETRIES);
+        int size = count(buffer, 9);
+        int[] geometryMaterials = ints(buffer, size);
+        int[] geometryEmissions = ints(buffer, size);
+        byte[] kinds = new byte[size];
+        buffer.get(kinds);
+
+        // the records of each kind, and the next one of each
+        double[][] records = new double[GEOMETRY_SECTIONS.length][];
+        int[] next = new int[GEOMETRY_SECTIONS.length];
+        int[] polygonSizes = null;
+        for (byte kind = 0; kind < GEOMETRY_SECTIONS.length; ++kind) {
+            ByteBuffer section = kind == MESH ? null : sections.get(GEOMETRY_SECTIONS[kind]);
+            if (section == null) continue;
+            if (kind == POLYGON) {
+                polygonSizes = ints(section, count(section, 4));
+                int total = section.getInt();
+                records[kind] = doubles(section, 3 * count(total, section.remaining(), 24));
+            } else
+                records[kind] = doubles(section, GEOMETRY_DOUBLES[kind] * count(section, 8 * GEOMETRY_DOUBLES[kind]));
+        }
+
+        Intersectable[] geometries = new Intersectable[size];
+        int polygons = 0;
+        for (int i = 0; i < size; ++i) {
+            byte kind = kinds[i];
+            if (kind < 0 || kind >= GEOMETRY_SECTIONS.length)
+                throw new IllegalArgumentException("Unknown geometry kind " + kind);
+            if (geometryMaterials[i] < 0 || geometryMaterials[i] >= count
+                    || geometryEmissions[i] < 0 || geometryEmissions[i] >= emissions.length)
+                throw new IllegalArgumentException("Geometry " + i + " refers out of the materials or the emissions");
+            double[] r = records[kind];
+            if (r == null && kind != MESH)
+                throw new IllegalArgumentException("Missing section " + GEOMETRY_SECTIONS[kind]);
+            int v = next[kind];
+            Geometry geometry;
+            switch (kind) {
+                case SPHERE -> geometry = new Sphere(point(r, v), r[v + 3]);
+                case PLANE -> geometry = new Plane(point(r, v), vector(r, v + 3));
+                case TRIANGLE -> geometry = new Triangle(point(r, v), point(r, v + 3), point(r, v + 6));
+                case POLYGON -> {
+                    if (polygonSizes[polygons] < 3)
+                        throw new IllegalArgumentException("A polygon can't have less than 3 vertices");
+                    Point[] vertices = new Point[polygonSizes[polygons++]];
+                    for (int p = 0; p < vertices.length; ++p) vertices[p] = point(r, v + 3 * p);
+                    geometry = new Polygon(vertices);
+                    next[kind] += 3 * vertices.length;
+                }
+                case TUBE -> geometry = new Tube(r[v + 6], new Ray(point(r, v), vector(r, v + 3)));
+                case CYLINDER -> geometry = new Cylinder(new Ray(point(r, v), vector(r, v + 3)), r[v + 6], r[v + 7]);
+                default -> {
+                    if (next[MESH] >= meshes.size()) throw new BufferUnderflowException();
+                    geometry = TriangleMesh.decode(meshes.get(next[MESH]++));
+                }
+            }
+            next[kind] += GEOMETRY_DOUBLES[kind];
+            geometries[i] = geometry.setEmission(emissions[geometryEmissions[i]])
+                    .setMaterial(materials[geometryMaterials[i]]);
+        }
+        return geometries;
+    }
+
+    /**
+     * Finds a section which must be in the file.
+     *
+     * @param sections the sections' contents by their tags
+     * @param tag      the section tag
+     * @return the section's content
+     * @throws IllegalArgumentException if there is no such section
+     */
+    private static ByteBuffer section(Map<Integer, ByteBuffer> sections, int tag) {
+        ByteBuffer buffer = sections.get(tag);
+        if (buffer == null) throw new IllegalArgumentException("Missing section " + tag);
+        return buffer;
+    }
+
+    /**
+     * Reads the number of a section's records, checking that they may be in the rest of the section.
+     *
+     * @param buffer the section
+     * @param size   the minimal size of a record
+     * @return the number of the records
+     */
+    private static int count(ByteBuffer buffer, int size) {
+        return count(buffer.getInt(), buffer.remaining(), size);
+    }
+
+    /**
+     * Checks that a number of records may be in the rest of a section.
+     *
+     * @param count     the number of the records
+     * @param remaining the size of the rest of the section
+     * @param size      the minimal size of a record
+     * @return the number of the records
+     */
+    private static int count(int count, int remaining, int size) {
+        if (count < 0 || (long) count * size > remaining)
+            throw new IllegalArgumentException("The scene file is truncated");
+        return count;
+    }
+
+    /**
+     * Reads an array of doubles in bulk, advancing the buffer.
+     *
+     * @param buffer the buffer
+     * @param length the length of the array
+     * @return the array
+     */
+    private static double[] doubles(ByteBuffer buffer, int length) {
+        double[] values = new double[length];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + 8 * length);
+        return values;
+    }
+
+    /**
+     * Reads an array of integers in bulk, advancing the buffer.
+     *
+     * @param buffer the buffer
+     * @param length the length of the array
+     * @return the array
+     */
+    private static int[] ints(ByteBuffer buffer, int length) {
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + 4 * length);
+        return values;
+    }
+
+    /**
+     * Reads a color.
+     *
+     * @param buffer the buffer
+     * @return the color
+     */
+    private static Color color(ByteBuffer buffer) {
+        return new Color(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+
+    /**
+     * Reads a point.
+     *
+     * @param buffer the buffer
+     * @return the point
+     */
+    private static Point point(ByteBuffer buffer) {
+        return new Point(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+
+    /**
+     * Reads a vector.
+     *
+     * @param buffer the buffer
+     * @return the vector
+     */
+    private static Vector vector(ByteBuffer buffer) {
+        return new Vector(buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+
+    /**
+     * Takes a point from an array.
+     *
+     * @param values the array
+     * @param at     the index of the first coordinate
+     * @return the point
+     */
+    private static Point point(double[] values, int at) {
+        return new Point(values[at], values[at + 1], values[at + 2]);
+    }
+
+    /**
+     * Takes a vector from an array.
+     *
+     * @param values the array
+     * @param at     the index of the first coordinate
+     * @return the vector
+     */
+    private static Vector vector(double[] values, int at) {
+        return new Vector(values[at], values[at + 1], values[at + 2]);
+    }
+
+    /**
+     * Takes a triple from an array.
+     *
+     * @param values the array
+     * @param at     the index of the first component
+     * @return the triple
+     */
+    private static Double3 triple(double[] values, int at) {
+        return new Double3(values[at], values[at + 1], values[at + 2]);
+    }
+}
@@ -0,0 +1,410 @@
+package scene;
+
+import geometries.*;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import primitives.Color;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import renderer.Camera;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static scene.SceneFormat.*;
+
+/**
+ * Writer of scenes in the binary {@link SceneFormat scene format}, to be loaded by {@link SceneLoader}.
+ * <p>
+ * The geometries of the scene's (nested) collections are written in their order, grouped by their kind in
+ * arrays of numbers, and the materials and the emission colors are written once for all their geometries.
+ * The supported geometries are the spheres, planes, triangles, polygons, tubes, cylinders and triangle meshes,
+ * whose hierarchies are written as well, so loading does not build them again. The supported lights are the
+ * directional, point and spot lights.
+ * @author Ayala Houri and Shani Zegal
+ */
+public class SceneWriter {
+    private final Logger logger = Logger.getLogger("SceneWriter");
+
+    // the output
+    private FileChannel channel;
+    private long position;
+
+    /**
+     * Writes a scene with no camera.
+     *
+     * @param path  the file
+     * @param scene the scene
+     * @throws IllegalArgumentException if the scene has a geometry or a light of an unsupported kind
+     * @throws IllegalStateException    on an I/O error
+     */
+    public void write(Path path, Scene scene) {
+        write(path, scene, null);
+    }
+
+    /**
+     * Writes a scene with a camera.
+     *
+     * @param path   the file
+     * @param scene  the scene
+     * @param camera the camera, or null for none
+     * @throws IllegalArgumentException if the scene has a geometry or a light of an unsupported kind
+     * @throws IllegalStateException    on an I/O error
+     */
+    public void write(Path path, Scene scene, Camera camera) {
+        List<Geometry> geometries = new ArrayList<>();
+        flatten(scene.getGeometries(), geometries);
+
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel = file;
+            position = 0;
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, 8).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION);
+            position = 8;
+
+            byte[] name = scene.getName().getBytes(StandardCharsets.UTF_8);
+            buffer = section(SCENE, 4L + name.length + 6 * 8);
+            buffer.putInt(name.length).put(name);
+            put(buffer, scene.getBackground());
+            put(buffer, scene.getAmbientLight().getIntensity());
+
+            if (camera != null) {
+                buffer = section(CAMERA, 12 * 8);
+                put(buffer, camera.getP0());
+                put(buffer, camera.getvTo());
+                put(buffer, camera.getvUp());
+                buffer.putDouble(camera.getWidth()).putDouble(camera.getHeight()).putDouble(camera.getDistance());
+            }
+
+            writeLights(scene.getLights());
+            writeGeometries(geometries);
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "I/O error", e);
+            throw new IllegalStateException("I/O error - can't write " + path, e);
+        } finally {
+            channel = null;
+        }
+    }
+
+    /**
+     * Collects the geometries of a collection and of its nested collections, in their order.
+     *
+     * @param collection the collection
+     * @param geometries receives the geometries
+     */
+    private static void flatten(Geometries collection, List<Geometry> geometries) {
+        for (Intersectable item : collection.getIntersectables())
+            if (item instanceof Geometries nested) flatten(nested, geometries);
+            else if (item instanceof Geometry geometry) geometries.add(geometry);
+            else throw new IllegalArgumentException("Can't write a " + item.getClass().getSimpleName());
+    }
+
+    /**
+     * Writes the lights section.
+     *
+     * @param lights the lights
+     * @throws IOException on an I/O error
+     */
+    private void writeLights(List<LightSource> lights) throws IOException {
+        double[] values = new double[LIGHT_DOUBLES * lights.size()];
+        byte[] kinds = new byte[lights.size()];
+        int i = 0;
+        for (LightSource light : lights) {
+            int v = LIGHT_DOUBLES * i;
+            if (light.getClass() == DirectionalLight.class) {
+                DirectionalLight directional = (DirectionalLight) light;
+                kinds[i] = DIRECTIONAL_LIGHT;
+                put(values, v, directional.getIntensity());
+                put(values, v + 6, directional.getDirection());
+            } else if (light.getClass() == PointLight.class || light.getClass() == SpotLight.class) {
+                PointLight point = (PointLight) light;
+                kinds[i] = POINT_LIGHT;
+                put(values, v, point.getIntensity());
+                put(values, v + 3, point.getPosition());
+                put(values, v + 9, point.getKc());
+                put(values, v + 12, point.getKl());
+                put(values, v + 15, point.getKq());
+                if (light instanceof SpotLight spot) {
+                    kinds[i] = SPOT_LIGHT;
+                    put(values, v + 6, spot.getDirection());
+                    values[v + 18] = spot.getConcentration();
+                }
+            } else throw new IllegalArgumentException("Can't write a " + light.getClass().getSimpleName());
+            ++i;
+        }
+        ByteBuffer buffer = section(LIGHTS, 4 + 8L * values.length + kinds.length);
+        buffer.putInt(kinds.length);
+        putDoubles(buffer, values);
+        buffer.put(kinds);
+    }
+
+    /**
+     * Writes the materials, the emissions, the geometries and the geometries' kinds sections.
+     *
+     * @param geometries the geometries
+     * @throws IOException on an I/O error
+     */
+    private void writeGeometries(List<Geometry> geometries) throws IOException {
+        int size = geometries.size();
+        byte[] kinds = new byte[size];
+        int[] materials = new int[size];
+        int[] emissions = new int[size];
+        int[] counts = new int[GEOMETRY_SECTIONS.length];
+        // each material object and each emission color is written once
+        Map<Material, Integer> materialIndices = new IdentityHashMap<>();
+        Map<List<Double>, Integer> emissionIndices = new HashMap<>();
+        for (int i = 0; i < size; ++i) {
+            Geometry geometry = geometries.get(i);
+            kinds[i] = kind(geometry);
+            ++counts[kinds[i]];
+            materials[i] = materialIndices.computeIfAbsent(geometry.getMaterial(), key -> materialIndices.size());
+            Color emission = geometry.getEmission();
+            emissions[i] = emissionIndices.computeIfAbsent(List.of(emission.getR(), emission.getG(), emission.getB()),
+                    key -> emissionIndices.size());
+        }
+
+        double[] values = new double[MATERIAL_DOUBLES * materialIndices.size()];
+        int[] ints = new int[MATERIAL_INTS * materialIndices.size()];
+        for (Map.Entry<Material, Integer> entry : materialIndices.entrySet()) {
+            Material material = entry.getKey();
+            int v = MATERIAL_DOUBLES * entry.getValue();
+            put(values, v, material.getKd());
+            put(values, v + 3, material.getKs());
+            put(values, v + 6, material.getKt());
+            put(values, v + 9, material.getKr());
+            ints[MATERIAL_INTS * entry.getValue()] = material.getShininess();
+            ints[MATERIAL_INTS * entry.getValue() + 1] = material.getMaxDepth();
+        }
+        ByteBuffer buffer = section(MATERIALS, 4 + 8L * values.length + 4L * ints.length);
+        buffer.putInt(materialIndices.size());
+        putDoubles(buffer, values);
+        putInts(buffer, ints);
+
+        values = new double[3 * emissionIndices.size()];
+        for (Map.Entry<List<Double>, Integer> entry : emissionIndices.entrySet())
+            for (int c = 0; c < 3; ++c) values[3 * entry.getValue() + c] = entry.getKey().get(c);
+        buffer = section(EMISSIONS, 4 + 8L * values.length);
+        buffer.putInt(emissionIndices.size());
+        putDoubles(buffer, values);
+
+        buffer = section(GEOMETRIES, 4 + 9L * size);
+        buffer.putInt(size);
+        putInts(buffer, materials);
+        putInts(buffer, emissions);
+        buffer.put(kinds);
+
+        for (byte kind = 0; kind < GEOMETRY_SECTIONS.length; ++kind)
+            if (counts[kind] > 0) writeKind(kind, counts[kind], geometries, kinds);
+    }
+
+    /**
+     * Writes the section of a kind of geometries, or the sections of the meshes.
+     *
+     * @param kind       the kind
+     * @param count      the number of the geometries of the kind
+     * @param geometries the geometries
+     * @param kinds      the kinds of the geometries
+     * @throws IOException on an I/O error
+     */
+    private void writeKind(byte kind, int count, List<Geometry> geometries, byte[] kinds) throws IOException {
+        if (kind == MESH) {
+            // a section of each mesh, so only a single mesh is limited by the size of a mapping
+            for (int i = 0; i < kinds.length; ++i)
+                if (kinds[i] == MESH) {
+                    TriangleMesh mesh = (TriangleMesh) geometries.get(i);
+                    mesh.encode(section(MESHES, mesh.getEncodedSize()));
+                }
+            return;
+        }
+
+        if (kind == POLYGON) {
+            int[] sizes = new int[count];
+            int total = 0, k = 0;
+            for (int i = 0; i < kinds.length; ++i)
+                if (kinds[i] == POLYGON) {
+                    sizes[k] = ((Polygon) geometries.get(i)).getVertices().size();
+                    total += sizes[k++];
+                }
+            double[] values = new double[3 * total];
+            int v = 0;
+            for (int i = 0; i < kinds.length; ++i)
+                if (kinds[i] == POLYGON)
+                    for (Point vertex : ((Polygon) geometries.get(i)).getVertices()) {
+                        put(values, v, vertex);
+                        v += 3;
+                    }
+            ByteBuffer buffer = section(POLYGONS, 8 + 4L * count + 8L * values.length);
+            buffer.putInt(count).putInt(total);
+            putInts(buffer, sizes);
+            putDoubles(buffer, values);
+            return;
+        }
+
+        int stride = GEOMETRY_DOUBLES[kind];
+        double[] values = new double[stride * count];
+        int v = 0;
+        for (int i = 0; i < kinds.length; ++i) {
+            if (kinds[i] != kind) continue;
+            Geometry geometry = geometries.get(i);
+            switch (kind) {
+                case SPHERE -> {
+                    put(values, v, ((Sphere) geometry).getCenter());
+                    values[v + 3] = ((Sphere) geometry).getRadius();
+                }
+                case PLANE -> {
+                    put(values, v, ((Plane) geometry).getP0());
+                    put(values, v + 3, ((Plane) geometry).getNormal());
+                }
+                case TRIANGLE -> {
+                    List<Point> vertices = ((Triangle) geometry).getVertices();
+                    for (int p = 0; p < 3; ++p) put(values, v + 3 * p, vertices.get(p));
+                }
+                default -> { // a tube or a cylinder
+                    Tube tube = (Tube) geometry;
+                    put(values, v, tube.getAxisRay().getP0());
+                    put(values, v + 3, tube.getAxisRay().getDir());
+                    values[v + 6] = tube.getRadius();
+                    if (kind == CYLINDER) values[v + 7] = ((Cylinder) tube).getHeight();
+                }
+            }
+            v += stride;
+        }
+        ByteBuffer buffer = section(GEOMETRY_SECTIONS[kind], 4 + 8L * values.length);
+        buffer.putInt(count);
+        putDoubles(buffer, values);
+    }
+
+    /**
+     * Finds the kind of a geometry.
+     *
+     * @param geometry the geometry
+     * @return the kind
+     * @throws IllegalArgumentException for an unsupported geometry
+     */
+    private static byte kind(Geometry geometry) {
+        Class<?> type = geometry.getClass();
+        if (type == Sphere.class) return SPHERE;
+        if (type == Plane.class) return PLANE;
+        if (type == Triangle.class) return TRIANGLE;
+        if (type == Polygon.class) return POLYGON;
+        if (type == Tube.class) return TUBE;
+        if (type == Cylinder.class) return CYLINDER;
+        if (type == TriangleMesh.class) return MESH;
+        throw new IllegalArgumentException("Can't write a " + type.getSimpleName());
+    }
+
+    /**
+     * Maps a new section at the end of the file and puts its tag and length.
+     *
+     * @param tag    the section tag
+     * @param length the length of the section's content
+     * @return the mapping of the section's content
+     * @throws IOException on an I/O error
+     */
+    private ByteBuffer section(int tag, long length) throws IOException {
+        if (length > Integer.MAX_VALUE - SECTION_HEADER)
+            throw new IllegalArgumentException("Section " + tag + " is too large");
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, SECTION_HEADER + length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(tag).putLong(length);
+        position += SECTION_HEADER + length;
+        return buffer;
+    }
+
+    /**
+     * Puts an array of doubles in a buffer, advancing it.
+     *
+     * @param buffer the buffer
+     * @param values the array
+     */
+    private static void putDoubles(ByteBuffer buffer, double[] values) {
+        buffer.asDoubleBuffer().put(values);
+        buffer.position(buffer.position() + 8 * values.length);
+    }
+
+    /**
+     * Puts an array of integers in a buffer, advancing it.
+     *
+     * @param buffer the buffer
+     * @param values the array
+     */
+    private static void putInts(ByteBuffer buffer, int[] values) {
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + 4 * values.length);
+    }
+
+    /**
+     * Puts the components of a color in a buffer.
+     *
+     * @param buffer the buffer
+     * @param color  the color
+     */
+    private static void put(ByteBuffer buffer, Color color) {
+        buffer.putDouble(color.getR()).putDouble(color.getG()).putDouble(color.getB());
+    }
+
+    /**
+     * Puts the coordinates of a point (or a vector) in a buffer.
+     *
+     * @param buffer the buffer
+     * @param point  the point
+     */
+    private static void put(ByteBuffer buffer, Point point) {
+        buffer.putDouble(point.getX()).putDouble(point.getY()).putDouble(point.getZ());
+    }
+
+    /**
+     * Puts the components of a color in an array.
+     *
+     * @param values the array
+     * @param at     the index of the first component
+     * @param color  the color
+     */
+    private static void put(double[] values, int at, Color color) {
+        values[at] = color.getR();
+        values[at + 1] = color.getG();
+        values[at + 2] = color.getB();
+    }
+
+    /**
+     * Puts the coordinates of a point (or a vector) in an array.
+     *
+     * @param values the array
+     * @param at     the index of the first coordinate
+     * @param point  the point
+     */
+    private static void put(double[] values, int at, Point point) {
+        values[at] = point.getX();
+        values[at + 1] = point.getY();
+        values[at + 2] = point.getZ();
+    }
+
+    /**
+     * Puts the components of a triple in an array.
+     *
+     * @param values the array
+     * @param at     the index of the first component
+     * @param triple the triple
+     */
+    private static void put(double[] values, int at, Double3 triple) {
+        values[at] = triple.getD1();
+        values[at + 1] = triple.getD2();
+        values[at + 2] = triple.getD3();
+    }
+}
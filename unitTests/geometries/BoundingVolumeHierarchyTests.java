@@ -0,0 +1,148 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.BoundingVolumeHierarchy class
+ * @author Ayala Houri and Shani Zegal
+ */
+class BoundingVolumeHierarchyTests {
+
+    /**
+     * Test method for {@link geometries.BoundingVolumeHierarchy#findIntersections(Ray)}.
+     */
+    @Test
+    void findIntersections() {
+        Plane plane = new Plane(new Point(1, 0, 0), new Point(2, 0, 0), new Point(1.5, 0, 1));
+        Sphere sphere = new Sphere(new Point(1, 0, 1), 1);
+        Triangle triangle = new Triangle(new Point(0, 2, 0), new Point(2, 2, 0), new Point(1.5, 2, 2));
+        BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy(new Geometries(plane, sphere, triangle));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: More then one object intersect (but not all the objects)
+        assertEquals(3, bvh.findIntersections(new Ray(new Point(1, 1.5, 1), new Vector(0, -1, 0))).size(),
+                "More then one object intersect (but not all the objects)");
+
+        // TC02: The ray misses all the boxes but hits the unbounded plane
+        assertEquals(1, bvh.findIntersections(new Ray(new Point(10, 1, 10), new Vector(0, -1, 0))).size(),
+                "Only the plane supposed to be intersected");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Empty hierarchy
+        assertNull(new BoundingVolumeHierarchy(new Geometries())
+                        .findIntersections(new Ray(new Point(1, 1, 1), new Vector(0, -1, 0))),
+                "The hierarchy is empty");
+
+        // TC11: No intersection with the objects
+        assertNull(bvh.findIntersections(new Ray(new Point(1, -1, 1), new Vector(0, -1, 0))),
+                "The ray suppose not intersect the objects");
+
+        // TC12: All the objects intersect
+        assertEquals(4, bvh.findIntersections(new Ray(new Point(1, 2.5, 1), new Vector(0, -1, 0))).size(),
+                "Suppose to be 4 intersection points");
+    }
+
+    /**
+     * Test that a hierarchy over many objects finds the same intersections as the flat collection.
+     */
+    @Test
+    void sameAsGeometries() {
+        Random random = new Random(7);
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < 300; ++i) {
+            Point p = new Point(random.nextDouble(-50, 50), random.nextDouble(-50, 50), random.nextDouble(-50, 50));
+            if (i % 2 == 0)
+                geometries.add(new Sphere(p, random.nextDouble(0.5, 3)));
+            else
+                geometries.add(new Triangle(p, p.add(new Vector(random.nextDouble(1, 4), 0, 0)),
+                        p.add(new Vector(0, random.nextDouble(1, 4), random.nextDouble(-1, 1)))));
+        }
+        // a nested group is flattened into the hierarchy
+        geometries.add(new Geometries(new Sphere(new Point(0, 0, 0), 5)));
+        BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy(geometries);
+
+        for (int i = 0; i < 500; ++i) {
+            Ray ray = new Ray(new Point(random.nextDouble(-60, 60), random.nextDouble(-60, 60), 100),
+                    new Vector(random.nextDouble(-0.5, 0.5), random.nextDouble(-0.5, 0.5), -1));
+            List<Point> expected = geometries.findIntersections(ray);
+            List<Point> result = bvh.findIntersections(ray);
+            if (expected == null)
+                assertNull(result, "BVH found an intersection the flat collection did not");
+            else {
+                assertNotNull(result, "BVH missed an intersection");
+                assertEquals(expected.size(), result.size(), "Wrong number of intersections");
+                assertTrue(result.containsAll(expected), "Wrong intersection points");
+                assertEquals(geometries.findClosestIntersection(ray).getPoint(), bvh.findClosestIntersection(ray).getPoint(),
+                        "Wrong closest intersection");
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestIntersections(RayPacket)}.
+     */
+    @Test
+    void findClosestIntersections() {
+        Random random = new Random(11);
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < 300; ++i) {
+            Point p = new Point(random.nextDouble(-50, 50), random.nextDouble(-50, 50), random.nextDouble(-50, 50));
+            if (i % 2 == 0)
+                geometries.add(new Sphere(p, random.nextDouble(0.5, 3)));
+            else
+                geometries.add(new Triangle(p, p.add(new Vector(random.nextDouble(1, 4), 0, 0)),
+                        p.add(new Vector(0, random.nextDouble(1, 4), random.nextDouble(-1, 1)))));
+        }
+        geometries.add(new Plane(new Point(0, 0, -60), new Vector(0, 0, 1)));
+        BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy(geometries);
+
+        Point head = new Point(0, 0, 100);
+        Ray[] rays = new Ray[16];
+        for (int packet = 0; packet < 100; ++packet) {
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: A coherent packet - rays from the same head in a narrow cone
+            // TC02: An incoherent packet - rays from different heads in all the directions
+            boolean coherent = packet % 2 == 0;
+            double x = random.nextDouble(-0.5, 0.5), y = random.nextDouble(-0.5, 0.5);
+            for (int k = 0; k < rays.length; ++k)
+                rays[k] = coherent
+                        ? new Ray(head, new Vector(x + k % 4 * 0.01, y + k / 4 * 0.01, -1))
+                        : new Ray(new Point(random.nextDouble(-60, 60), random.nextDouble(-60, 60), 100),
+                        new Vector(random.nextDouble(-1, 1), random.nextDouble(-1, 1), random.nextDouble(-1, 1)));
+            for (Intersectable intersectable : new Intersectable[] { geometries, bvh }) {
+                RayPacket result = new RayPacket(rays, rays.length);
+                intersectable.findClosestIntersections(result);
+                for (int k = 0; k < rays.length; ++k) {
+                    Intersectable.GeoPoint expected = intersectable.findClosestIntersection(rays[k]);
+                    Intersectable.GeoPoint closest = result.getClosest(k);
+                    if (expected == null)
+                        assertNull(closest, "The packet found an intersection of a ray which misses");
+                    else {
+                        assertNotNull(closest, "The packet missed an intersection");
+                        assertSame(expected.geometry, closest.geometry, "Wrong closest geometry");
+                        assertEquals(expected.t, closest.t, "Wrong closest distance");
+                    }
+                }
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A packet of a single ray
+        RayPacket single = new RayPacket(new Ray[] { new Ray(head, new Vector(0, 0, -1)) }, 1);
+        bvh.findClosestIntersections(single);
+        assertSame(bvh.findClosestIntersection(single.getRay(0)).geometry, single.getClosest(0).geometry,
+                "Wrong closest geometry of a single ray");
+
+        // TC11: Illegal packet sizes
+        assertThrows(IllegalArgumentException.class, () -> new RayPacket(rays, 0), "An empty packet");
+        assertThrows(IllegalArgumentException.class, () -> new RayPacket(new Ray[65], 65), "A too large packet");
+    }
+}
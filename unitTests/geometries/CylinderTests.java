@@ -5,6 +5,8 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 
@@ -46,4 +48,70 @@ public class CylinderTests {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * Test method for {@link geometries.Cylinder#findGeoIntersections(primitives.Ray, double)}.
+     */
+    @Test
+    public void testFindIntersections() {
+        Cylinder cyl = new Cylinder(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 1, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray crosses the side twice
+        assertEquals(List.of(new Point(1, 0, 1), new Point(-1, 0, 1)),
+                cyl.findIntersections(new Ray(new Point(2, 0, 1), new Vector(-1, 0, 0))),
+                "The ray supposed to cross the side twice");
+
+        // TC02: The ray crosses both bases
+        assertEquals(List.of(new Point(0.5, 0, 2), new Point(0.5, 0, 0)),
+                cyl.findIntersections(new Ray(new Point(0.5, 0, 5), new Vector(0, 0, -1))),
+                "The ray supposed to cross both bases");
+
+        // TC03: The ray crosses the side and a base
+        assertEquals(List.of(new Point(1, 0, 0.5), new Point(0.5, 0, 0)),
+                cyl.findIntersections(new Ray(new Point(2, 0, 1.5), new Vector(-1, 0, -1))),
+                "The ray supposed to cross the side and the lower base");
+
+        // TC04: The ray crosses the tube beyond the height
+        assertNull(cyl.findIntersections(new Ray(new Point(2, 0, 3), new Vector(-1, 0, 0))),
+                "The ray supposed to miss the cylinder");
+
+        // TC05: The ray starts inside the cylinder
+        assertEquals(List.of(new Point(1, 0, 1)),
+                cyl.findIntersections(new Ray(new Point(0, 0, 1), new Vector(1, 0, 0))),
+                "The ray supposed to cross the side once");
+
+        // TC06: The far intersection is beyond the maximal distance
+        assertEquals(1, cyl.findGeoIntersections(new Ray(new Point(0.5, 0, 5), new Vector(0, 0, -1)), 4).size(),
+                "Only the upper base supposed to be found");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The ray crosses the rims of both bases
+        assertEquals(List.of(new Point(1, 0, 2), new Point(-1, 0, 0)),
+                cyl.findIntersections(new Ray(new Point(2, 0, 3), new Vector(-1, 0, -1))),
+                "Each rim supposed to be found once");
+
+        // TC11: The ray lies in a base's plane
+        assertNull(cyl.findIntersections(new Ray(new Point(2, 0, 2), new Vector(-1, 0, 0))),
+                "A ray in the base's plane supposed not to intersect");
+    }
+
+    /**
+     * Test method for {@link geometries.Cylinder#getBoundingBox()}.
+     */
+    @Test
+    public void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The box of an axis aligned cylinder
+        BoundingBox box = new Cylinder(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 1, 2).getBoundingBox();
+        assertArrayEquals(new double[] { -1, -1, 0, 1, 1, 2 },
+                new double[] { box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ }, 1e-10,
+                "Wrong bounding box of the cylinder");
+
+        // TC02: The box of a slanted cylinder
+        box = new Cylinder(new Ray(new Point(0, 0, 0), new Vector(1, 0, 1)), 1, Math.sqrt(2)).getBoundingBox();
+        double e = Math.sqrt(0.5);
+        assertArrayEquals(new double[] { -e, -1, -e, 1 + e, 1, 1 + e },
+                new double[] { box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ }, 1e-10,
+                "Wrong bounding box of the slanted cylinder");
+    }
+}
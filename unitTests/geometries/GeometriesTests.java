@@ -1,6 +1,8 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -49,4 +51,115 @@ class GeometriesTests {
         assertEquals(4, geometries.findIntersections(rayAllObjectIntersect).size(),
                 "Suppose to be 4 intersection points");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestIntersection(Ray)}.
+     */
+    @Test
+    void findClosestIntersection() {
+        Plane plane = new Plane(new Point(1,0,0), new Point(2,0,0), new Point(1.5,0,1));
+        Sphere sphere = new Sphere(new Point(1,0,1), 1);
+        Triangle triangle = new Triangle(new Point(0,2,0), new Point(2,2,0), new Point(1.5,2,2));
+        Geometries geometries = new Geometries(plane, sphere, triangle);
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The closest of several intersected objects
+        Intersectable.GeoPoint closest =
+                geometries.findClosestIntersection(new Ray(new Point(1,2.5,1), new Vector(0,-1,0)));
+        assertEquals(triangle, closest.geometry, "Wrong closest geometry");
+        assertEquals(new Point(1,2,1), closest.getPoint(), "Wrong closest point");
+
+        //TC02: The closest point of the sphere when the triangle is behind the ray
+        closest = geometries.findClosestIntersection(new Ray(new Point(1,1.5,1), new Vector(0,-1,0)));
+        assertEquals(new Point(1,1,1), closest.getPoint(), "Wrong closest point");
+
+        // =============== Boundary Values Tests ==================
+        //TC10: No intersection with the objects
+        assertNull(geometries.findClosestIntersection(new Ray(new Point(1,-1,1), new Vector(0,-1,0))),
+                "The ray suppose not intersect the objects");
+
+        //TC11: All the intersections are beyond the max distance
+        assertNull(geometries.findClosestIntersection(new Ray(new Point(1,2.5,1), new Vector(0,-1,0)), 0.4),
+                "The intersections are beyond the max distance");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findTransparency(Ray, double, double)}.
+     */
+    @Test
+    void findTransparency() {
+        Sphere sphere = new Sphere(new Point(0,0,0), 1);
+        sphere.setMaterial(new Material().setKt(0.5));
+        Triangle triangle = new Triangle(new Point(-1,3,-1), new Point(1,3,-1), new Point(0,3,1));
+        triangle.setMaterial(new Material().setKt(0.4));
+        Plane plane = new Plane(new Point(0,5,0), new Vector(0,1,0));
+        Geometries geometries = new Geometries(sphere, triangle, plane);
+        Ray ray = new Ray(new Point(0,-2,0), new Vector(0,1,0));
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: Two transparent objects (the sphere is crossed twice) before the end of the segment
+        assertEquals(new Double3(0.5 * 0.5 * 0.4), geometries.findTransparency(ray, 6, 0.001),
+                "Wrong accumulated transparency");
+
+        //TC02: The opaque plane blocks the ray
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, 10, 0.001), "The plane supposed to block");
+
+        // =============== Boundary Values Tests ==================
+        //TC10: No object in the segment
+        assertEquals(Double3.ONE, geometries.findTransparency(ray, 0.5, 0.001), "Nothing supposed to block");
+
+        //TC11: The product drops below the threshold
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, 6, 0.2), "Supposed to be considered opaque");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#getBoundingBox()}.
+     */
+    @Test
+    void getBoundingBox() {
+        // =============== Boundary Values Tests ==================
+        // TC10: Empty collection - the box is empty and no ray can cross it
+        Geometries geometries = new Geometries();
+        assertTrue(geometries.getBoundingBox().isEmpty(), "The box of an empty collection supposed to be empty");
+        assertFalse(geometries.getBoundingBox().intersects(new Ray(new Point(0, 0, 0), new Vector(1, 0, 0)),
+                Double.POSITIVE_INFINITY), "A ray supposed not to cross an empty box");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The box is the union of the objects' boxes, and it is updated when objects are added
+        geometries.add(new Sphere(new Point(0, 0, 0), 1));
+        BoundingBox box = geometries.getBoundingBox();
+        assertArrayEquals(new double[] { -1, -1, -1, 1, 1, 1 },
+                new double[] { box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ }, 1e-10,
+                "Wrong bounding box of one sphere");
+        geometries.add(new Triangle(new Point(2, 0, 0), new Point(3, 0, 0), new Point(3, 2, 0)));
+        box = geometries.getBoundingBox();
+        assertArrayEquals(new double[] { -1, -1, -1, 3, 2, 1 },
+                new double[] { box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ }, 1e-10,
+                "The bounding box supposed to be updated by adding an object");
+
+        // TC02: A group missed by the ray is rejected while the other objects are still found
+        Geometries scene = new Geometries(geometries, new Plane(new Point(0, 0, -5), new Vector(0, 0, 1)));
+        assertEquals(1, scene.findIntersections(new Ray(new Point(10, 10, 5), new Vector(0, 0, -1))).size(),
+                "Only the plane supposed to be intersected");
+        assertEquals(3, scene.findIntersections(new Ray(new Point(0, 0, 5), new Vector(0, 0, -1))).size(),
+                "The sphere and the plane supposed to be intersected");
+
+        // TC03: A collection with an unbounded object has an infinite box
+        assertTrue(scene.getBoundingBox().isInfinite(), "The box of a collection with a plane supposed to be infinite");
+
+        // TC04: The box of a collection is updated when objects are added to a nested collection
+        Geometries nested = new Geometries();
+        Geometries outer = new Geometries();
+        outer.add(nested);
+        Ray ray = new Ray(new Point(10, 10, 5), new Vector(0, 0, -1));
+        assertNull(outer.findIntersections(ray), "An empty collection supposed not to be intersected");
+        nested.add(new Sphere(new Point(10, 10, 0), 1));
+        assertEquals(2, outer.findIntersections(ray).size(),
+                "The sphere added to the nested collection supposed to be intersected");
+
+        // TC05: Adding objects to another collection keeps the cached box of a collection
+        box = outer.getBoundingBox();
+        geometries.add(new Sphere(new Point(-10, 0, 0), 1));
+        assertSame(box, outer.getBoundingBox(), "The box supposed not to be calculated again");
+    }
+}
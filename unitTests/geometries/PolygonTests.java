@@ -2,6 +2,7 @@ package geometries;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -9,8 +10,11 @@ import static primitives.Util.isZero;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import geometries.Polygon;
 import primitives.Point;
+import primitives.Ray;
 import primitives.Vector;
 
 /** Testing Polygons
@@ -85,5 +89,36 @@ public class PolygonTests {
                     "Polygon's normal is not orthogonal to one of the edges");
    }
 
+   /** Test method for {@link geometries.Polygon#findGeoIntersections(primitives.Ray, double)}. */
+   @Test
+   public void testFindGeoIntersections() {
+      Polygon pol = new Polygon(new Point(0, 0, 0), new Point(2, 0, 0), new Point(2, 2, 0), new Point(0, 2, 0));
+
+      // ============ Equivalence Partitions Tests ==============
+      // TC01: The ray crosses the polygon
+      assertEquals(List.of(new Point(1, 1, 0)),
+                   pol.findIntersections(new Ray(new Point(1, 1, 1), new Vector(0, 0, -1))),
+                   "The ray supposed to cross the polygon");
+
+      // TC02: The ray crosses the polygon's plane outside the polygon
+      assertNull(pol.findIntersections(new Ray(new Point(3, 1, 1), new Vector(0, 0, -1))),
+                 "The ray supposed to miss the polygon");
 
+      // TC03: The polygon is beyond the maximal distance
+      assertNull(pol.findGeoIntersections(new Ray(new Point(1, 1, 2), new Vector(0, 0, -1)), 1),
+                 "The polygon is beyond the maximal distance");
+
+      // =============== Boundary Values Tests ==================
+      // TC10: The ray crosses an edge
+      assertNull(pol.findIntersections(new Ray(new Point(2, 1, 1), new Vector(0, 0, -1))),
+                 "The point on an edge supposed not to be found");
+
+      // TC11: The ray crosses a vertex
+      assertNull(pol.findIntersections(new Ray(new Point(2, 2, 1), new Vector(0, 0, -1))),
+                 "The point in a vertex supposed not to be found");
+
+      // TC12: The polygon is exactly at the maximal distance
+      assertEquals(1, pol.findGeoIntersections(new Ray(new Point(1, 1, 1), new Vector(0, 0, -1)), 1).size(),
+                   "The polygon at the maximal distance supposed to be found");
+   }
 }
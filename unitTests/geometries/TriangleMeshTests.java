@@ -0,0 +1,244 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for geometries.TriangleMesh class
+ * @author Ayala Houri and Shani Zegal
+ */
+class TriangleMeshTests {
+    /** The vertices of a bumpy grid of 20x20 squares over [0,20]x[0,20], two triangles each */
+    private static final double[] GRID_VERTICES = new double[3 * 21 * 21];
+    /** The triangles of the grid */
+    private static final int[] GRID_INDICES = new int[6 * 20 * 20];
+
+    static {
+        Random random = new Random(3);
+        for (int i = 0; i <= 20; ++i)
+            for (int j = 0; j <= 20; ++j) {
+                int v = 3 * (i * 21 + j);
+                GRID_VERTICES[v] = j;
+                GRID_VERTICES[v + 1] = i;
+                GRID_VERTICES[v + 2] = random.nextDouble(-1, 1);
+            }
+        int k = 0;
+        for (int i = 0; i < 20; ++i)
+            for (int j = 0; j < 20; ++j) {
+                int v = i * 21 + j;
+                GRID_INDICES[k++] = v;
+                GRID_INDICES[k++] = v + 1;
+                GRID_INDICES[k++] = v + 22;
+                GRID_INDICES[k++] = v;
+                GRID_INDICES[k++] = v + 22;
+                GRID_INDICES[k++] = v + 21;
+            }
+    }
+
+    /**
+     * Builds the triangles of the grid as separate objects.
+     *
+     * @return the triangles
+     */
+    private static Geometries gridTriangles() {
+        Geometries triangles = new Geometries();
+        for (int k = 0; k < GRID_INDICES.length; k += 3)
+            triangles.add(new Triangle(gridPoint(GRID_INDICES[k]), gridPoint(GRID_INDICES[k + 1]),
+                    gridPoint(GRID_INDICES[k + 2])));
+        return triangles;
+    }
+
+    /**
+     * Returns a vertex of the grid.
+     *
+     * @param v the vertex index
+     * @return the vertex
+     */
+    private static Point gridPoint(int v) {
+        return new Point(GRID_VERTICES[3 * v], GRID_VERTICES[3 * v + 1], GRID_VERTICES[3 * v + 2]);
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(double[], int[], float[])}.
+     */
+    @Test
+    void testConstructor() {
+        double[] vertices = { 0, 0, 0, 1, 0, 0, 0, 1, 0, 2, 0, 0 };
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A correct mesh of two triangles
+        TriangleMesh mesh = new TriangleMesh(vertices, new int[] { 0, 1, 2, 1, 3, 2 });
+        assertEquals(2, mesh.getTriangleCount(), "Wrong number of triangles");
+        assertEquals(4, mesh.getVertexCount(), "Wrong number of vertices");
+
+        // TC02: Triangles of no area are dropped
+        assertEquals(1, new TriangleMesh(vertices, new int[] { 0, 1, 2, 0, 1, 3, 2, 2, 1 }).getTriangleCount(),
+                "Degenerate triangles supposed to be dropped");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Incomplete triples
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(new double[] { 0, 0, 0, 1 }, new int[] { 0, 0, 0 }), "Incomplete vertex");
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(vertices, new int[] { 0, 1, 2, 3 }), "Incomplete triangle");
+
+        // TC11: Index out of the vertices
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(vertices, new int[] { 0, 1, 4 }), "Index after the last vertex");
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(vertices, new int[] { -1, 1, 2 }), "Negative index");
+
+        // TC12: No triangle at all
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(vertices, new int[0]), "Empty mesh");
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(vertices, new int[] { 0, 1, 3 }), "Only a degenerate triangle");
+
+        // TC13: Normals which don't match the vertices
+        assertThrows(IllegalArgumentException.class,
+                () -> new TriangleMesh(vertices, new int[] { 0, 1, 2 }, new float[] { 0, 0, 1 }), "Missing normals");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findGeoIntersections(Ray)} and
+     * {@link geometries.TriangleMesh#findClosestIntersection(Ray)}.
+     */
+    @Test
+    void findIntersections() {
+        Geometries triangles = gridTriangles();
+        TriangleMesh mesh = new TriangleMesh(GRID_VERTICES, GRID_INDICES);
+        BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy(new Geometries(mesh));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Rays in all the directions hit the mesh where they hit its triangles
+        Random random = new Random(9);
+        for (int i = 0; i < 1000; ++i) {
+            Ray ray = new Ray(new Point(random.nextDouble(-5, 25), random.nextDouble(-5, 25), random.nextDouble(-3, 3)),
+                    new Vector(random.nextDouble(-1, 1), random.nextDouble(-1, 1), random.nextDouble(-1, 1)));
+            List<Point> expected = triangles.findIntersections(ray);
+            List<Point> result = mesh.findIntersections(ray);
+            if (expected == null)
+                assertNull(result, "The mesh found an intersection its triangles did not");
+            else {
+                assertNotNull(result, "The mesh missed an intersection");
+                assertEquals(expected.size(), result.size(), "Wrong number of intersections");
+                assertTrue(result.containsAll(expected), "Wrong intersection points");
+            }
+            GeoPoint closest = triangles.findClosestIntersection(ray);
+            for (Intersectable intersectable : new Intersectable[] { mesh, bvh }) {
+                GeoPoint result1 = intersectable.findClosestIntersection(ray);
+                if (closest == null)
+                    assertNull(result1, "The mesh found a closest intersection its triangles did not");
+                else {
+                    assertNotNull(result1, "The mesh missed the closest intersection");
+                    assertSame(mesh, result1.geometry, "The intersection supposed to be with the mesh");
+                    assertEquals(closest.t, result1.t, "Wrong closest distance");
+                    assertEquals(closest.geometry.getNormal(closest.getPoint()), result1.getNormal(),
+                            "Wrong normal of the closest intersection");
+                }
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The intersection is farther than the maximal distance
+        Ray down = new Ray(new Point(10.3, 10.6, 5), new Vector(0, 0, -1));
+        double t = mesh.findClosestIntersection(down).t;
+        assertNull(mesh.findClosestIntersection(down, t / 2), "The intersection is too far");
+        assertNull(mesh.findGeoIntersections(down, t / 2), "The intersection is too far");
+
+        // TC11: The ray goes through a shared vertex - no triangle is hit, as for separate triangles
+        assertNull(mesh.findIntersections(new Ray(new Point(10, 10, 5), new Vector(0, 0, -1))),
+                "A vertex is not an intersection");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#encode(ByteBuffer)} and
+     * {@link geometries.TriangleMesh#decode(ByteBuffer)}.
+     */
+    @Test
+    void testEncode() {
+        float[] normals = new float[GRID_VERTICES.length];
+        for (int v = 2; v < normals.length; v += 3) normals[v] = 1;
+        TriangleMesh mesh = new TriangleMesh(GRID_VERTICES, GRID_INDICES, normals);
+        ByteBuffer buffer = ByteBuffer.allocate((int) mesh.getEncodedSize() + 3).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(3);
+        mesh.encode(buffer);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The decoded mesh (of an unaligned encoding) is intersected as the encoded one
+        assertFalse(buffer.hasRemaining(), "The encoding supposed to be of its size");
+        buffer.position(3);
+        TriangleMesh decoded = TriangleMesh.decode(buffer);
+        assertFalse(buffer.hasRemaining(), "The decoding supposed to read all the encoding");
+        assertEquals(mesh.getTriangleCount(), decoded.getTriangleCount(), "Wrong number of triangles");
+        Random random = new Random(11);
+        for (int i = 0; i < 300; ++i) {
+            Ray ray = new Ray(new Point(random.nextDouble(-5, 25), random.nextDouble(-5, 25), 5),
+                    new Vector(random.nextDouble(-1, 1), random.nextDouble(-1, 1), -1));
+            GeoPoint expected = mesh.findClosestIntersection(ray), result = decoded.findClosestIntersection(ray);
+            if (expected == null) assertNull(result, "The decoded mesh found an intersection");
+            else {
+                assertEquals(expected.t, result.t, "Wrong closest distance");
+                assertEquals(expected.getNormal(), result.getNormal(), "Wrong normal");
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A truncated encoding
+        assertThrows(BufferUnderflowException.class,
+                () -> TriangleMesh.decode(buffer.position(3).limit(buffer.capacity() - 1)), "A truncated encoding");
+
+        // TC11: An index out of the vertices
+        buffer.limit(buffer.capacity());
+        int nodes = buffer.getInt(3 + 8);
+        buffer.putInt(3 + 16 + 8 * (GRID_VERTICES.length + mesh.getTriangleCount() + 6 * nodes),
+                GRID_VERTICES.length / 3);
+        assertThrows(IllegalArgumentException.class, () -> TriangleMesh.decode(buffer.position(3)),
+                "An index out of the vertices");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#getNormal(Point)} and
+     * {@link geometries.TriangleMesh.MeshPoint#getNormal()}.
+     */
+    @Test
+    void testGetNormal() {
+        // a square of two triangles in the plane z = 0, bent by the normals of the vertices
+        double[] vertices = { 0, 0, 0, 2, 0, 0, 2, 2, 0, 0, 2, 0 };
+        int[] indices = { 0, 1, 2, 0, 2, 3 };
+        float[] normals = { 0, 0, 1, 1, 0, 0, 0, 0, 1, 0, 0, 1 };
+        TriangleMesh flat = new TriangleMesh(vertices, indices);
+        TriangleMesh smooth = new TriangleMesh(vertices, indices, normals);
+        Ray ray = new Ray(new Point(1.5, 0.5, 1), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Flat shading - the triangle's normal
+        assertEquals(new Vector(0, 0, 1), flat.getNormal(new Point(1.5, 0.5, 0)), "Wrong flat normal");
+        assertEquals(new Vector(0, 0, 1), flat.findClosestIntersection(ray).getNormal(), "Wrong flat normal");
+
+        // TC02: Smooth shading - the interpolation of the vertices' normals (0.5 of the 2nd vertex, 0.25 of the
+        // 1st and 3rd ones)
+        Vector expected = new Vector(0.5, 0, 0.5).normalize();
+        assertEquals(expected, smooth.getNormal(new Point(1.5, 0.5, 0)), "Wrong smooth normal");
+        assertEquals(expected, smooth.findClosestIntersection(ray).getNormal(), "Wrong smooth normal");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: On a vertex - the vertex's normal
+        assertEquals(new Vector(1, 0, 0), smooth.getNormal(new Point(2, 0, 0)), "Wrong normal on a vertex");
+
+        // TC11: A point out of the mesh
+        assertThrows(IllegalArgumentException.class, () -> flat.getNormal(new Point(1, 1, 1)), "Above the mesh");
+        assertThrows(IllegalArgumentException.class, () -> flat.getNormal(new Point(3, 1, 0)), "Beside the mesh");
+    }
+}
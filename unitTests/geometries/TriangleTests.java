@@ -73,5 +73,40 @@ class TriangleTests {
                 "The point supposed to be on edge's continuation");
     }
 
+    /**
+     * Test method for {@link geometries.Triangle#intersect(Ray, double, double[])}
+     */
+    @Test
+    void intersect() {
+        Triangle t = new Triangle(new Point(0, 1, 0), new Point(0, 5, 0), new Point(0, 3, 5));
+        Ray ray = new Ray(new Point(1, 3, 0), new Vector(-1, 0, 1));
+        double[] barycentric = new double[2];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The distance and the barycentric coordinates of the intersection point (0,3,1)
+        assertEquals(Math.sqrt(2), t.intersect(ray, Double.POSITIVE_INFINITY, barycentric), 1e-10,
+                "Wrong intersection distance");
+        assertEquals(0.4, barycentric[0], 1e-10, "Wrong barycentric coordinate of the second vertex");
+        assertEquals(0.2, barycentric[1], 1e-10, "Wrong barycentric coordinate of the third vertex");
 
-}
\ No newline at end of file
+        // TC02: The intersection point is beyond the maximal distance
+        assertEquals(Triangle.NO_HIT, t.intersect(ray, 1, null), "The point is beyond the maximal distance");
+
+        // TC03: The triangle is behind the ray
+        assertNull(t.findGeoIntersections(new Ray(new Point(-1, 3, 2), new Vector(-1, 0, 1))),
+                "The triangle is behind the ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The intersection point is exactly at the maximal distance
+        assertEquals(Math.sqrt(2), t.intersect(ray, Math.sqrt(2), null), 1e-10,
+                "The point at the maximal distance supposed to be found");
+
+        // TC11: The ray lies in the triangle's plane
+        assertNull(t.findGeoIntersections(new Ray(new Point(0, 0, 1), new Vector(0, 1, 0))),
+                "A ray in the triangle's plane supposed not to intersect");
+
+        // TC12: The ray starts inside the triangle
+        assertNull(t.findGeoIntersections(new Ray(new Point(0, 3, 1), new Vector(-1, 0, 1))),
+                "A ray starting on the triangle supposed not to intersect");
+    }
+}
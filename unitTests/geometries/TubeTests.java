@@ -5,6 +5,8 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -35,4 +37,43 @@ public class TubeTests {
 //        Point p = new Point(1,0,0);
 //        assertEquals(p, t.getNormal(p), "Point is \"across\" from axis ray");
     }
-}
\ No newline at end of file
+
+    /** Test method for {@link geometries.Tube#findGeoIntersections(primitives.Ray, double)}. */
+    @Test
+    public void testFindIntersections() {
+        Tube tube = new Tube(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The ray crosses the tube
+        assertEquals(List.of(new Point(1, 0, 0.5), new Point(-1, 0, 0.5)),
+                tube.findIntersections(new Ray(new Point(2, 0, 0.5), new Vector(-1, 0, 0))),
+                "The ray supposed to cross the tube twice");
+
+        // TC02: The ray misses the tube
+        assertNull(tube.findIntersections(new Ray(new Point(2, 0, 0.5), new Vector(0, 1, 0))),
+                "The ray supposed to miss the tube");
+
+        // TC03: The ray starts inside the tube
+        assertEquals(List.of(new Point(0, 1, 3)),
+                tube.findIntersections(new Ray(new Point(0, 0.5, 3), new Vector(0, 1, 0))),
+                "The ray supposed to cross the tube once");
+
+        // TC04: The second intersection is beyond the maximal distance
+        assertEquals(1, tube.findGeoIntersections(new Ray(new Point(2, 0, 0.5), new Vector(-1, 0, 0)), 2).size(),
+                "Only the near intersection supposed to be found");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The ray is parallel to the axis
+        assertNull(tube.findIntersections(new Ray(new Point(0.5, 0, 0), new Vector(0, 0, 1))),
+                "A ray parallel to the axis supposed not to intersect");
+
+        // TC11: The ray starts at the axis ray head
+        assertEquals(List.of(new Point(1, 0, 0)),
+                tube.findIntersections(new Ray(new Point(0, 0, 0), new Vector(1, 0, 0))),
+                "The ray from the axis head supposed to cross the tube once");
+
+        // TC12: The ray is tangent to the tube
+        assertNull(tube.findIntersections(new Ray(new Point(1, -1, 0), new Vector(0, 1, 0))),
+                "A tangent ray supposed not to intersect");
+    }
+}
@@ -1,5 +1,6 @@
 package primitives;
 
+import geometries.Intersectable.GeoPoint;
 import org.junit.jupiter.api.Test;
 
 import java.util.LinkedList;
@@ -50,4 +51,31 @@ class RayTests {
         point3DList.clear();
         assertNull(ray3.findClosestPoint(point3DList), "The list is empty!!");
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the {@link Ray#findClosestGeoPoint(List)} method.
+     */
+    @Test
+    void findClosestGeoPoint() {
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, 2));
+        GeoPoint gp1 = new GeoPoint(null, ray, 1);
+        GeoPoint gp2 = new GeoPoint(null, ray, 2);
+        GeoPoint gp3 = new GeoPoint(null, ray, 3);
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The closest point is in the middle of the list
+        assertEquals(gp1, ray.findClosestGeoPoint(List.of(gp2, gp1, gp3)), "The point in the middle!!");
+        assertEquals(new Point(0, 0, 1), ray.findClosestGeoPoint(List.of(gp2, gp1, gp3)).getPoint(),
+                "Wrong point of the closest intersection");
+
+        // =============== Boundary Values Tests ==================
+        //TC10: The closest point is the first point in the list
+        assertEquals(gp1, ray.findClosestGeoPoint(List.of(gp1, gp2, gp3)), "The point is the first one!!");
+
+        //TC11: The closest point is the last point in the list
+        assertEquals(gp1, ray.findClosestGeoPoint(List.of(gp3, gp2, gp1)), "The point is the last one!!");
+
+        //TC12: The list is empty
+        assertNull(ray.findClosestGeoPoint(List.of()), "The list is empty!!");
+    }
+}
@@ -0,0 +1,69 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primitives.VectorMath class
+ * @author Ayala Houri and Shani Zegal
+ */
+class VectorMathTests {
+
+    /**
+     * Test method for {@link primitives.VectorMath#dot(double, double, double, double, double, double)}.
+     */
+    @Test
+    public void testDot() {
+        Vector v1 = new Vector(1, 2, 3);
+        Vector v2 = new Vector(-2, -4, 5);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Same result as the vector dot product
+        assertEquals(v1.dotProduct(v2), VectorMath.dot(1, 2, 3, -2, -4, 5), "Wrong dot product");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Orthogonal vectors
+        assertEquals(0, VectorMath.dot(1, 2, 3, 0, 3, -2), "Dot product of orthogonal vectors is not zero");
+    }
+
+    /**
+     * Test method for {@link primitives.VectorMath#dotDifference(Vector, Point, Point)}.
+     */
+    @Test
+    public void testDotDifference() {
+        Vector v = new Vector(1, 2, 3);
+        Point a = new Point(4, 1, -2);
+        Point b = new Point(1, 1, 1);
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Same result as subtracting and multiplying
+        assertEquals(v.dotProduct(a.subtract(b)), VectorMath.dotDifference(v, a, b), "Wrong dot product");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Same points - no zero vector exception
+        assertEquals(0, VectorMath.dotDifference(v, a, a), "Dot product with zero difference is not zero");
+    }
+
+    /**
+     * Test method for {@link primitives.VectorMath#lengthSquared(double, double, double)}.
+     */
+    @Test
+    public void testLengthSquared() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Simple test
+        assertEquals(new Vector(1, 2, 3).lengthSquared(), VectorMath.lengthSquared(1, 2, 3), "Wrong length squared");
+    }
+
+    /**
+     * Test method for {@link primitives.VectorMath#isZeroVector(double, double, double)}.
+     */
+    @Test
+    public void testIsZeroVector() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Not a zero vector
+        assertFalse(VectorMath.isZeroVector(0, 0, 1e-3), "Non zero vector");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Almost zero vector
+        assertTrue(VectorMath.isZeroVector(1e-14, 0, -1e-14), "Almost zero vector");
+    }
+}
@@ -1,9 +1,17 @@
 package renderer;
 
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.PointLight;
 import org.junit.jupiter.api.Test;
+import primitives.Color;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
+import scene.Scene;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -61,4 +69,260 @@ public class CameraTests {
                     camera.setVPSize(8, 8).constructRay(4, 4, 1, 0), badRay);
 
         }
-}
\ No newline at end of file
+
+        /**
+         * Test method for
+         * {@link renderer.Camera#constructRays(double, double, int, int)}.
+         */
+        @Test
+        void testConstructRays() {
+            Camera camera = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                    .setVPDistance(10).setVPSize(4, 4).setNumRays(16);
+
+            // ============ Equivalence Partitions Tests ==============
+            // EP01: The rays pass through the pixel
+            List<Ray> rays = camera.constructRays(4, 4, 2, 1);
+            assertEquals(16, rays.size(), "Wrong number of rays");
+            for (Ray ray : rays) {
+                Point p = ray.getPoint(10 / -ray.getDir().getZ());
+                assertTrue(p.getX() >= 0 && p.getX() <= 1 && p.getY() >= 0 && p.getY() <= 1,
+                        "The ray does not pass through the pixel");
+            }
+
+            // EP02: The rays of a pixel are the same in every render with the same seed
+            assertEquals(rays, camera.constructRays(4, 4, 2, 1), "The sampling is not reproducible");
+
+            // EP03: Other pixels and other seeds get other rays
+            assertNotEquals(camera.constructRays(4, 4, 2, 2).get(0).getDir().getX(), rays.get(0).getDir().getX(),
+                    "Neighbouring pixels share random offsets");
+            assertNotEquals(rays, camera.setSeed(1).constructRays(4, 4, 2, 1), "The seed is ignored");
+        }
+
+        /**
+         * Ray tracer for the tests: the left half of the view (negative x) is black, the right half is white,
+         * and the traced rays are counted
+         */
+        static class HalfPlaneTracer extends RayTracerBase {
+            int count = 0;
+
+            HalfPlaneTracer() {
+                super(new Scene.SceneBuilder("half plane").build());
+            }
+
+            @Override
+            public Color traceRay(Ray ray) {
+                ++count;
+                return ray.getDir().getX() > 0 ? new Color(255, 255, 255) : Color.BLACK;
+            }
+        }
+
+        /**
+         * Test method for
+         * {@link renderer.Camera#constructAdaptiveSuperSampling(int, int, int, int)}.
+         */
+        @Test
+        void testAdaptiveSuperSampling() {
+            HalfPlaneTracer tracer = new HalfPlaneTracer();
+            Camera camera = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                    .setVPDistance(10).setVPSize(4, 4).setNumRays(100).setSuperSampling(true)
+                    .setRayTracer(tracer);
+
+            // ============ Equivalence Partitions Tests ==============
+            // EP01: A pixel of a single color is traced by its 4 corners only
+            assertTrue(Color.BLACK.isSimilar(camera.constructAdaptiveSuperSampling(4, 4, 0, 0), 0),
+                    "Bad color of a uniform pixel");
+            assertEquals(4, tracer.count, "A uniform pixel supposed to be traced by its corners");
+
+            // EP02: A pixel crossed by the edge in its middle gets half of each color
+            tracer.count = 0;
+            Color color = camera.setVPSize(2, 2).constructAdaptiveSuperSampling(1, 1, 0, 0);
+            assertTrue(new Color(127.5, 127.5, 127.5).isSimilar(color, 255d / 8),
+                    "Bad color of a pixel crossed by an edge");
+            assertTrue(tracer.count > 4 && tracer.count < 81, "Only the sub-pixels on the edge supposed to be divided");
+
+            // EP03: Corners shared by neighbouring pixels are traced once
+            camera.setVPSize(4, 4);
+            tracer.count = 0;
+            for (int i = 0; i < 4; ++i)
+                for (int j = 0; j < 4; ++j)
+                    camera.constructAdaptiveSuperSampling(4, 4, j, i);
+            int separately = tracer.count;
+            tracer.count = 0;
+            camera.setImageWriter(new ImageWriter("adaptive", 4, 4)).renderImage();
+            assertTrue(tracer.count < separately, "Shared corners supposed to be traced once");
+
+            // =============== Boundary Values Tests ==================
+            // BV01: With a threshold above any difference the pixels are not divided at all
+            tracer.count = 0;
+            camera.setAdaptiveThreshold(255).renderImage();
+            assertEquals(5 * 5, tracer.count, "Only the pixels' corners supposed to be traced");
+        }
+
+        /**
+         * Test method for
+         * {@link renderer.Camera#setAdaptiveSampling(int, double)}.
+         */
+        @Test
+        void testAdaptiveSampling() {
+            HalfPlaneTracer tracer = new HalfPlaneTracer();
+            // the middle column of pixels is crossed by the edge, the others are uniform
+            Camera camera = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                    .setVPDistance(10).setVPSize(7, 7).setNumRays(64).setSampler(new HaltonSampler())
+                    .setAdaptiveSampling(4, 2).setRayTracer(tracer)
+                    .setImageWriter(new ImageWriter("adaptive sampling", 7, 7));
+
+            // ============ Equivalence Partitions Tests ==============
+            // EP01: Uniform pixels stop at the minimal number of rays, the pixels on the edge get more
+            camera.renderImage();
+            int uniform = 7 * 6 * 4;
+            assertTrue(tracer.count > uniform + 7 * 4, "The pixels on the edge supposed to get more rays");
+            assertTrue(tracer.count <= uniform + 7 * 64, "Uniform pixels supposed to stop at the minimal number of rays");
+
+            // =============== Boundary Values Tests ==================
+            // BV01: Adaptive sampling turned off - all the pixels get all the rays
+            tracer.count = 0;
+            camera.setAdaptiveSampling(0, 2).renderImage();
+            assertEquals(7 * 7 * 64, tracer.count, "All the pixels supposed to get all the rays");
+
+            // BV02: Illegal parameters
+            assertThrows(IllegalArgumentException.class, () -> camera.setAdaptiveSampling(1, 2),
+                    "A single ray has no variance");
+            assertThrows(IllegalArgumentException.class, () -> camera.setAdaptiveSampling(4, 0),
+                    "The tolerance must be positive");
+        }
+
+        /**
+         * Ray tracer for the tests which counts the traced rays (also by several threads)
+         */
+        static class CountingTracer extends RayTracerBasic {
+            final AtomicInteger count = new AtomicInteger();
+
+            CountingTracer(Scene scene) {
+                super(scene);
+            }
+
+            @Override
+            public Color traceRay(Ray ray) {
+                count.incrementAndGet();
+                return super.traceRay(ray);
+            }
+
+            @Override
+            public void traceRays(Ray[] rays, int count, Color[] colors) {
+                this.count.addAndGet(count);
+                super.traceRays(rays, count, colors);
+            }
+
+            @Override
+            public PrimaryHit tracePrimaryRay(Ray ray, boolean shadows) {
+                count.incrementAndGet();
+                return super.tracePrimaryRay(ray, shadows);
+            }
+        }
+
+        /**
+         * Test method for {@link renderer.Camera#setEdgeAntialiasing(boolean, boolean)}.
+         */
+        @Test
+        void testEdgeAntialiasing() {
+            // a sphere in front of a plane, lit from the side so its shadow on the plane is visible
+            Scene scene = new Scene.SceneBuilder("edges").build();
+            scene.geometries.add(new Plane(new Point(0, 0, -30), new Vector(0, 0, 1)),
+                    new Sphere(new Point(0, 0, -15), 3));
+            scene.lights.add(new PointLight(new Color(255, 255, 255), new Point(20, 20, -5)));
+            CountingTracer tracer = new CountingTracer(scene);
+            Camera camera = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                    .setVPDistance(10).setVPSize(8, 8).setNumRays(16).setRayTracer(tracer)
+                    .setImageWriter(new ImageWriter("edge antialiasing", 16, 16));
+
+            // ============ Equivalence Partitions Tests ==============
+            // EP01: Only the pixels around the sphere's silhouette get multiple rays
+            camera.setEdgeAntialiasing(true, false).renderImage();
+            int silhouette = tracer.count.get() - 16 * 16;
+            assertEquals(0, silhouette % 16, "The refined pixels supposed to get all the rays");
+            assertTrue(silhouette > 0, "The pixels on the silhouette supposed to get more rays");
+            assertTrue(silhouette < 16 * 16 * 16 / 2, "The pixels off the silhouette supposed to get a single ray");
+
+            // EP02: The shadow boundary is refined as well
+            tracer.count.set(0);
+            camera.setEdgeAntialiasing(true, true).renderImage();
+            int shadowed = tracer.count.get();
+            assertTrue(shadowed - 16 * 16 > silhouette, "The pixels on the shadow boundary supposed to get more rays");
+
+            // EP03: The same pixels are refined with multithreading
+            tracer.count.set(0);
+            camera.setMultithreading(3).setTileSize(5).renderImage();
+            assertEquals(shadowed, tracer.count.get(), "Multithreading supposed to refine the same pixels");
+            camera.setMultithreading(0);
+
+            // =============== Boundary Values Tests ==================
+            // BV01: A single ray per pixel - nothing to refine
+            tracer.count.set(0);
+            camera.setNumRays(1).renderImage();
+            assertEquals(16 * 16, tracer.count.get(), "A single ray per pixel supposed to be traced");
+
+            // BV02: Turned off - all the pixels get all the rays
+            tracer.count.set(0);
+            camera.setNumRays(16).setEdgeAntialiasing(false, false).renderImage();
+            assertEquals(16 * 16 * 16, tracer.count.get(), "All the pixels supposed to get all the rays");
+        }
+
+        /**
+         * Renders the image of a camera, single threaded or with several threads.
+         *
+         * @param camera  the camera
+         * @param threads the number of threads, 0 for a single thread
+         * @return the rendered image
+         */
+        private static ImageWriter render(Camera camera, int threads) {
+            ImageWriter imageWriter = new ImageWriter("multithreading", 23, 23);
+            camera.setImageWriter(imageWriter).setMultithreading(threads).renderImage();
+            return imageWriter;
+        }
+
+        /**
+         * Test method for {@link renderer.Camera#setMultithreading(int)}.
+         */
+        @Test
+        void testMultithreading() {
+            Scene scene = new Scene.SceneBuilder("multithreading").build();
+            scene.geometries.add(new Plane(new Point(0, 0, -30), new Vector(0, 0, 1)),
+                    new Sphere(new Point(0, 0, -15), 3));
+            scene.lights.add(new PointLight(new Color(255, 255, 255), new Point(20, 20, -5)));
+            Camera camera = new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0))
+                    .setVPDistance(10).setVPSize(8, 8).setRayTracer(new RayTracerBasic(scene)).setTileSize(5);
+
+            // ============ Equivalence Partitions Tests ==============
+            // EP01: A single ray per pixel
+            assertEquals(0, render(camera, 3).rootMeanSquareError(render(camera, 0)),
+                    "Multithreading changed the image of a single ray per pixel");
+
+            // EP02: Super sampling
+            camera.setNumRays(16);
+            assertEquals(0, render(camera, 3).rootMeanSquareError(render(camera, 0)),
+                    "Multithreading changed the super sampled image");
+
+            // EP03: Adaptive super sampling
+            camera.setSuperSampling(true);
+            assertEquals(0, render(camera, 3).rootMeanSquareError(render(camera, 0)),
+                    "Multithreading changed the adaptive super sampled image");
+            camera.setSuperSampling(false);
+
+            // EP04: Adaptive sampling
+            camera.setAdaptiveSampling(4, 2);
+            assertEquals(0, render(camera, 3).rootMeanSquareError(render(camera, 0)),
+                    "Multithreading changed the adaptively sampled image");
+            camera.setAdaptiveSampling(0, 2);
+
+            // EP05: Edge antialiasing
+            camera.setEdgeAntialiasing(true, true);
+            assertEquals(0, render(camera, 3).rootMeanSquareError(render(camera, 0)),
+                    "Multithreading changed the edge antialiased image");
+
+            // =============== Boundary Values Tests ==================
+            // BV01: A single tile for every thread
+            camera.setTileSize(23);
+            assertEquals(0, render(camera, 3).rootMeanSquareError(render(camera, 0)),
+                    "Multithreading changed the image of a single tile");
+        }
+}
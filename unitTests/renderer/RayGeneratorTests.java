@@ -0,0 +1,67 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.RayGenerator}
+ * @author Ayala Houri and Shani Zegal
+ */
+class RayGeneratorTests {
+    /** A camera which is not aligned to the axes */
+    private final Point p0 = new Point(1, 2, 3);
+    private final Vector vTo = new Vector(1, 1, 0).normalize();
+    private final Vector vUp = new Vector(0, 0, 1);
+    private final Vector vRight = vTo.crossProduct(vUp).normalize();
+    private final RayGenerator generator = new RayGenerator(p0, vTo, vUp, vRight, 10, 8, 6, 4, 3);
+
+    /**
+     * Test method for {@link renderer.RayGenerator#directions(int, int, int, int, double[])}.
+     */
+    @Test
+    void directions() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The rays of a tile are the rays through the centers of its pixels
+        double[] dirs = new double[3 * 2 * 3];
+        generator.directions(1, 3, 1, 4, dirs);
+        int k = 0;
+        for (int i = 1; i < 3; ++i)
+            for (int j = 1; j < 4; ++j)
+                assertEquals(generator.pixelRay(i, j, 0.5, 0.5), generator.ray(dirs, k++),
+                        "Bad ray of pixel [" + i + "," + j + "]");
+
+        // TC02: A pixel has exactly the same direction in any block
+        double[] single = new double[3];
+        generator.directions(2, 3, 3, 4, single);
+        assertArrayEquals(new double[] { dirs[3 * 5], dirs[3 * 5 + 1], dirs[3 * 5 + 2] }, single, 0,
+                "The direction depends on the block");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A scanline of a single pixel at the view plane's corner
+        dirs = new double[3];
+        generator.directions(0, 1, 0, 1, dirs);
+        Point corner = p0.add(vTo.scale(10)).add(vRight.scale(-3)).add(vUp.scale(2));
+        assertEquals(new Ray(p0, corner.subtract(p0)), generator.ray(dirs, 0), "Bad ray of the corner pixel");
+    }
+
+    /**
+     * Test method for {@link renderer.RayGenerator#pixelRay(int, int, double, double)}.
+     */
+    @Test
+    void pixelRay() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A point inside a pixel, right and below its center
+        Point point = p0.add(vTo.scale(10)).add(vRight.scale(-1 + 0.5)).add(vUp.scale(0 - 0.5));
+        assertEquals(new Ray(p0, point.subtract(p0)), generator.pixelRay(1, 1, 0.75, 0.75), "Bad sample ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: The top left corner of the view plane
+        point = p0.add(vTo.scale(10)).add(vRight.scale(-4)).add(vUp.scale(3));
+        assertEquals(new Ray(p0, point.subtract(p0)), generator.pixelRay(0, 0, 0, 0), "Bad corner ray");
+        assertEquals(new Ray(p0, point.subtract(p0)), generator.rayThrough(-4, 3), "Bad ray through the corner");
+    }
+}
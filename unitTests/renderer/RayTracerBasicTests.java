@@ -0,0 +1,146 @@
+package renderer;
+
+import geometries.Geometries;
+import geometries.Plane;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link renderer.RayTracerBasic}
+ * @author Ayala Houri and Shani Zegal
+ */
+class RayTracerBasicTests {
+    /**
+     * Geometries which count the closest intersection queries, i.e. the traced rays
+     */
+    static class CountingGeometries extends Geometries {
+        int count = 0;
+
+        CountingGeometries(Geometries... geometries) {
+            super(geometries);
+        }
+
+        @Override
+        protected GeoPoint findClosestIntersectionHelper(Ray ray, double maxDistance) {
+            ++count;
+            return super.findClosestIntersectionHelper(ray, maxDistance);
+        }
+    }
+
+    /**
+     * Builds a scene of two facing glowing mirrors, with the camera rays bouncing between them.
+     *
+     * @param material the mirrors' material
+     * @return the mirrors
+     */
+    private static CountingGeometries mirrors(Material material) {
+        return new CountingGeometries(new Geometries(
+                new Plane(new Point(0, 0, -10), new Vector(0, 0, 1))
+                        .setEmission(new Color(100, 100, 100)).setMaterial(material),
+                new Plane(new Point(0, 0, 10), new Vector(0, 0, -1))
+                        .setEmission(new Color(100, 100, 100)).setMaterial(material)));
+    }
+
+    /**
+     * Traces a grid of 32x32 rays from the origin towards the -z mirror.
+     *
+     * @param tracer the ray tracer
+     * @return the average red component of the rays' colors
+     */
+    private static double averageRed(RayTracerBase tracer) {
+        return averageRed(tracer, 32);
+    }
+
+    /**
+     * Traces a grid of rays from the origin towards the -z mirror, over the same angles for any grid size.
+     *
+     * @param tracer the ray tracer
+     * @param side   the number of rays along a side of the grid
+     * @return the average red component of the rays' colors
+     */
+    private static double averageRed(RayTracerBase tracer, int side) {
+        double sum = 0, step = 0.32 / side, first = -0.16 + step / 2;
+        for (int i = 0; i < side; ++i)
+            for (int j = 0; j < side; ++j)
+                sum += tracer.traceRay(new Ray(new Point(0, 0, 0), new Vector(first + i * step, first + j * step, -1)))
+                        .getR();
+        return sum / (side * side);
+    }
+
+    /**
+     * Test method for {@link renderer.RayTracerBasic#setRussianRoulette(int)}.
+     */
+    @Test
+    void testRussianRoulette() {
+        // each bounce weights the color by 0.7 * 0.7, up to 5 bounces
+        double expected = 0;
+        for (int depth = 0; depth <= 5; ++depth)
+            expected += 100 * Math.pow(0.49, depth);
+
+        CountingGeometries geometries = mirrors(new Material().setKr(0.7));
+        RayTracerBasic tracer = new RayTracerBasic(new Scene.SceneBuilder("mirrors").setGeometries(geometries).build());
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Without Russian roulette all the bounces are traced
+        assertEquals(expected, averageRed(tracer), 0.001, "Bad color of full depth tracing");
+        int full = geometries.count;
+
+        // TC02: Russian roulette keeps the expected color (within 2% over 128x128 rays), and traces much fewer rays
+        geometries.count = 0;
+        double red = averageRed(tracer.setRussianRoulette(1), 128);
+        assertEquals(expected, red, expected * 0.02, "Russian roulette supposed to be unbiased");
+        assertTrue(geometries.count * 2 < 16 * full, "Russian roulette supposed to terminate most of the rays");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Russian roulette from a depth beyond the deepest bounce - nothing is terminated
+        geometries.count = 0;
+        assertEquals(expected, averageRed(tracer.setRussianRoulette(25)), 0.001, "No ray supposed to be terminated");
+        assertEquals(full, geometries.count, "All the rays supposed to be traced");
+
+        // TC11: Negative depth
+        assertThrows(IllegalArgumentException.class, () -> tracer.setRussianRoulette(-1), "Negative depth");
+    }
+
+    /**
+     * Test method for {@link renderer.RayTracerBasic#traceRay(Ray)}.
+     */
+    @Test
+    void testDepthCap() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Perfect mirrors never make a ray negligible - the rays stop after 5 bounces
+        CountingGeometries geometries = mirrors(new Material().setKr(1));
+        RayTracerBasic tracer = new RayTracerBasic(new Scene.SceneBuilder("mirrors").setGeometries(geometries).build());
+        double red = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> averageRed(tracer),
+                "The tracing of facing mirrors supposed to end");
+        assertEquals(6 * 100, red, 0.001, "Bad color of 5 bounces");
+        assertEquals(6 * 32 * 32, geometries.count, "A camera ray and 5 reflected ones supposed to be traced");
+    }
+
+    /**
+     * Test method for {@link primitives.Material#setMaxDepth(int)}.
+     */
+    @Test
+    void testMaxDepth() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A camera ray is reflected once and stops at the other mirror
+        CountingGeometries geometries = mirrors(new Material().setKr(0.7).setMaxDepth(1));
+        RayTracerBasic tracer = new RayTracerBasic(new Scene.SceneBuilder("mirrors").setGeometries(geometries).build());
+        assertEquals(100 + 49, averageRed(tracer), 0.001, "Bad color of a single bounce");
+        assertEquals(2 * 32 * 32, geometries.count, "A camera ray and a reflected one supposed to be traced");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Zero depth - only the local color
+        geometries = mirrors(new Material().setKr(0.7).setMaxDepth(0));
+        tracer = new RayTracerBasic(new Scene.SceneBuilder("mirrors").setGeometries(geometries).build());
+        assertEquals(100, averageRed(tracer), 0.001, "Bad color without reflections");
+        assertEquals(32 * 32, geometries.count, "Only the camera rays supposed to be traced");
+
+        // TC11: Negative depth
+        assertThrows(IllegalArgumentException.class, () -> new Material().setMaxDepth(-1), "Negative depth");
+    }
+}
@@ -38,7 +38,8 @@ public class RenderTests {
               .setVPSize(500, 500) //
               .setImageWriter(new ImageWriter("base render test MP1", 1000, 1000))
               .setRayTracer(new RayTracerBasic(scene))
-              .setNumRays(100);
+              .setNumRays(100)
+              .setMultithreading(3);
 
       camera.renderImage();
       camera.printGrid(100, new Color(YELLOW));
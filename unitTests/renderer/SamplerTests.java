@@ -0,0 +1,174 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the pixel samplers
+ * @author Ayala Houri and Shani Zegal
+ */
+class SamplerTests {
+    /** All the samplers */
+    private final Sampler[] samplers = {
+            new RandomSampler(), new StratifiedSampler(), new HaltonSampler(), new BlueNoiseSampler() };
+
+    /**
+     * Ray tracer for the tests: a white disc on a black background
+     */
+    static class DiscTracer extends RayTracerBase {
+        int count = 0;
+
+        DiscTracer() {
+            super(new Scene.SceneBuilder("disc").build());
+        }
+
+        @Override
+        public Color traceRay(Ray ray) {
+            ++count;
+            Vector dir = ray.getDir();
+            double x = dir.getX() / -dir.getZ();
+            double y = dir.getY() / -dir.getZ();
+            return x * x + y * y < 0.09 ? new Color(255, 255, 255) : Color.BLACK;
+        }
+    }
+
+    /**
+     * Counts the samples in each cell of a grid over the pixel.
+     *
+     * @param offsets the samples
+     * @param cols    the number of the grid columns
+     * @param rows    the number of the grid rows
+     * @return the numbers of samples in the cells, row by row
+     */
+    private static int[] cellCounts(double[] offsets, int cols, int rows) {
+        int[] counts = new int[cols * rows];
+        for (int k = 0; k < offsets.length / 2; ++k)
+            ++counts[(int) (offsets[2 * k + 1] * rows) * cols + (int) (offsets[2 * k] * cols)];
+        return counts;
+    }
+
+    /**
+     * Test method for {@link renderer.Sampler#samples(long, int, int, double[])}.
+     */
+    @Test
+    void samples() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: All the samples are in the pixel, reproducible, and different in other pixels
+        for (Sampler sampler : samplers) {
+            double[] offsets = new double[2 * 37];
+            sampler.samples(5, 3, 4, offsets);
+            for (double offset : offsets)
+                assertTrue(offset >= 0 && offset < 1, sampler.getClass().getSimpleName() + ": sample out of the pixel");
+            double[] again = new double[2 * 37];
+            sampler.samples(5, 3, 4, again);
+            assertArrayEquals(offsets, again, sampler.getClass().getSimpleName() + ": not reproducible");
+            sampler.samples(5, 4, 3, again);
+            assertNotEquals(offsets[0], again[0], sampler.getClass().getSimpleName() + ": same samples in other pixel");
+        }
+
+        // TC02: Stratified samples - one sample in each cell of a square grid
+        double[] offsets = new double[2 * 16];
+        new StratifiedSampler().samples(1, 0, 0, offsets);
+        assertArrayEquals(new int[] { 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 }, cellCounts(offsets, 4, 4),
+                "Stratified samples are not one per cell");
+
+        // TC03: Halton samples - one sample in each cell of a 2^a x 3^b grid, also when scrambled
+        offsets = new double[2 * 12];
+        new HaltonSampler().samples(1, 2, 7, offsets);
+        assertArrayEquals(new int[] { 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 }, cellCounts(offsets, 4, 3),
+                "Halton samples are not one per elementary cell");
+
+        // TC04: Blue noise samples - the shifts over the mask are uniformly distributed
+        int[] histogram = new int[16];
+        offsets = new double[2];
+        BlueNoiseSampler blueNoise = new BlueNoiseSampler();
+        for (int i = 0; i < 64; ++i)
+            for (int j = 0; j < 64; ++j) {
+                blueNoise.samples(0, i, j, offsets);
+                ++histogram[(int) (offsets[0] * 16)];
+            }
+        for (int count : histogram)
+            assertEquals(256, count, "The blue noise mask is not uniformly distributed");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Stratified samples of a count which is not a square - one sample in each cell of equal area
+        offsets = new double[2 * 5];
+        new StratifiedSampler().samples(1, 0, 0, offsets);
+        for (int k = 0; k < 3; ++k)
+            assertTrue(offsets[2 * k + 1] < 0.6 && (int) (offsets[2 * k] * 3) == k, "Bad stratum in the upper row");
+        for (int k = 3; k < 5; ++k)
+            assertTrue(offsets[2 * k + 1] >= 0.6 && (int) (offsets[2 * k] * 2) == k - 3, "Bad stratum in the lower row");
+    }
+
+    /**
+     * Test that the stratified and the low-discrepancy samplers reduce the error of the image compared to a
+     * reference rendered with many rays per pixel.
+     */
+    @Test
+    void errorReduction() {
+        Camera camera = new Camera(new Point(0, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(1).setVPSize(1, 1).setRayTracer(new DiscTracer());
+        ImageWriter reference = new ImageWriter("sampler reference", 24, 24);
+        camera.setImageWriter(reference).setSampler(new StratifiedSampler()).setNumRays(1024).renderImage();
+
+        double[] errors = new double[samplers.length];
+        for (int s = 0; s < samplers.length; ++s) {
+            ImageWriter image = new ImageWriter("sampler " + s, 24, 24);
+            camera.setImageWriter(image).setSampler(samplers[s]).setNumRays(16).renderImage();
+            errors[s] = image.rootMeanSquareError(reference);
+        }
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: All the structured samplers have less error than the random one
+        for (int s = 1; s < samplers.length; ++s)
+            assertTrue(errors[s] < errors[0], samplers[s].getClass().getSimpleName()
+                    + " error " + errors[s] + " is not lower than the random error " + errors[0]);
+
+        // =============== Boundary Values Tests ==================
+        // TC10: An image has no error compared to itself
+        assertEquals(0, reference.rootMeanSquareError(reference), "An image supposed to equal itself");
+    }
+
+    /**
+     * Test that adaptive sampling keeps the error of the image close to the one of all the rays in every pixel,
+     * compared to a reference rendered with many rays per pixel.
+     */
+    @Test
+    void adaptiveError() {
+        DiscTracer tracer = new DiscTracer();
+        Camera camera = new Camera(new Point(0, 0, 0), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPDistance(1).setVPSize(1, 1).setRayTracer(tracer);
+        ImageWriter reference = new ImageWriter("adaptive reference", 24, 24);
+        camera.setImageWriter(reference).setSampler(new StratifiedSampler()).setNumRays(1024).renderImage();
+
+        ImageWriter full = new ImageWriter("full count", 24, 24);
+        tracer.count = 0;
+        camera.setImageWriter(full).setSampler(new HaltonSampler()).setNumRays(64).renderImage();
+        int fullCount = tracer.count;
+        double fullError = full.rootMeanSquareError(reference);
+
+        ImageWriter adaptive = new ImageWriter("adaptive", 24, 24);
+        tracer.count = 0;
+        camera.setImageWriter(adaptive).setAdaptiveSampling(32, 2).renderImage();
+        double adaptiveError = adaptive.rootMeanSquareError(reference);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Adaptive sampling traces fewer rays with an error within 10% of the full count's
+        assertTrue(tracer.count < 0.6 * fullCount, "Adaptive sampling traced " + tracer.count + " of "
+                + fullCount + " rays");
+        assertTrue(adaptiveError < 1.1 * fullError, "Adaptive error " + adaptiveError
+                + " is not within 10% of the full count error " + fullError);
+
+        // TC02: For the same number of rays adaptive sampling has less error than a fixed count
+        ImageWriter fixed = new ImageWriter("fixed count", 24, 24);
+        camera.setImageWriter(fixed).setAdaptiveSampling(0, 2).setNumRays(32).renderImage();
+        assertTrue(adaptiveError < fixed.rootMeanSquareError(reference),
+                "Adaptive error supposed to be lower than the error of 32 rays for every pixel");
+    }
+}
@@ -0,0 +1,179 @@
+package scene;
+
+import geometries.Intersectable.GeoPoint;
+import geometries.TriangleMesh;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for scene.ObjLoader class
+ * @author Ayala Houri and Shani Zegal
+ */
+class ObjLoaderTests {
+    /**
+     * Loads a model from a text.
+     *
+     * @param obj the OBJ text
+     * @return the mesh
+     */
+    private static TriangleMesh load(String obj) throws IOException {
+        return new ObjLoader().load(Channels.newChannel(new ByteArrayInputStream(obj.getBytes(StandardCharsets.UTF_8))),
+                "test");
+    }
+
+    /**
+     * Finds the closest intersection of a vertical ray through a point of the xy plane.
+     *
+     * @param mesh the mesh
+     * @param x    the x of the point
+     * @param y    the y of the point
+     * @return the intersection, null if there is none
+     */
+    private static GeoPoint down(TriangleMesh mesh, double x, double y) {
+        return mesh.findClosestIntersection(new Ray(new Point(x, y, 10), new Vector(0, 0, -1)));
+    }
+
+    /**
+     * Test method for {@link scene.ObjLoader#load(Path)}.
+     */
+    @Test
+    void testLoad() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A file with a quad (split into two triangles), comments and skipped statements
+        Path file = Files.createTempFile("quad", ".obj");
+        Files.writeString(file, """
+                # a unit square at z = 1
+                mtllib square.mtl
+                o square
+                v 0 0 1
+                v 1 0 1
+                v 1 1 1 # a comment after a vertex
+                v 0 1 1
+                vt 0 0
+                usemtl white
+                s off
+                f 1 2 3 4
+                """);
+        ObjLoader loader = new ObjLoader();
+        TriangleMesh mesh = loader.load(file);
+        Files.delete(file);
+        assertEquals(2, mesh.getTriangleCount(), "The quad supposed to be split into two triangles");
+        assertEquals(9, down(mesh, 0.7, 0.2).t, 1e-12, "Wrong intersection with the 1st triangle");
+        assertEquals(9, down(mesh, 0.2, 0.7).t, 1e-12, "Wrong intersection with the 2nd triangle");
+        assertTrue(loader.getMegabytesPerSecond() > 0, "The throughput supposed to be measured");
+        assertTrue(loader.getTrianglesPerSecond() > 0, "The throughput supposed to be measured");
+
+        // TC02: Relative indices, texture and normal references, and Windows line ends
+        mesh = load("v 0 0 0\r\nv 1 0 0\r\nvt 0 0\r\nvn 0 0 1\r\nv 0 1 0\r\nf -3/1/1 -2/1/1 -1/1/1\r\n");
+        assertEquals(1, mesh.getTriangleCount(), "Wrong number of triangles");
+        assertEquals(10, down(mesh, 0.2, 0.2).t, 1e-12, "Wrong intersection");
+
+        // TC03: Smooth faces - the normals of the vertices are interpolated, and a vertex referred to with two
+        // normals is duplicated for the second one
+        mesh = load("""
+                v 0 0 0
+                v 1 0 0
+                v 0 1 0
+                v -1 0 0
+                vn 0 0 1
+                vn 1 0 0
+                f 1//1 2//2 3//1
+                f 1//2 3//1 4//1
+                """);
+        assertEquals(5, mesh.getVertexCount(), "The 1st vertex supposed to be duplicated");
+        assertEquals(new Vector(1, 0, 3).normalize(), down(mesh, 0.25, 0.25).getNormal(),
+                "Wrong interpolated normal");
+        assertEquals(new Vector(1, 0, 3).normalize(), down(mesh, -0.25, 0.5).getNormal(),
+                "Wrong normal of the duplicated vertex");
+
+        // TC04: Vertices which follow a duplication are still referred to by their indices, absolute and relative
+        mesh = load("""
+                v 0 0 0
+                v 1 0 0
+                v 0 1 0
+                vn 0 0 1
+                vn 1 0 0
+                f 1//1 2//1 3//1
+                f 1//2 2//2 3//2
+                v 10 10 0
+                v 11 10 0
+                v 10 11 0
+                f 4 5 6
+                f -3//1 -2//1 -1//2
+                """);
+        assertEquals(9, mesh.getVertexCount(), "The 3 first vertices supposed to be duplicated");
+        assertEquals(new Point(10, 10, 0), mesh.getVertex(3), "The vertices supposed to precede the duplicates");
+        assertEquals(10, down(mesh, 10.2, 10.2).t, 1e-12, "The face of the later vertices supposed to be hit");
+
+        // TC05: Numbers of all the forms are converted exactly, as by Double.parseDouble
+        for (String text : new String[] { "1e2", "-.5", "+2.", "0.000", "-0", "7", "0.1", "1.7976931348623157E308",
+                "123456789012345678901234", "0.12345678901234567890123", "1E-400", "4.9e-324", "0x1p3",
+                "9007199254740993", "2.2250738585072011e-308", "1.00000000000000011102230246251565404236316680908203125" })
+            assertEquals(Double.parseDouble(text), loadX(text), "Bad conversion of " + text);
+        Random random = new Random(13);
+        for (int i = 0; i < 300; ++i) {
+            double value = random.nextDouble(-1e4, 1e4) * Math.pow(10, random.nextInt(-30, 30));
+            String text = random.nextBoolean() ? Double.toString(value) : String.format("%.6f", value);
+            assertEquals(Double.parseDouble(text), loadX(text), "Bad conversion of " + text);
+        }
+        // full precision numbers of 16 to 19 significant digits, over the whole range of doubles
+        for (int i = 0; i < 300; ++i) {
+            double value = Double.longBitsToDouble(random.nextLong(0x7FF0000000000000L));
+            String text = switch (i % 3) {
+                case 0 -> Double.toString(value);
+                case 1 -> String.format("%.16e", value);
+                default -> String.format("%.18e", value);
+            };
+            assertEquals(Double.parseDouble(text), loadX(text), "Bad conversion of " + text);
+        }
+
+        // TC06: Indented statements
+        mesh = load("v 0 0 0\n  v 1 0 0\n\tv 0 1 0\n \t f -3 -2 -1\n");
+        assertEquals(1, mesh.getTriangleCount(), "Wrong number of triangles");
+        assertEquals(new Point(1, 0, 0), mesh.getVertex(1), "The indented vertex supposed to be read");
+        assertEquals(10, down(mesh, 0.2, 0.2).t, 1e-12, "Wrong intersection");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A face of a missing vertex, of the 0 index, of too few vertices; a bad number
+        assertThrows(IllegalArgumentException.class, () -> load("v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 4\n"),
+                "A face of a missing vertex");
+        assertThrows(IllegalArgumentException.class, () -> load("v 0 0 0\nv 1 0 0\nv 0 1 0\nf 0 1 2\n"),
+                "The 0 index");
+        assertThrows(IllegalArgumentException.class, () -> load("v 0 0 0\nv 1 0 0\nf 1 2\n"),
+                "A face of 2 vertices");
+        assertThrows(IllegalArgumentException.class, () -> load("v 0 0 0\nv 1 0 x\nv 0 1 0\nf 1 2 3\n"),
+                "A bad number");
+        assertThrows(IllegalArgumentException.class, () -> load("v 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n"),
+                "A missing coordinate");
+
+        // TC11: No face at all
+        assertThrows(IllegalArgumentException.class, () -> load("v 0 0 0\n"), "A model of no face");
+
+        // TC12: A file which doesn't exist (anymore)
+        assertThrows(IllegalStateException.class, () -> new ObjLoader().load(file),
+                "A missing file");
+    }
+
+    /**
+     * Loads a number as the x of a triangle's vertex.
+     *
+     * @param text the number
+     * @return the loaded number
+     */
+    private static double loadX(String text) throws IOException {
+        TriangleMesh mesh = load("v " + text + " 5 0\nv 6 5 0\nv 0 6 0\nf 1 2 3\n");
+        return mesh.getVertex(0).getX();
+    }
+}
@@ -0,0 +1,229 @@
+package scene;
+
+import geometries.Intersectable.GeoPoint;
+import geometries.TriangleMesh;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for scene.PlyLoader class
+ * @author Ayala Houri and Shani Zegal
+ */
+class PlyLoaderTests {
+    /** The header of a unit square at z = 1 with normals, a texture list before the indices and an edge element */
+    private static final String SQUARE_HEADER = """
+            ply
+            format binary_little_endian 1.0
+            comment a unit square at z = 1
+            element vertex 4
+            property float x
+            property float y
+            property float z
+            property float nx
+            property float ny
+            property float nz
+            element face 1
+            property list uchar float texcoord
+            property list uchar int vertex_indices
+            element edge 1
+            property list uchar int vertex_pair
+            end_header
+            """;
+
+    /**
+     * Writes a PLY file.
+     *
+     * @param header the header text
+     * @param body   the binary data
+     * @return the file
+     */
+    private static Path write(String header, ByteBuffer body) throws IOException {
+        Path file = Files.createTempFile("model", ".ply");
+        byte[] head = header.getBytes(StandardCharsets.US_ASCII);
+        byte[] data = Arrays.copyOf(body.array(), body.position());
+        byte[] all = Arrays.copyOf(head, head.length + data.length);
+        System.arraycopy(data, 0, all, head.length, data.length);
+        Files.write(file, all);
+        return file;
+    }
+
+    /**
+     * Loads a model from a written PLY file and deletes the file.
+     *
+     * @param loader the loader
+     * @param header the header text
+     * @param body   the binary data
+     * @return the mesh
+     */
+    private static TriangleMesh load(PlyLoader loader, String header, ByteBuffer body) throws IOException {
+        Path file = write(header, body);
+        try {
+            return loader.load(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Builds the body of the unit square.
+     *
+     * @return the body
+     */
+    private static ByteBuffer square() {
+        ByteBuffer body = ByteBuffer.allocate(200).order(ByteOrder.LITTLE_ENDIAN);
+        float[][] vertices = { { 0, 0, 1 }, { 1, 0, 1 }, { 1, 1, 1 }, { 0, 1, 1 } };
+        float[][] normals = { { 0, 0, 1 }, { 1, 0, 0 }, { 0, 0, 1 }, { 0, 0, 1 } };
+        for (int v = 0; v < 4; ++v) {
+            for (float c : vertices[v]) body.putFloat(c);
+            for (float c : normals[v]) body.putFloat(c);
+        }
+        body.put((byte) 2).putFloat(0.5f).putFloat(0.5f);
+        body.put((byte) 4).putInt(0).putInt(1).putInt(2).putInt(3);
+        body.put((byte) 2).putInt(0).putInt(2);
+        return body;
+    }
+
+    /**
+     * Finds the closest intersection of a vertical ray through a point of the xy plane.
+     *
+     * @param mesh the mesh
+     * @param x    the x of the point
+     * @param y    the y of the point
+     * @return the intersection, null if there is none
+     */
+    private static GeoPoint down(TriangleMesh mesh, double x, double y) {
+        return mesh.findClosestIntersection(new Ray(new Point(x, y, 10), new Vector(0, 0, -1)));
+    }
+
+    /**
+     * Test method for {@link scene.PlyLoader#load(Path)}.
+     */
+    @Test
+    void testLoad() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: A quad (split into two triangles) with normals, skipping the other lists and elements
+        PlyLoader loader = new PlyLoader();
+        TriangleMesh mesh = load(loader, SQUARE_HEADER, square());
+        assertEquals(2, mesh.getTriangleCount(), "The quad supposed to be split into two triangles");
+        assertEquals(4, mesh.getVertexCount(), "Wrong number of vertices");
+        assertEquals(9, down(mesh, 0.7, 0.2).t, 1e-12, "Wrong intersection with the 1st triangle");
+        assertEquals(9, down(mesh, 0.2, 0.7).t, 1e-12, "Wrong intersection with the 2nd triangle");
+        assertEquals(new Vector(0.5, 0, 0.5).normalize(), down(mesh, 0.75, 0.25).getNormal(),
+                "Wrong interpolated normal");
+        assertTrue(loader.getMegabytesPerSecond() > 0, "The throughput supposed to be measured");
+        assertTrue(loader.getTrianglesPerSecond() > 0, "The throughput supposed to be measured");
+
+        // TC02: Vertices of doubles (read in bulk) and faces of unsigned short indices
+        ByteBuffer body = ByteBuffer.allocate(100).order(ByteOrder.LITTLE_ENDIAN);
+        for (double c : new double[] { 0.1, 0, 0, 1, 0, 0, 0, 1, 0 }) body.putDouble(c);
+        body.put((byte) 3).putShort((short) 0).putShort((short) 1).putShort((short) 2);
+        mesh = load(new PlyLoader(), """
+                ply
+                format binary_little_endian 1.0
+                element vertex 3
+                property double x
+                property double y
+                property double z
+                element face 1
+                property list uchar ushort vertex_index
+                end_header
+                """, body);
+        assertEquals(new Point(0.1, 0, 0), mesh.getVertex(0), "Wrong vertex");
+        assertEquals(10, down(mesh, 0.2, 0.2).t, 1e-12, "Wrong intersection");
+
+        // TC03: A big endian file
+        body = ByteBuffer.allocate(100);
+        for (float c : new float[] { 0, 0, 2, 1, 0, 2, 0, 1, 2 }) body.putFloat(c);
+        body.put((byte) 3).putInt(0).putInt(1).putInt(2);
+        mesh = load(new PlyLoader(), """
+                ply
+                format binary_big_endian 1.0
+                element vertex 3
+                property float32 x
+                property float32 y
+                property float32 z
+                element face 1
+                property list uint8 int32 vertex_indices
+                end_header
+                """, body);
+        assertEquals(8, down(mesh, 0.2, 0.2).t, 1e-12, "Wrong intersection");
+
+        // TC04: Mapping a file in small windows gives the same mesh
+        mesh = load(new PlyLoader(16), SQUARE_HEADER, square());
+        assertEquals(2, mesh.getTriangleCount(), "Wrong number of triangles");
+        assertEquals(new Point(1, 1, 1), mesh.getVertex(2), "Wrong vertex");
+        assertEquals(new Vector(0.5, 0, 0.5).normalize(), down(mesh, 0.75, 0.25).getNormal(),
+                "Wrong interpolated normal");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: A text file, vertices of no z, a face of 2 vertices, a truncated file
+        assertThrows(IllegalArgumentException.class,
+                () -> load(new PlyLoader(), SQUARE_HEADER.replace("binary_little_endian", "ascii"), square()),
+                "A text file");
+        assertThrows(IllegalArgumentException.class,
+                () -> load(new PlyLoader(), SQUARE_HEADER.replace("float z", "float w"), square()),
+                "Vertices of no z");
+        ByteBuffer pair = square();
+        pair.put(105, (byte) 2);
+        assertThrows(IllegalArgumentException.class, () -> load(new PlyLoader(), SQUARE_HEADER, pair),
+                "A face of 2 vertices");
+        ByteBuffer truncated = square();
+        truncated.position(truncated.position() - 20);
+        assertThrows(IllegalArgumentException.class, () -> load(new PlyLoader(), SQUARE_HEADER, truncated),
+                "A truncated file");
+
+        // TC11: Counts which the file can't hold are rejected before anything is allocated by them
+        assertThrows(IllegalArgumentException.class,
+                () -> load(new PlyLoader(), SQUARE_HEADER.replace("element face 1", "element face 600000000"),
+                        square()), "Too many faces");
+        assertThrows(IllegalArgumentException.class,
+                () -> load(new PlyLoader(), SQUARE_HEADER.replace("element vertex 4", "element vertex 700000000"),
+                        square()), "Too many vertices");
+        assertThrows(IllegalArgumentException.class,
+                () -> load(new PlyLoader(),
+                        SQUARE_HEADER.replace("element edge 1", "element edge 4611686018427387904"), square()),
+                "A count which overflows the size");
+
+        // TC12: No face at all
+        assertThrows(IllegalArgumentException.class,
+                () -> load(new PlyLoader(), SQUARE_HEADER.replace("element face 1", "element face 0"), square()),
+                "A model of no face");
+
+        // TC13: A file which doesn't exist
+        Path file = Files.createTempFile("missing", ".ply");
+        Files.delete(file);
+        assertThrows(IllegalStateException.class, () -> new PlyLoader().load(file), "A missing file");
+
+        // TC14: List counts which the file can't hold or which are negative are rejected
+        ByteBuffer longList = square();
+        longList.put(105, (byte) 255);
+        assertThrows(IllegalArgumentException.class, () -> load(new PlyLoader(), SQUARE_HEADER, longList),
+                "A face list longer than the file");
+        ByteBuffer longSkipped = square();
+        longSkipped.put(96, (byte) 255);
+        assertThrows(IllegalArgumentException.class, () -> load(new PlyLoader(), SQUARE_HEADER, longSkipped),
+                "A skipped list longer than the file");
+        ByteBuffer negative = square();
+        negative.put(122, (byte) -1);
+        String signed = SQUARE_HEADER.replace("uchar int vertex_pair", "char int vertex_pair");
+        assertThrows(IllegalArgumentException.class, () -> load(new PlyLoader(), signed, negative),
+                "A negative count of a skipped list");
+        ByteBuffer huge = square().position(122);
+        huge.putFloat(1e30f).putInt(0).putInt(2);
+        String real = SQUARE_HEADER.replace("uchar int vertex_pair", "float int vertex_pair");
+        assertThrows(IllegalArgumentException.class, () -> load(new PlyLoader(), real, huge),
+                "A list count which overflows the size");
+    }
+}
@@ -0,0 +1,166 @@
+package scene;
+
+import geometries.*;
+import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import renderer.Camera;
+import renderer.RayTracerBasic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for scene.SceneLoader and scene.SceneWriter classes
+ * @author Ayala Houri and Shani Zegal
+ */
+class SceneLoaderTests {
+    /**
+     * Builds a scene of all the kinds of geometries and lights.
+     *
+     * @return the scene
+     */
+    private static Scene scene() {
+        Material shiny = new Material().setKd(0.4).setKs(new Double3(0.3, 0.4, 0.5)).setShininess(80).setKr(0.2);
+        Material glass = new Material().setKd(0.1).setKs(0.5).setShininess(200).setKt(0.6).setMaxDepth(3);
+        Scene scene = new Scene.SceneBuilder("All kinds \u2013 test")
+                .setBackground(new Color(10, 20, 30))
+                .setAmbientLight(new AmbientLight(new Color(255, 255, 255), new Double3(0.1)))
+                .build();
+        Geometries group = new Geometries();
+        group.add(new Sphere(new Point(0, 0, -50), 20).setEmission(new Color(40, 0, 0)).setMaterial(shiny),
+                new Sphere(new Point(40, 10, -70), 15).setEmission(new Color(0, 40, 0)).setMaterial(shiny),
+                new Tube(5, new Ray(new Point(-60, 0, -80), new Vector(0, 1, 0.2))).setMaterial(shiny));
+        scene.geometries.add(new Plane(new Point(0, -30, 0), new Vector(0, 1, 0)).setMaterial(shiny),
+                group,
+                new Triangle(new Point(-50, -30, -100), new Point(50, -30, -100), new Point(0, 60, -110))
+                        .setEmission(new Color(20, 20, 60)).setMaterial(glass),
+                new Polygon(new Point(-20, 20, -40), new Point(-10, 20, -40), new Point(-10, 30, -40),
+                        new Point(-20, 30, -40)).setMaterial(glass),
+                new Cylinder(new Ray(new Point(25, -30, -40), new Vector(0.1, 1, 0)), 6, 25)
+                        .setEmission(new Color(30, 30, 0)).setMaterial(glass),
+                new TriangleMesh(new double[] { 10, 30, -60, 30, 30, -60, 20, 45, -65, 35, 45, -55 },
+                        new int[] { 0, 1, 2, 1, 3, 2 }, new float[] { 0, 0, 1, 1, 0, 0, 0, 0, 1, 0, 1, 0 })
+                        .setEmission(new Color(0, 30, 30)).setMaterial(shiny),
+                new TriangleMesh(new double[] { -40, 30, -60, -20, 30, -60, -30, 45, -65 }, new int[] { 0, 1, 2 })
+                        .setMaterial(glass));
+        scene.getLights().add(new DirectionalLight(new Color(200, 150, 100), new Vector(1, -1, -1)));
+        scene.getLights().add(new PointLight(new Color(300, 300, 300), new Point(-30, 40, 0)).setKl(0.001).setKq(1e-5));
+        scene.getLights().add(new SpotLight(new Color(500, 200, 200), new Point(30, 40, 10), new Vector(-1, -1, -2))
+                .setConcentration(4).setKl(new Double3(0.001, 0.002, 0.003)));
+        return scene;
+    }
+
+    /**
+     * Writes a scene and loads it back.
+     *
+     * @param scene  the scene
+     * @param camera the camera, or null
+     * @param loader the loader
+     * @return the loaded scene
+     */
+    private static Scene writeAndLoad(Scene scene, Camera camera, SceneLoader loader) throws IOException {
+        Path file = Files.createTempFile("scene", ".bin");
+        try {
+            new SceneWriter().write(file, scene, camera);
+            return loader.load(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Loads a file of given bytes.
+     *
+     * @param bytes the bytes
+     * @return the loaded scene
+     */
+    private static Scene load(byte[] bytes) throws IOException {
+        Path file = Files.createTempFile("scene", ".bin");
+        try {
+            Files.write(file, bytes);
+            return new SceneLoader().load(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test method for {@link scene.SceneLoader#load(Path)} and
+     * {@link scene.SceneWriter#write(Path, Scene, Camera)}.
+     */
+    @Test
+    void testLoad() throws IOException {
+        Scene scene = scene();
+        Camera camera = new Camera(new Point(0, 0, 100), new Vector(0, 0, -1), new Vector(0, 1, 0))
+                .setVPSize(120, 90).setVPDistance(150);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The loaded scene traces the rays to the colors of the written one
+        SceneLoader loader = new SceneLoader();
+        Scene loaded = writeAndLoad(scene, camera, loader);
+        assertEquals(scene.getName(), loaded.getName(), "Wrong name");
+        assertEquals(9, loaded.getGeometries().getIntersectables().size(), "The groups supposed to be flattened");
+        assertEquals(3, loaded.getLights().size(), "Wrong number of lights");
+        RayTracerBasic expected = new RayTracerBasic(scene), result = new RayTracerBasic(loaded);
+        Random random = new Random(25);
+        for (int i = 0; i < 2000; ++i) {
+            Ray ray = new Ray(new Point(random.nextDouble(-20, 20), random.nextDouble(-20, 20), 100),
+                    new Vector(random.nextDouble(-0.8, 0.8), random.nextDouble(-0.8, 0.8), -1));
+            Color color = expected.traceRay(ray), loadedColor = result.traceRay(ray);
+            assertEquals(color.getR(), loadedColor.getR(), 1e-9, "Wrong color of " + ray);
+            assertEquals(color.getG(), loadedColor.getG(), 1e-9, "Wrong color of " + ray);
+            assertEquals(color.getB(), loadedColor.getB(), 1e-9, "Wrong color of " + ray);
+        }
+        assertTrue(loader.getMegabytesPerSecond() > 0, "The throughput supposed to be measured");
+
+        // TC02: The geometries of a material share it, the camera is restored
+        assertSame(((Geometry) loaded.getGeometries().getIntersectables().get(1)).getMaterial(),
+                ((Geometry) loaded.getGeometries().getIntersectables().get(2)).getMaterial(),
+                "The spheres supposed to share their material");
+        assertEquals(camera.getP0(), loader.getCamera().getP0(), "Wrong camera location");
+        assertEquals(camera.getvTo(), loader.getCamera().getvTo(), "Wrong camera direction");
+        assertEquals(camera.getWidth(), loader.getCamera().getWidth(), "Wrong view plane width");
+        assertEquals(camera.getDistance(), loader.getCamera().getDistance(), "Wrong view plane distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: An empty scene with no camera
+        loaded = writeAndLoad(new Scene.SceneBuilder("empty").build(), null, loader);
+        assertTrue(loaded.getGeometries().getIntersectables().isEmpty(), "The scene supposed to be empty");
+        assertTrue(loaded.getLights().isEmpty(), "The scene supposed to have no light");
+        assertNull(loader.getCamera(), "The scene supposed to have no camera");
+
+        // TC11: Not a scene file, a newer version, a truncated file
+        Path file = Files.createTempFile("scene", ".bin");
+        new SceneWriter().write(file, scene);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.delete(file);
+        assertThrows(IllegalArgumentException.class, () -> load("ply\n".getBytes()), "Not a scene file");
+        byte[] newer = bytes.clone();
+        ByteBuffer.wrap(newer).order(ByteOrder.LITTLE_ENDIAN).putInt(4, SceneFormat.VERSION + 1);
+        assertThrows(IllegalArgumentException.class, () -> load(newer), "A newer version");
+        for (int length : new int[] { 10, bytes.length / 2, bytes.length - 1 })
+            assertThrows(IllegalArgumentException.class, () -> load(Arrays.copyOf(bytes, length)),
+                    "A truncated file of " + length + " bytes");
+
+        // TC12: A geometry which can't be written
+        Scene hierarchy = new Scene.SceneBuilder("hierarchy")
+                .setGeometries(new Geometries(new BoundingVolumeHierarchy(new Geometries(new Sphere(Point.ZERO, 1)))))
+                .build();
+        assertThrows(IllegalArgumentException.class, () -> writeAndLoad(hierarchy, null, new SceneLoader()),
+                "A hierarchy can't be written");
+
+        // TC13: A file which doesn't exist
+        assertThrows(IllegalStateException.class, () -> new SceneLoader().load(file), "A missing file");
+    }
+}